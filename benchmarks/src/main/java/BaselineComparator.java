@@ -0,0 +1,98 @@
+package com.example.taskmanager.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMH の JSON 結果をベースラインと比較し、許容幅を超えて遅くなったベンチマークがあれば失敗させる。
+ * <p>
+ * 引数: {@code <結果 JSON> <ベースライン JSON> <許容幅 (0.10 = 10%)> <ベースラインを更新するか>}。
+ * ベースラインに無いベンチマークは比較対象外として報告だけする。ベースラインが空（未記録）なら
+ * 全てが比較対象外になるので、比較を飛ばしたことをはっきり出す。ベースラインは CI と同じ環境で記録すること。
+ * exec:java から呼ばれるので System.exit ではなく例外で失敗を伝える。
+ */
+public final class BaselineComparator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path resultPath = Path.of(args[0]);
+        Path baselinePath = Path.of(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+        boolean updateBaseline = Boolean.parseBoolean(args[3]);
+
+        if (updateBaseline) {
+            Files.copy(resultPath, baselinePath, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated: " + baselinePath);
+            return;
+        }
+
+        Map<String, JsonNode> baseline = index(Files.exists(baselinePath)
+                ? MAPPER.readTree(baselinePath.toFile()) : MAPPER.createArrayNode());
+        if (baseline.isEmpty()) {
+            System.out.println("[SKIP] No baseline recorded in " + baselinePath + "; regression check skipped. "
+                    + "Record one on the CI runner with -Dbenchmarks.update-baseline=true and commit it.");
+        }
+        List<String> regressions = new ArrayList<>();
+        for (JsonNode result : MAPPER.readTree(resultPath.toFile())) {
+            String key = key(result);
+            JsonNode metric = result.path("primaryMetric");
+            double score = metric.path("score").asDouble();
+            String unit = metric.path("scoreUnit").asText();
+            JsonNode percentiles = metric.path("scorePercentiles");
+            String summary = String.format("%-70s mean=%.3f p50=%.3f p99=%.3f %s", key, score,
+                    percentiles.path("50.0").asDouble(), percentiles.path("99.0").asDouble(), unit);
+
+            JsonNode previous = baseline.get(key);
+            if (previous == null) {
+                System.out.println("[NEW ] " + summary);
+                continue;
+            }
+            double baseScore = previous.path("primaryMetric").path("score").asDouble();
+            double change = (score - baseScore) / baseScore;
+            // SampleTime/AverageTime は小さいほど良く、Throughput は大きいほど良い
+            boolean lowerIsBetter = !"thrpt".equals(result.path("mode").asText());
+            double regression = lowerIsBetter ? change : -change;
+            String line = String.format("%s (%+.1f%% vs baseline)", summary, change * 100);
+            if (regression > tolerance) {
+                System.out.println("[FAIL] " + line);
+                regressions.add(key);
+            } else {
+                System.out.println("[ OK ] " + line);
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException(String.format(
+                    "%d benchmark(s) regressed more than %.0f%%: %s",
+                    regressions.size(), tolerance * 100, regressions));
+        }
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new HashMap<>();
+        for (JsonNode result : results) {
+            byKey.put(key(result), result);
+        }
+        return byKey;
+    }
+
+    private static String key(JsonNode result) {
+        StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+        result.path("params").fields().forEachRemaining(param ->
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+        return key.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.TaskManagerApplication;
+import com.example.taskmanager.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * プラットフォームスレッドと仮想スレッドのリクエスト処理を、同じ負荷（100 クライアントスレッド）で比較する。
+ * Throughput と SampleTime（p99 を含む）の両方を出す。
+ * <p>
+ * 既定は H2 だが、JDBC の待ちが支配的な本番に近づけるには
+ * {@code -Dbenchmark.datasource.url=jdbc:postgresql://...} などで実 DB を指定する。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(100)
+@State(Scope.Benchmark)
+public class ExecutionModeBenchmark {
+
+    private static final int TASK_COUNT = 1000;
+
+    @Param({"platform", "virtual"})
+    String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                        "--spring.datasource.url=" + System.getProperty("benchmark.datasource.url",
+                                "jdbc:h2:mem:modes;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"),
+                        "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "sa"),
+                        "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""),
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--logging.level.root=WARN");
+        TaskService taskService = context.getBean(TaskService.class);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            taskService.createTask("Task " + i);
+        }
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getTask() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(1, TASK_COUNT + 1);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks/" + id)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.taskmanager.benchmarks;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * サービス層のベンチマーク用に DB を置き換える {@link JpaRepository} のメモリ上の実装。
+ * <p>
+ * 行は ID 順のマップに保存したインスタンスのまま持つ（永続化コンテキストと同じく、読んだエンティティを変更すると
+ * 行も変わる）。並び順は Spring Data と同じプロパティ名で指定できる。
+ * Query by Example はどのサービスも使わないので実装していない。
+ */
+abstract class InMemoryJpaRepository<T> implements JpaRepository<T, Long> {
+
+    protected final ConcurrentSkipListMap<Long, T> rows = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    protected abstract Long idOf(T entity);
+
+    protected abstract void assignId(T entity, long id);
+
+    /**
+     * 行を保存した直後に呼ばれる。サブクラスが副次的な索引を保つのに使う。
+     */
+    protected void onSaved(T entity) {
+    }
+
+    /**
+     * 行を削除した直後に呼ばれる。
+     */
+    protected void onRemoved(T entity) {
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        Long id = idOf(entity);
+        if (id == null) {
+            id = sequence.incrementAndGet();
+            assignId(entity, id);
+        } else {
+            sequence.accumulateAndGet(id, Math::max);
+        }
+        rows.put(id, entity);
+        onSaved(entity);
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        for (S entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+
+    @Override
+    public <S extends T> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends T> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public Optional<T> findById(Long id) {
+        return Optional.ofNullable(rows.get(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return rows.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return new ArrayList<>(rows.values());
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<Long> ids) {
+        List<T> found = new ArrayList<>();
+        for (Long id : ids) {
+            T row = rows.get(id);
+            if (row != null) {
+                found.add(row);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        List<T> all = findAll();
+        if (sort.isSorted()) {
+            all.sort(comparator(sort));
+        }
+        return all;
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> all = findAll(pageable.getSort());
+        return new PageImpl<>(slice(all, pageable), pageable, all.size());
+    }
+
+    @Override
+    public long count() {
+        return rows.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        remove(id);
+    }
+
+    @Override
+    public void delete(T entity) {
+        Long id = idOf(entity);
+        if (id != null) {
+            remove(id);
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        for (Long id : ids) {
+            remove(id);
+        }
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        for (T entity : entities) {
+            delete(entity);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        for (Long id : new ArrayList<>(rows.keySet())) {
+            remove(id);
+        }
+    }
+
+    @Override
+    @Deprecated
+    public void deleteInBatch(Iterable<T> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<T> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    @Deprecated
+    public T getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public T getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public T getReferenceById(Long id) {
+        T row = rows.get(id);
+        if (row == null) {
+            throw new EntityNotFoundException("No row with id " + id);
+        }
+        return row;
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        throw exampleNotSupported();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        throw exampleNotSupported();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        throw exampleNotSupported();
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw exampleNotSupported();
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        throw exampleNotSupported();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        throw exampleNotSupported();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example,
+                                     Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw exampleNotSupported();
+    }
+
+    protected T remove(Long id) {
+        T removed = rows.remove(id);
+        if (removed != null) {
+            onRemoved(removed);
+        }
+        return removed;
+    }
+
+    /**
+     * OFFSET / LIMIT に相当する切り出し。
+     */
+    protected static <E> List<E> slice(List<E> all, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return all;
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new ArrayList<>(all.subList(from, to));
+    }
+
+    private static <E> Comparator<E> comparator(Sort sort) {
+        Comparator<E> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<E> next = Comparator.comparing(entity -> property(entity, order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> property(Object entity, String name) {
+        return (Comparable<Object>) new BeanWrapperImpl(entity).getPropertyValue(name);
+    }
+
+    private static UnsupportedOperationException exampleNotSupported() {
+        return new UnsupportedOperationException("Query by Example is not supported in benchmarks");
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskPriority;
+import com.example.taskmanager.TaskQuery;
+import com.example.taskmanager.TaskRepository;
+import com.example.taskmanager.TaskSummary;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * サービス層のベンチマーク用に DB を置き換える {@link TaskRepository} の代役。
+ * <p>
+ * {@code user_tasks} の代わりにユーザー ID → タスク ID の集合を持つ。ユーザーの行は無いので、
+ * {@link #assignToUser} はユーザーの存在を確かめない（タスクが無ければ false）。
+ */
+final class InMemoryTaskRepository extends InMemoryJpaRepository<Task> implements TaskRepository {
+
+    private final Map<Long, Set<Long>> userTasks = new ConcurrentHashMap<>();
+
+    @Override
+    protected Long idOf(Task task) {
+        return task.getId();
+    }
+
+    @Override
+    protected void assignId(Task task, long id) {
+        task.setId(id);
+    }
+
+    @Override
+    protected void onRemoved(Task task) {
+        // ON DELETE CASCADE
+        userTasks.values().forEach(ids -> ids.remove(task.getId()));
+    }
+
+    @Override
+    public long countByCompleted(boolean completed) {
+        return rows.values().stream().filter(task -> task.isCompleted() == completed).count();
+    }
+
+    @Override
+    public List<TaskCountRow> countGroupedByPriorityAndCompleted() {
+        Map<CountKey, Long> counts = rows.values().stream()
+                .collect(Collectors.groupingBy(task -> new CountKey(task.getPriority(), task.isCompleted()),
+                        Collectors.counting()));
+        List<TaskCountRow> result = new ArrayList<>(counts.size());
+        counts.forEach((key, total) -> result.add(new CountRow(key.priority(), key.completed(), total)));
+        return result;
+    }
+
+    @Override
+    public List<Task> insertAll(List<Task> tasks) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : tasks) {
+            if (task.getCreatedAt() == null) {
+                task.setCreatedAt(now);
+            }
+            task.setUpdatedAt(task.getCreatedAt());
+            save(task);
+        }
+        return tasks;
+    }
+
+    @Override
+    public void forEachTask(Consumer<Task> action) {
+        rows.values().forEach(action);
+    }
+
+    @Override
+    public List<TaskSummary> findSummaries(TaskQuery query) {
+        return rows.values().stream()
+                .filter(query::matches)
+                .sorted(query.comparator())
+                .limit(query.limit())
+                .map(TaskSummary::of)
+                .toList();
+    }
+
+    // 1 文の UPDATE / DELETE と同じく、反転後（削除直前）の行のコピーを返し、存在しない ID は含めない
+    @Override
+    public List<Task> toggleCompletion(long... ids) {
+        List<Task> toggled = new ArrayList<>(ids.length);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id : ids) {
+            Task row = rows.computeIfPresent(id, (key, task) -> {
+                Task updated = new Task(task);
+                updated.setCompleted(!task.isCompleted());
+                updated.setUpdatedAt(now);
+                return updated;
+            });
+            if (row != null) {
+                toggled.add(new Task(row));
+            }
+        }
+        return toggled;
+    }
+
+    @Override
+    public List<Task> deleteReturning(long... ids) {
+        List<Task> deleted = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Task row = remove(id);
+            if (row != null) {
+                deleted.add(row);
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public boolean assignToUser(long taskId, long userId) {
+        if (!rows.containsKey(taskId)) {
+            return false;
+        }
+        userTasks.computeIfAbsent(userId, key -> new ConcurrentSkipListSet<>()).add(taskId);
+        return true;
+    }
+
+    @Override
+    public long[] findTaskIdsByUser(long userId) {
+        Set<Long> ids = userTasks.get(userId);
+        return ids != null ? ids.stream().mapToLong(Long::longValue).toArray() : new long[0];
+    }
+
+    private record CountKey(TaskPriority priority, boolean completed) {
+    }
+
+    private record CountRow(TaskPriority priority, Boolean completed, long total) implements TaskCountRow {
+
+        @Override
+        public TaskPriority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public Boolean getCompleted() {
+            return completed;
+        }
+
+        @Override
+        public long getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.User;
+import com.example.taskmanager.UserRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * サービス層のベンチマーク用に DB を置き換える {@link UserRepository} の代役。
+ * <p>
+ * {@code findByEmail} が全件走査にならないよう、メールアドレスの一意索引に相当するマップを持つ。
+ * 保存済みのインスタンスのメールアドレスを書き換えてから保存し直しても索引が追従するよう、ID ごとの登録値も覚えておく。
+ */
+final class InMemoryUserRepository extends InMemoryJpaRepository<User> implements UserRepository {
+
+    private final Map<String, User> byEmail = new ConcurrentHashMap<>();
+    private final Map<Long, String> emails = new ConcurrentHashMap<>();
+
+    @Override
+    protected Long idOf(User user) {
+        return user.getId();
+    }
+
+    @Override
+    protected void assignId(User user, long id) {
+        user.setId(id);
+    }
+
+    @Override
+    protected void onSaved(User user) {
+        String previous = emails.put(user.getId(), user.getEmail());
+        if (previous != null && !previous.equals(user.getEmail())) {
+            byEmail.remove(previous);
+        }
+        byEmail.put(user.getEmail(), user);
+    }
+
+    @Override
+    protected void onRemoved(User user) {
+        String email = emails.remove(user.getId());
+        if (email != null) {
+            byEmail.remove(email);
+        }
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(byEmail.get(email));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return byEmail.containsKey(email);
+    }
+
+    // LIKE '%fragment%' の全件走査に相当する
+    @Override
+    public List<User> searchByEmail(String fragment, Pageable pageable) {
+        String lower = fragment.toLowerCase(Locale.ROOT);
+        List<User> users = new ArrayList<>();
+        for (User user : rows.values()) {
+            if (user.getEmail().toLowerCase(Locale.ROOT).contains(lower)) {
+                users.add(user);
+            }
+        }
+        return slice(users, pageable);
+    }
+
+    @Override
+    public List<User> findAllByIdIn(List<Long> ids) {
+        return ids.stream().map(rows::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit) {
+        int max = limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+        List<User> users = new ArrayList<>(Math.min(max, 1024));
+        for (User user : rows.tailMap(afterId, false).values()) {
+            if (users.size() == max) {
+                break;
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    @Override
+    public List<User> findAllByOrderByIdAsc(Pageable pageable) {
+        return slice(findAll(), pageable);
+    }
+
+    @Override
+    public int updatePasswordHash(Long id, String hash) {
+        User user = rows.get(id);
+        if (user == null) {
+            return 0;
+        }
+        user.setPasswordHash(hash);
+        return 1;
+    }
+
+    @Override
+    public List<UserEmailRow> findAllEmails() {
+        List<UserEmailRow> result = new ArrayList<>(rows.size());
+        for (User user : rows.values()) {
+            result.add(new EmailRow(user.getId(), user.getEmail()));
+        }
+        return result;
+    }
+
+    private record EmailRow(Long id, String email) implements UserEmailRow {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.MethodTimingInterceptor;
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskService;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MethodTimingInterceptor} の 1 呼び出しあたりのコスト。
+ * <p>
+ * 本番のサービスは @Transactional のためにもともとプロキシ経由なので、素通しのインターセプターを挟んだ
+ * {@link #proxied()} と計測付きの {@link #timed()} の差が計測のオーバーヘッドになる。
+ * {@code OverheadBudgetCheck} がこの差を 1 µs の予算と比べる。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MethodTimingBenchmark {
+
+    private TaskService direct;
+    private TaskService proxied;
+    private TaskService timed;
+    private long taskId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        direct = new TaskService(new InMemoryTaskRepository());
+        taskId = direct.createTask("Benchmark").getId();
+
+        MethodInterceptor passThrough = invocation -> invocation.proceed();
+        proxied = proxy(direct, passThrough);
+
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        timed = proxy(direct, new MethodTimingInterceptor(() -> registry, "service", null));
+    }
+
+    private static TaskService proxy(TaskService target, MethodInterceptor interceptor) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(interceptor);
+        return (TaskService) factory.getProxy();
+    }
+
+    @Benchmark
+    public Task direct() {
+        return direct.getTask(taskId);
+    }
+
+    @Benchmark
+    public Task proxied() {
+        return proxied.getTask(taskId);
+    }
+
+    @Benchmark
+    public Task timed() {
+        return timed.getTask(taskId);
+    }
+}
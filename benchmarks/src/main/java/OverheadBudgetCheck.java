@@ -0,0 +1,57 @@
+package com.example.taskmanager.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 2 つのベンチマークのスコア差が予算内かを確かめる。
+ * <p>
+ * 引数: {@code <結果 JSON> <基準ベンチマーク> <対象ベンチマーク> <予算 (ns)>}。
+ * どちらかが結果に無ければ（-Dbenchmarks.include で除外されたなど）何もしない。
+ */
+public final class OverheadBudgetCheck {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private OverheadBudgetCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        JsonNode results = MAPPER.readTree(Path.of(args[0]).toFile());
+        String baselineName = args[1];
+        String candidateName = args[2];
+        double budgetNanos = Double.parseDouble(args[3]);
+
+        Double baseline = scoreNanos(results, baselineName);
+        Double candidate = scoreNanos(results, candidateName);
+        if (baseline == null || candidate == null) {
+            System.out.println("[SKIP] " + candidateName + " vs " + baselineName + ": not in results");
+            return;
+        }
+        double overhead = candidate - baseline;
+        String line = String.format("%s - %s = %.1f ns (budget %.0f ns)", candidateName, baselineName, overhead, budgetNanos);
+        if (overhead > budgetNanos) {
+            throw new IllegalStateException("Overhead budget exceeded: " + line);
+        }
+        System.out.println("[ OK ] " + line);
+    }
+
+    private static Double scoreNanos(JsonNode results, String benchmark) {
+        for (JsonNode result : results) {
+            if (!result.path("benchmark").asText().equals(benchmark)) {
+                continue;
+            }
+            JsonNode metric = result.path("primaryMetric");
+            double score = metric.path("score").asDouble();
+            return switch (metric.path("scoreUnit").asText()) {
+                case "us/op" -> score * 1_000;
+                case "ms/op" -> score * 1_000_000;
+                default -> score;
+            };
+        }
+        return null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskPriority;
+import com.example.taskmanager.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一覧 API のレスポンスに相当するリスト（タスクとユーザー）の Jackson シリアライズ。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"100", "1000"})
+    int size;
+
+    private ObjectMapper objectMapper;
+    // アプリケーションと同じく Blackbird を登録したもの
+    private ObjectMapper blackbirdMapper;
+    private List<Task> tasks;
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        blackbirdMapper = new ObjectMapper().registerModule(new JavaTimeModule()).registerModule(new BlackbirdModule());
+        tasks = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        TaskPriority[] priorities = TaskPriority.values();
+        for (int i = 0; i < size; i++) {
+            Task task = new Task((long) i + 1, "Task " + i, i % 3 == 0);
+            task.setDescription("Description for task " + i);
+            task.setPriority(priorities[i % priorities.length]);
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            tasks.add(task);
+        }
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com", "$2a$10$" + "x".repeat(53));
+            user.setId((long) i + 1);
+            user.setCreatedAt(now);
+            users.add(user);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeTasks() throws Exception {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeTasksBlackbird() throws Exception {
+        return blackbirdMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws Exception {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeUsersBlackbird() throws Exception {
+        return blackbirdMapper.writeValueAsBytes(users);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.taskmanager.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 起動方式ごとに、プロセスを起動してから {@code GET /api/tasks} が初めて 200 を返すまでの時間を測る。
+ * <p>
+ * JMH はプロセスの起動を測れないので、JMH とは別の main として動かす。
+ * 引数: {@code <本体の target ディレクトリ> <回数> <予算 (ms)> <方式>...}。方式は次の 3 つ。
+ * <ul>
+ *   <li>{@code jar}: 実行用 jar をそのまま起動（比較の基準。予算は適用しない）</li>
+ *   <li>{@code cds}: {@code -Pcds} で作った AOT 処理済みクラスと AppCDS アーカイブで起動</li>
+ *   <li>{@code native}: {@code -Pnative} で作ったネイティブイメージ</li>
+ * </ul>
+ * 成果物が無い方式は飛ばす。{@code jar} 以外の方式の中央値が予算を超えたら失敗する。
+ */
+public final class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.example.taskmanager.TaskManagerApplication";
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path target = Path.of(args[0]).toAbsolutePath();
+        int runs = Integer.parseInt(args[1]);
+        long budgetMillis = Long.parseLong(args[2]);
+        List<String> modes = Arrays.asList(args).subList(3, args.length);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        List<String> failures = new ArrayList<>();
+        for (String mode : modes) {
+            List<String> command = command(target, mode);
+            if (command == null) {
+                System.out.println("[SKIP] " + mode + ": not built");
+                continue;
+            }
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = measure(client, command);
+            }
+            Arrays.sort(millis);
+            long median = millis[runs / 2];
+            String line = String.format("%-6s time-to-first-request: median %d ms, min %d ms, max %d ms (%d runs)",
+                    mode, median, millis[0], millis[runs - 1], runs);
+            if (!mode.equals("jar") && median > budgetMillis) {
+                failures.add(line + " > budget " + budgetMillis + " ms");
+                System.out.println("[FAIL] " + line);
+            } else {
+                System.out.println("[ OK ] " + line);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Startup budget exceeded:\n" + String.join("\n", failures));
+        }
+    }
+
+    private static List<String> command(Path target, String mode) throws IOException {
+        return switch (mode) {
+            case "jar" -> {
+                Path jar = find(target, "-exec.jar");
+                yield jar == null ? null : List.of("java", "-jar", jar.toString());
+            }
+            case "cds" -> {
+                Path archive = target.resolve("cds/app.jsa");
+                Path jar = find(target, ".jar");
+                if (jar == null || !Files.exists(archive)) {
+                    yield null;
+                }
+                // クラスパスは -Pcds の学習実行と同じ並びにする
+                String classpath = jar + File.pathSeparator + target.resolve("cds/lib") + "/*";
+                yield List.of("java", "-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                        "-cp", classpath, MAIN_CLASS);
+            }
+            case "native" -> {
+                Path image = target.resolve("cicd-system");
+                yield Files.isExecutable(image) ? List.of(image.toString()) : null;
+            }
+            default -> throw new IllegalArgumentException("Unknown startup mode: " + mode);
+        };
+    }
+
+    /**
+     * {@code target} 直下の cicd-system-*.jar のうち {@code suffix} で終わるもの。".jar" は実行用 jar を除く。
+     */
+    private static Path find(Path target, String suffix) throws IOException {
+        if (!Files.isDirectory(target)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith("cicd-system-") && name.endsWith(suffix)
+                        && (!suffix.equals(".jar") || !name.endsWith("-exec.jar"));
+            }).findFirst().orElse(null);
+        }
+    }
+
+    private static long measure(HttpClient client, List<String> command) throws Exception {
+        int port = freePort();
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks?limit=1"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(withPort)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // まだ待ち受けていない
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No successful request within " + TIMEOUT + ": " + command);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskRepository;
+import com.example.taskmanager.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DB を除いた {@link TaskService} 自体のコスト。SampleTime なのでパーセンタイルも出力される。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskServiceBenchmark {
+
+    @Param({"1000"})
+    int taskCount;
+
+    private TaskService taskService;
+    private List<String> batchTitles;
+    private long toggleId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TaskRepository repository = new InMemoryTaskRepository();
+        taskService = new TaskService(repository);
+        for (int i = 0; i < taskCount; i++) {
+            taskService.createTask("Task " + i);
+        }
+        batchTitles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batchTitles.add("Batch " + i);
+        }
+    }
+
+    @Benchmark
+    public List<Task> getAllTasks() {
+        return taskService.getAllTasks();
+    }
+
+    @Benchmark
+    public Task toggleTaskCompletion() {
+        toggleId = toggleId % taskCount + 1;
+        return taskService.toggleTaskCompletion(toggleId);
+    }
+
+    @Benchmark
+    public long getCompletedTaskCount() {
+        return taskService.getCompletedTaskCount();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.User;
+import com.example.taskmanager.UserEmailIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ユーザー数を変えてもメールアドレス検索の時間がほぼ変わらないことを確認する。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class UserEmailIndexBenchmark {
+
+    @Param({"10000", "1000000"})
+    int userCount;
+
+    private UserEmailIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 起動時ロードは経由せず、作成イベントで索引を組み立てる
+        index = new UserEmailIndex(null);
+        for (long i = 1; i <= userCount; i++) {
+            index.onCreated(newUser(i, "user" + i + "@example" + (i % 50) + ".com"));
+        }
+        index.onCreated(newUser(userCount + 1L, "john.doe@example.com"));
+    }
+
+    @Benchmark
+    public long[] searchRareFragment() {
+        return index.search("doe@example", 100);
+    }
+
+    @Benchmark
+    public long[] searchCommonFragment() {
+        return index.search("@example7.com", 100);
+    }
+
+    private static User newUser(long id, String email) {
+        User user = new User("u" + id, email, "hash");
+        user.setId(id);
+        return user;
+    }
+}
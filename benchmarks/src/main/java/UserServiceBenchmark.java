@@ -0,0 +1,90 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.User;
+import com.example.taskmanager.UserCache;
+import com.example.taskmanager.UserCursorPage;
+import com.example.taskmanager.UserRepository;
+import com.example.taskmanager.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DB を除いた {@link UserService} 自体のコスト。{@code cached} でユーザーキャッシュの有無を比べる。
+ * <p>
+ * 認証は bcrypt が支配的なので、コストを最小（4）にしてサービス側の上乗せが見えるようにしている。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserServiceBenchmark {
+
+    private static final String PASSWORD = "password123";
+
+    @Param({"10000"})
+    int userCount;
+
+    @Param({"false", "true"})
+    boolean cached;
+
+    private UserService userService;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserRepository repository = new InMemoryUserRepository();
+        UserCache userCache = cached
+                ? new UserCache(userCount, Duration.ofMinutes(10), new SimpleMeterRegistry())
+                : null;
+        userService = new UserService(repository, new BCryptPasswordEncoder(4), null, null, null, null,
+                userCache, List.of(), 100);
+        for (int i = 1; i <= userCount; i++) {
+            userService.createUser("user" + i, "user" + i + "@example" + (i % 50) + ".com", PASSWORD);
+        }
+    }
+
+    @Benchmark
+    public User findById() {
+        nextId = nextId % userCount + 1;
+        return userService.findById(nextId);
+    }
+
+    @Benchmark
+    public User findByEmail() {
+        nextId = nextId % userCount + 1;
+        return userService.findByEmail("user" + nextId + "@example" + (nextId % 50) + ".com");
+    }
+
+    @Benchmark
+    public UserCursorPage getUsersAfter() {
+        return userService.getUsersAfter(null, 20);
+    }
+
+    @Benchmark
+    public List<User> searchByEmail() {
+        return userService.searchByEmail("@example7.com");
+    }
+
+    @Benchmark
+    public User authenticate() {
+        return userService.authenticate("user1@example1.com", PASSWORD);
+    }
+}
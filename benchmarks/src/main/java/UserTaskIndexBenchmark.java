@@ -0,0 +1,72 @@
+package com.example.taskmanager.benchmarks;
+
+import com.example.taskmanager.Task;
+import com.example.taskmanager.UserTaskIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 索引に載っているユーザーのタスク 1 ページを切り出す時間と、割り当て 1 件の反映にかかる時間。
+ * タスク数が数千でもマイクロ秒単位に収まることを確認する。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserTaskIndexBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    @Param({"1000", "10000"})
+    int tasksPerUser;
+
+    private UserTaskIndex index;
+    private long[] loaded;
+    private long middle;
+    private long nextTaskId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new UserTaskIndex(10_000_000, Duration.ofHours(1), new SimpleMeterRegistry());
+        loaded = new long[tasksPerUser];
+        for (int i = 0; i < tasksPerUser; i++) {
+            loaded[i] = (i + 1) * 2L;
+        }
+        index.taskIds(USER_ID, userId -> loaded);
+        middle = loaded[tasksPerUser / 2];
+        nextTaskId = loaded[tasksPerUser - 1];
+    }
+
+    @Benchmark
+    public long[] firstPage() {
+        return UserTaskIndex.page(index.taskIds(USER_ID, userId -> loaded), null, 100);
+    }
+
+    @Benchmark
+    public long[] pageAfterCursor() {
+        return UserTaskIndex.page(index.taskIds(USER_ID, userId -> loaded), middle, 100);
+    }
+
+    @Benchmark
+    public void assignAndDelete() {
+        Task task = new Task(++nextTaskId, "Benchmark", false);
+        index.onAssigned(task, USER_ID);
+        index.onDeleted(task);
+    }
+}
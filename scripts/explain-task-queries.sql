@@ -0,0 +1,25 @@
+-- 一覧 API（TaskQueryOperationsImpl）の実行計画を確かめる。PostgreSQL で psql -f scripts/explain-task-queries.sql
+-- 件数が少ないとプランナーが順次走査を選ぶので、seed-test-data.sql などで数万件入れてから実行する。
+-- Index Only Scan の Heap Fetches が 0 に近いことは可視性マップ次第なので、先に VACUUM しておく。
+VACUUM ANALYZE tasks;
+
+-- 期待: Limit -> Index Only Scan using idx_tasks_priority_id（Index Cond: priority = 'HIGH'、Sort ノード無し）
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, title, completed, priority, created_at FROM tasks
+WHERE priority = 'HIGH' ORDER BY id LIMIT 100;
+
+-- 期待: Limit -> Index Only Scan Backward using idx_tasks_completed_id（Sort ノード無し）
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, title, completed, priority, created_at FROM tasks
+WHERE completed = false ORDER BY id DESC LIMIT 100;
+
+-- 期待: Limit -> Index Only Scan using idx_tasks_created_at（Index Cond: created_at 範囲、Sort ノード無し）
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, title, completed, priority, created_at FROM tasks
+WHERE created_at >= now() - interval '7 days' AND created_at < now() ORDER BY created_at, id LIMIT 100;
+
+-- 期待: Limit -> Index Only Scan using idx_tasks_created_at（Filter: priority = 'HIGH'）。
+-- 絞り込みと並び順の列が別なので読み飛ばしはあるが、テーブルは読まない
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, title, completed, priority, created_at FROM tasks
+WHERE priority = 'HIGH' ORDER BY created_at DESC, id DESC LIMIT 100;
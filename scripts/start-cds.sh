@@ -0,0 +1,25 @@
+#!/bin/sh
+# mvn -B package -Pcds で作った AOT + AppCDS 構成でアプリケーションを起動する。
+# 引数はそのままアプリケーションに渡る（例: --server.port=8081）。
+# AOT 処理済みの Bean 定義はビルド時の設定で @ConditionalOnProperty を評価済みなので、
+# taskmanager.*.enabled のような機能の切り替えは引数や環境変数で渡しても効かない（作り直しが必要）。
+set -e
+TARGET=$(cd "$(dirname "$0")/../target" && pwd)
+
+JAR=$(ls "$TARGET"/cicd-system-*.jar | grep -v -- '-exec.jar$' | head -n 1)
+if [ ! -f "$TARGET/cds/app.jsa" ] || [ -z "$JAR" ]; then
+    echo "target/cds/app.jsa が無い。先に mvn -B package -Pcds -DskipTests を実行すること" >&2
+    exit 1
+fi
+
+for arg in "$@"; do
+    case "$arg" in
+        --taskmanager.*.enabled=*)
+            echo "警告: $arg は AOT 処理済みの Bean 定義には反映されない（mvn -B package -Pcds で作り直すこと）" >&2
+            ;;
+    esac
+done
+
+# クラスパスはアーカイブ作成時と同じ（絶対パス・同じ並び）でなければ CDS が無効になる
+exec java -XX:SharedArchiveFile="$TARGET/cds/app.jsa" -Dspring.aot.enabled=true \
+    -cp "$JAR:$TARGET/cds/lib/*" com.example.taskmanager.TaskManagerApplication "$@"
@@ -0,0 +1,28 @@
+package com.example.taskmanager;
+
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    private final UserService userService;
+
+    public AuthController(UserService userService) {
+        this.userService = userService;
+    }
+
+    /**
+     * パスワード照合の間は Tomcat のスレッドを解放する（サーブレットの非同期処理）。
+     */
+    @PostMapping("/login")
+    public CompletableFuture<User> login(@Valid @RequestBody LoginRequest request) {
+        return userService.authenticateAsync(request.email(), request.password());
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * PostgreSQL の LISTEN/NOTIFY で、このノードでコミットされた変更を他ノードに伝える。
+ * <p>
+ * 受け取った変更は {@link RemoteChangeListener} に渡す（ユーザーキャッシュ、{@link ResponseBytesCache}、
+ * {@link ResourceVersions}、{@link UserTaskIndex} など）。複数ノードで動かすときはこれを有効にすること。
+ * 無効のままだと、別ノードで変わった一覧や詳細に ETag が 304 を返し続ける。
+ * <p>
+ * 変更はコミット後のリスナーからキューに入れるだけで、送信は専用スレッドがまとめて行う
+ * （NOTIFY 1 回にペイロードの上限まで詰める）。キューが溢れたら個々の変更は捨て、全てを無効にさせる
+ * {@link ChangeType#RESET} を送る。
+ * <p>
+ * 受信用にはプール外の専用コネクションを 1 本張り、デーモンスレッドで通知を待つ。
+ * 接続が切れた間の通知は届かないので、再接続時にはローカルのキャッシュとタグを全て捨てる。
+ * 自ノードが送った通知は無視する（ローカルはコミット時に反映済み）。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.change-notify.enabled", havingValue = "true")
+public class ChangeNotificationChannel implements TaskMutationListener, UserMutationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeNotificationChannel.class);
+
+    static final String CHANNEL = "taskmanager_changes";
+    // NOTIFY のペイロード上限は 8000 バイト
+    static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int MAX_BATCH = 256;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+    private final List<RemoteChangeListener> listeners;
+    private final int pollTimeoutMillis;
+    private final BlockingQueue<Change> outbox;
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private volatile boolean running = true;
+    private volatile boolean listening;
+    private Thread listenerThread;
+    private Thread senderThread;
+
+    @Autowired
+    public ChangeNotificationChannel(JdbcTemplate jdbcTemplate,
+                                     DataSourceProperties dataSourceProperties,
+                                     ObjectMapper objectMapper,
+                                     ObjectProvider<RemoteChangeListener> listeners,
+                                     @Value("${taskmanager.change-notify.poll-timeout-ms:500}") int pollTimeoutMillis,
+                                     @Value("${taskmanager.change-notify.queue-capacity:65536}") int queueCapacity) {
+        this(jdbcTemplate, dataSourceProperties, objectMapper, listeners.orderedStream().toList(),
+                pollTimeoutMillis, queueCapacity);
+    }
+
+    ChangeNotificationChannel(JdbcTemplate jdbcTemplate,
+                              DataSourceProperties dataSourceProperties,
+                              ObjectMapper objectMapper,
+                              List<RemoteChangeListener> listeners,
+                              int pollTimeoutMillis,
+                              int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.listeners = listeners;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.outbox = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        listenerThread = new Thread(this::listenLoop, "change-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        senderThread = new Thread(this::sendLoop, "change-notifier");
+        senderThread.setDaemon(true);
+        senderThread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        if (senderThread != null) {
+            senderThread.interrupt();
+        }
+    }
+
+    @Override
+    public void onCreated(Task task) {
+        enqueue(new Change(ChangeType.TASK_CHANGED, task.getId(), 0, null));
+    }
+
+    @Override
+    public void onToggled(Task task) {
+        enqueue(new Change(ChangeType.TASK_CHANGED, task.getId(), 0, null));
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        enqueue(new Change(ChangeType.TASK_DELETED, task.getId(), 0, null));
+    }
+
+    @Override
+    public void onAssigned(Task task, long userId) {
+        enqueue(new Change(ChangeType.TASK_ASSIGNED, task.getId(), userId, null));
+    }
+
+    @Override
+    public void onCreated(User user) {
+        enqueue(new Change(ChangeType.USER_CREATED, user.getId(), 0, List.of(user.getEmail())));
+    }
+
+    @Override
+    public void onEmailChanged(User user, String previousEmail) {
+        enqueue(new Change(ChangeType.USER_CHANGED, user.getId(), 0, List.of(previousEmail, user.getEmail())));
+    }
+
+    @Override
+    public void onPasswordChanged(User user) {
+        enqueue(new Change(ChangeType.USER_CHANGED, user.getId(), 0, List.of(user.getEmail())));
+    }
+
+    @Override
+    public void onDeleted(User user) {
+        enqueue(new Change(ChangeType.USER_DELETED, user.getId(), 0, List.of(user.getEmail())));
+    }
+
+    private void enqueue(Change change) {
+        if (!outbox.offer(change)) {
+            overflowed.set(true);
+        }
+    }
+
+    private void sendLoop() {
+        List<Change> batch = new ArrayList<>(MAX_BATCH);
+        while (running) {
+            try {
+                batch.add(outbox.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            outbox.drainTo(batch, MAX_BATCH - 1);
+            if (overflowed.getAndSet(false)) {
+                // 捨てた変更がある。個別の変更の代わりに全てを無効にさせる
+                outbox.clear();
+                batch.clear();
+                batch.add(new Change(ChangeType.RESET, 0, 0, null));
+            }
+            send(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * ペイロードの上限に収まるよう、必要なら半分ずつに分けて送る。
+     */
+    private void send(List<Change> changes) {
+        try {
+            String payload = objectMapper.writeValueAsString(new Message(nodeId, changes));
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES && changes.size() > 1) {
+                int half = changes.size() / 2;
+                send(changes.subList(0, half));
+                send(changes.subList(half, changes.size()));
+                return;
+            }
+            jdbcTemplate.queryForObject("select pg_notify(?, ?)", Object.class, CHANNEL, payload);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // 他ノードは有効期限切れ（ETag は再起動）で追いつくので、通知の失敗で処理は止めない
+            log.warn("Failed to broadcast {} change(s)", changes.size(), e);
+        }
+    }
+
+    private void listenLoop() {
+        long backoffMillis = 500;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // 切断されていた間の通知は失われているので、ローカルの内容は信用しない
+                resetLocal();
+                listening = true;
+                backoffMillis = 500;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                listening = false;
+                if (!running) {
+                    return;
+                }
+                log.warn("Change listener disconnected, retrying in {} ms", backoffMillis, e);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, 30_000);
+            }
+        }
+    }
+
+    void apply(String payload) {
+        Message message;
+        try {
+            message = objectMapper.readValue(payload, Message.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed change notification: {}", payload, e);
+            return;
+        }
+        if (nodeId.equals(message.node())) {
+            return;
+        }
+        for (Change change : message.changes()) {
+            applyRemote(change);
+        }
+    }
+
+    private void applyRemote(Change change) {
+        for (RemoteChangeListener listener : listeners) {
+            switch (change.type()) {
+                case TASK_CHANGED -> listener.onRemoteTaskChanged(change.id());
+                case TASK_DELETED -> listener.onRemoteTaskDeleted(change.id());
+                case TASK_ASSIGNED -> listener.onRemoteTaskAssigned(change.id(), change.userId());
+                case USER_CREATED -> listener.onRemoteUserCreated(change.id(), change.emails().get(0));
+                case USER_CHANGED -> listener.onRemoteUserChanged(change.id(), change.emails());
+                case USER_DELETED -> listener.onRemoteUserDeleted(change.id(), change.emails());
+                case RESET -> listener.onRemoteReset();
+            }
+        }
+    }
+
+    private void resetLocal() {
+        listeners.forEach(RemoteChangeListener::onRemoteReset);
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * LISTEN 済みで、他ノードの通知を受け取れる状態か。
+     */
+    boolean isListening() {
+        return listening;
+    }
+
+    enum ChangeType {
+        TASK_CHANGED,
+        TASK_DELETED,
+        TASK_ASSIGNED,
+        USER_CREATED,
+        USER_CHANGED,
+        USER_DELETED,
+        /** 送れなかった変更がある。受け取ったノードは全てを無効にする */
+        RESET
+    }
+
+    /**
+     * @param id     タスクかユーザーの ID（{@code type} による）
+     * @param userId {@link ChangeType#TASK_ASSIGNED} の割り当て先（それ以外は 0）
+     * @param emails ユーザーのメールアドレス。最後の要素が変更後のアドレス（タスクの変更では null）
+     */
+    record Change(ChangeType type, long id, long userId, List<String> emails) {
+    }
+
+    record Message(String node, List<Change> changes) {
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.taskmanager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * プリミティブ long をキーとするオープンアドレス法のハッシュマップ。
+ * <p>
+ * 読み取りはロックフリーで、書き込みはスロット単位の CAS で行う。
+ * テーブルの拡張時だけ書き込みを排他するが、読み取りは拡張中も旧テーブルから継続できる。
+ * キーは {@code Long} にボクシングしない。{@link Long#MIN_VALUE} は空きスロットの印として予約済み。
+ */
+public final class ConcurrentLongMap<V> {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private final ReentrantReadWriteLock resizeLock = new ReentrantReadWriteLock();
+    private final LongAdder size = new LongAdder();
+    private volatile Table<V> table;
+
+    public ConcurrentLongMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public ConcurrentLongMap(int expectedSize) {
+        this.table = new Table<>(capacityFor(expectedSize));
+    }
+
+    public V get(long key) {
+        Table<V> t = table;
+        int slot = t.find(key);
+        return slot < 0 ? null : t.values.get(slot);
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public V put(long key, V value) {
+        checkKey(key);
+        checkValue(value);
+        while (true) {
+            resizeLock.readLock().lock();
+            try {
+                Table<V> t = table;
+                int slot = t.claim(key);
+                if (slot >= 0) {
+                    V old = t.values.getAndSet(slot, value);
+                    if (old == null) {
+                        size.increment();
+                    }
+                    return old;
+                }
+            } finally {
+                resizeLock.readLock().unlock();
+                resizeIfNeeded();
+            }
+        }
+    }
+
+    public V putIfAbsent(long key, V value) {
+        checkKey(key);
+        checkValue(value);
+        while (true) {
+            resizeLock.readLock().lock();
+            try {
+                Table<V> t = table;
+                int slot = t.claim(key);
+                if (slot >= 0) {
+                    while (true) {
+                        if (t.values.compareAndSet(slot, null, value)) {
+                            size.increment();
+                            return null;
+                        }
+                        V existing = t.values.get(slot);
+                        if (existing != null) {
+                            return existing;
+                        }
+                    }
+                }
+            } finally {
+                resizeLock.readLock().unlock();
+                resizeIfNeeded();
+            }
+        }
+    }
+
+    /**
+     * 現在値が {@code expected} と同一インスタンスの場合だけ {@code update} に置き換える。
+     */
+    public boolean replace(long key, V expected, V update) {
+        checkValue(expected);
+        checkValue(update);
+        resizeLock.readLock().lock();
+        try {
+            Table<V> t = table;
+            int slot = t.find(key);
+            return slot >= 0 && t.values.compareAndSet(slot, expected, update);
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    public V remove(long key) {
+        resizeLock.readLock().lock();
+        try {
+            Table<V> t = table;
+            int slot = t.find(key);
+            if (slot < 0) {
+                return null;
+            }
+            V old = t.values.getAndSet(slot, null);
+            if (old != null) {
+                size.decrement();
+            }
+            return old;
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 現在値が {@code value} と等しい（{@code equals}）場合だけ削除する。
+     */
+    public boolean remove(long key, V value) {
+        checkValue(value);
+        resizeLock.readLock().lock();
+        try {
+            Table<V> t = table;
+            int slot = t.find(key);
+            if (slot < 0) {
+                return false;
+            }
+            while (true) {
+                V current = t.values.get(slot);
+                if (current == null || !current.equals(value)) {
+                    return false;
+                }
+                if (t.values.compareAndSet(slot, current, null)) {
+                    size.decrement();
+                    return true;
+                }
+            }
+        } finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return (int) Math.max(0, size.sum());
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 呼び出し時点のテーブルを走査する。並行更新は反映される場合とされない場合がある。
+     */
+    public void forEach(LongObjConsumer<? super V> action) {
+        Table<V> t = table;
+        for (int i = 0; i < t.keys.length(); i++) {
+            long k = t.keys.get(i);
+            if (k != EMPTY) {
+                V v = t.values.get(i);
+                if (v != null) {
+                    action.accept(k, v);
+                }
+            }
+        }
+    }
+
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size());
+        forEach((k, v) -> result.add(v));
+        return result;
+    }
+
+    public void clear() {
+        resizeLock.writeLock().lock();
+        try {
+            table = new Table<>(MIN_CAPACITY);
+            size.reset();
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+
+    private void resizeIfNeeded() {
+        if (!table.needsResize()) {
+            return;
+        }
+        resizeLock.writeLock().lock();
+        try {
+            Table<V> old = table;
+            if (!old.needsResize()) {
+                return;
+            }
+            // 削除済みスロットが多い場合は拡張せずに詰め直すだけになる
+            Table<V> next = new Table<>(capacityFor(size()));
+            for (int i = 0; i < old.keys.length(); i++) {
+                long k = old.keys.get(i);
+                V v = old.values.get(i);
+                if (k != EMPTY && v != null) {
+                    next.values.set(next.claim(k), v);
+                }
+            }
+            table = next;
+        } finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int target = Math.max(MIN_CAPACITY, expectedSize * 4);
+        return target > (1 << 30) ? 1 << 30 : Integer.highestOneBit(target - 1) << 1;
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Reserved key: " + key);
+        }
+    }
+
+    private static void checkValue(Object value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @FunctionalInterface
+    public interface LongObjConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    private static final class Table<V> {
+        final AtomicLongArray keys;
+        final AtomicReferenceArray<V> values;
+        final AtomicInteger claimed = new AtomicInteger();
+        final int mask;
+
+        Table(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            values = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+            for (int i = 0; i < capacity; i++) {
+                keys.set(i, EMPTY);
+            }
+        }
+
+        boolean needsResize() {
+            return claimed.get() > (mask + 1) / 2;
+        }
+
+        int find(long key) {
+            int i = mix(key) & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long k = keys.get(i);
+                if (k == key) {
+                    return i;
+                }
+                if (k == EMPTY) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * キーのスロットを返す。未登録なら空きスロットを確保する。満杯なら -1。
+         */
+        int claim(long key) {
+            int i = mix(key) & mask;
+            for (int probes = 0; probes <= mask; ) {
+                long k = keys.get(i);
+                if (k == key) {
+                    return i;
+                }
+                if (k == EMPTY) {
+                    if (keys.compareAndSet(i, EMPTY, key)) {
+                        claimed.incrementAndGet();
+                        return i;
+                    }
+                    // 他スレッドに取られたので同じスロットを読み直す
+                    continue;
+                }
+                i = (i + 1) & mask;
+                probes++;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.taskmanager;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 登録済みメールアドレスのブルームフィルタ。
+ * <p>
+ * {@link #mightContain} が false なら未登録と確定するので、ユーザー作成時の存在確認クエリを省ける。
+ * true は偽陽性の可能性があるため、その場合だけ DB に問い合わせる。
+ * 削除やメール変更で古いアドレスのビットは残るが、偽陽性が増えるだけなので定期的な再構築で回収する。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.email-bloom-filter.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailBloomFilter implements UserMutationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailBloomFilter.class);
+
+    private final UserRepository userRepository;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+    private volatile Bits bits;
+    // 再構築中に追加されたアドレスを新しいビット列にも反映するための参照
+    private volatile Bits pending;
+
+    public EmailBloomFilter(UserRepository userRepository,
+                            @Value("${taskmanager.email-bloom-filter.expected-insertions:1000000}") int expectedInsertions,
+                            @Value("${taskmanager.email-bloom-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bits = new Bits(expectedInsertions, falsePositiveRate);
+    }
+
+    @PostConstruct
+    void load() {
+        rebuild();
+    }
+
+    /**
+     * DB の現状から作り直して入れ替える。作り直しの間に追加されたアドレスは両方に入れる。
+     */
+    @Scheduled(initialDelayString = "${taskmanager.email-bloom-filter.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${taskmanager.email-bloom-filter.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        Bits next = new Bits(expectedInsertions, falsePositiveRate);
+        pending = next;
+        int count = 0;
+        try {
+            for (UserRepository.UserEmailRow row : userRepository.findAllEmails()) {
+                next.add(row.getEmail());
+                count++;
+            }
+        } catch (RuntimeException e) {
+            pending = null;
+            log.warn("Failed to rebuild email bloom filter", e);
+            return;
+        }
+        bits = next;
+        pending = null;
+        log.info("Rebuilt email bloom filter with {} emails", count);
+    }
+
+    public boolean mightContain(String email) {
+        return bits.mightContain(email);
+    }
+
+    public void add(String email) {
+        bits.add(email);
+        Bits building = pending;
+        if (building != null) {
+            building.add(email);
+        }
+    }
+
+    @Override
+    public void onCreated(User user) {
+        add(user.getEmail());
+    }
+
+    @Override
+    public void onEmailChanged(User user, String previousEmail) {
+        add(user.getEmail());
+    }
+
+    static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        Bits(int expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((m + 63) >>> 6));
+            this.bitCount = (long) words.length() << 6;
+            this.hashCount = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        }
+
+        void add(String email) {
+            long hash = hash(email);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = words.get(word)) & mask) == 0
+                        && !words.compareAndSet(word, current, current | mask)) {
+                    // CAS に負けたら読み直す
+                }
+            }
+        }
+
+        boolean mightContain(String email) {
+            long hash = hash(email);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 大文字小文字を区別しない 64 ビット FNV-1a に最終ミックスを加えたもの。
+         */
+        private static long hash(String email) {
+            byte[] bytes = email.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+            long h = 0xcbf29ce484222325L;
+            for (byte b : bytes) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * GitHub Actions REST API の薄いクライアント。
+ * <p>
+ * ワークフローランの一覧は {@code created>=since} で絞り込み、1 ページ目には前回の ETag を
+ * {@code If-None-Match} で付ける。変化がなければ 304 が返り、GitHub ではレート制限にも数えられない。
+ * ベース URL は設定で差し替えられるので、テストではローカルのスタブサーバーに向けられる。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.pipelines.ingestion.enabled", havingValue = "true")
+public class GitHubActionsClient {
+
+    static final int PAGE_SIZE = 100;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String token;
+    private final Duration timeout;
+
+    @Autowired
+    public GitHubActionsClient(ObjectMapper objectMapper,
+                               @Value("${taskmanager.github.api-url:https://api.github.com}") String baseUrl,
+                               @Value("${taskmanager.github.token:}") String token,
+                               @Value("${taskmanager.github.timeout-ms:10000}") long timeoutMillis) {
+        this(HttpClient.newBuilder().connectTimeout(Duration.ofMillis(timeoutMillis)).build(),
+                objectMapper, baseUrl, token, Duration.ofMillis(timeoutMillis));
+    }
+
+    GitHubActionsClient(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, String token, Duration timeout) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.token = token;
+        this.timeout = timeout;
+    }
+
+    /**
+     * {@code createdSince} 以降に作られたランを 1 ページ分取得する。
+     * {@code etag} を渡すと条件付きリクエストになり、変化がなければ {@link RunsPage#notModified()} が true になる。
+     */
+    public RunsPage listRuns(String repository, @Nullable Instant createdSince, int page, @Nullable String etag) {
+        StringBuilder path = new StringBuilder("/repos/").append(repository)
+                .append("/actions/runs?per_page=").append(PAGE_SIZE)
+                .append("&page=").append(page);
+        if (createdSince != null) {
+            path.append("&created=").append(URLEncoder.encode(">=" + createdSince, StandardCharsets.UTF_8));
+        }
+        HttpResponse<InputStream> response = send(path.toString(), etag);
+        if (response.statusCode() == 304) {
+            return new RunsPage(true, etag, List.of());
+        }
+        RunsResponse body = read(response, RunsResponse.class);
+        String newEtag = response.headers().firstValue("ETag").orElse(null);
+        return new RunsPage(false, newEtag, body.workflowRuns() != null ? body.workflowRuns() : List.of());
+    }
+
+    public List<Job> listJobs(String repository, long runId) {
+        HttpResponse<InputStream> response = send(
+                "/repos/" + repository + "/actions/runs/" + runId + "/jobs?per_page=" + PAGE_SIZE, null);
+        JobsResponse body = read(response, JobsResponse.class);
+        return body.jobs() != null ? body.jobs() : List.of();
+    }
+
+    private HttpResponse<InputStream> send(String path, @Nullable String etag) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Accept", "application/vnd.github+json")
+                .header("X-GitHub-Api-Version", "2022-11-28")
+                .GET();
+        if (!token.isEmpty()) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        try {
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling GitHub API", e);
+        }
+    }
+
+    private <T> T read(HttpResponse<InputStream> response, Class<T> type) {
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GitHub API returned " + response.statusCode() + " for " + response.uri());
+            }
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record RunsPage(boolean notModified, @Nullable String etag, List<WorkflowRun> runs) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    record RunsResponse(List<WorkflowRun> workflowRuns) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record JobsResponse(List<Job> jobs) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record WorkflowRun(long id,
+                              String name,
+                              String headBranch,
+                              String headSha,
+                              String status,
+                              String conclusion,
+                              Long workflowId,
+                              String htmlUrl,
+                              Instant createdAt,
+                              Instant updatedAt,
+                              Instant runStartedAt,
+                              Actor actor) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record Actor(String login, String avatarUrl) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record Job(long id,
+                      String name,
+                      String status,
+                      String conclusion,
+                      Instant startedAt,
+                      Instant completedAt) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.taskmanager;
+
+/**
+ * パスワードハッシュ用のワーカープールと待ち行列が埋まっている。{@link ApiExceptionHandler} が 429 に変換する。
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+
+    public HashingCapacityExceededException() {
+        super("Password hashing capacity exceeded, retry later");
+    }
+}
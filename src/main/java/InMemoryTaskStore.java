@@ -0,0 +1,162 @@
+package com.example.taskmanager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * タスクの状態をプロセス内に保持し、読み取りを DB から切り離すストア。
+ * <p>
+ * 起動時に全件をロードし、以降の読み取りはメモリから返す。更新はジャーナルに積み、
+ * {@link #flush()} がまとめて書き戻す（write-behind）。書き戻しは JPA の merge（1 件ごとの SELECT と UPDATE）を
+ * 通さず、変わる列だけの UPDATE を JDBC のバッチで送る。
+ * 保持している {@link Task} は共有スナップショットなので、変更するときは必ずコピーを作って差し替える。
+ * <p>
+ * {@code taskmanager.task-store.enabled=true} のときだけ有効になる。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.task-store.enabled", havingValue = "true")
+public class InMemoryTaskStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryTaskStore.class);
+
+    private static final Comparator<Task> BY_ID = Comparator.comparing(Task::getId);
+
+    private static final String UPDATE_SQL = "update tasks set completed = ?, updated_at = ? where id = ?";
+
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int flushBatchSize;
+    private final ConcurrentLongMap<Task> tasks = new ConcurrentLongMap<>();
+    private final ConcurrentLinkedQueue<Mutation> journal = new ConcurrentLinkedQueue<>();
+
+    public InMemoryTaskStore(TaskRepository taskRepository,
+                             JdbcTemplate jdbcTemplate,
+                             @Value("${taskmanager.task-store.flush-batch-size:500}") int flushBatchSize) {
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    @PostConstruct
+    void load() {
+        for (Task task : taskRepository.findAll()) {
+            tasks.put(task.getId(), task);
+        }
+        log.info("Loaded {} tasks into memory", tasks.size());
+    }
+
+    public List<Task> findAll() {
+        List<Task> result = tasks.values();
+        result.sort(BY_ID);
+        return result;
+    }
+
+    public Task findById(long id) {
+        return tasks.get(id);
+    }
+
+    /**
+     * 永続化済み（ID 採番済み）のタスクを取り込む。作成は ID が必要なので書き込みスルーで行い、
+     * 呼び出し側はコミット後にこれを呼ぶ。
+     */
+    public void putPersisted(Task task) {
+        tasks.put(task.getId(), new Task(task));
+    }
+
+    public Task toggleCompletion(long id) {
+        while (true) {
+            Task current = tasks.get(id);
+            if (current == null) {
+                return null;
+            }
+            Task updated = new Task(current);
+            updated.setCompleted(!current.isCompleted());
+            updated.setUpdatedAt(LocalDateTime.now());
+            if (tasks.replace(id, current, updated)) {
+                journal.add(new Mutation(id, false));
+                return updated;
+            }
+        }
+    }
+
+    public Task remove(long id) {
+        Task removed = tasks.remove(id);
+        if (removed != null) {
+            journal.add(new Mutation(id, true));
+        }
+        return removed;
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    public int pendingMutations() {
+        return journal.size();
+    }
+
+    /**
+     * ジャーナルを取り出し、同じ ID への更新をまとめてからバッチで書き戻す。
+     */
+    @Scheduled(fixedDelayString = "${taskmanager.task-store.flush-interval-ms:200}")
+    public void flush() {
+        while (!journal.isEmpty()) {
+            Map<Long, Boolean> batch = new LinkedHashMap<>();
+            Mutation mutation;
+            while (batch.size() < flushBatchSize && (mutation = journal.poll()) != null) {
+                batch.put(mutation.id(), mutation.deleted());
+            }
+            List<Task> toSave = new ArrayList<>();
+            List<Long> toDelete = new ArrayList<>();
+            batch.forEach((id, deleted) -> {
+                // ジャーナルの順序ではなく現在の状態を書くので、途中の状態は送らない
+                Task current = tasks.get(id);
+                if (current != null) {
+                    toSave.add(new Task(current));
+                } else if (deleted) {
+                    toDelete.add(id);
+                }
+            });
+            try {
+                if (!toSave.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, toSave, toSave.size(), (ps, task) -> {
+                        ps.setBoolean(1, task.isCompleted());
+                        ps.setTimestamp(2, task.getUpdatedAt() != null ? Timestamp.valueOf(task.getUpdatedAt()) : null);
+                        ps.setLong(3, task.getId());
+                    });
+                }
+                if (!toDelete.isEmpty()) {
+                    taskRepository.deleteAllByIdInBatch(toDelete);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush {} task mutations, will retry", batch.size(), e);
+                batch.forEach((id, deleted) -> journal.add(new Mutation(id, deleted)));
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private record Mutation(long id, boolean deleted) {
+    }
+}
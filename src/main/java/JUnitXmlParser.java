@@ -0,0 +1,109 @@
+package com.example.taskmanager;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+
+/**
+ * Surefire / Failsafe 形式の JUnit XML を StAX で読み、テストケースごとに {@link Handler} を呼ぶ。
+ * <p>
+ * DOM を作らず、ケースの中身（スタックトレースや system-out）も読み飛ばすので、
+ * レポートの大きさによらずメモリは一定。DTD と外部エンティティは無効にしている。
+ */
+final class JUnitXmlParser {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private JUnitXmlParser() {
+    }
+
+    @FunctionalInterface
+    interface Handler {
+        void testCase(String suite, String className, String name, double seconds, TestStatus status);
+    }
+
+    /**
+     * 読んだテストケースの数を返す。
+     */
+    static int parse(InputStream in, Handler handler) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+        int cases = 0;
+        try {
+            String suite = "";
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String element = reader.getLocalName();
+                if ("testsuite".equals(element)) {
+                    suite = attribute(reader, "name", "");
+                } else if ("testcase".equals(element)) {
+                    readTestCase(reader, suite, handler);
+                    cases++;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return cases;
+    }
+
+    private static void readTestCase(XMLStreamReader reader, String suite, Handler handler) throws XMLStreamException {
+        String name = attribute(reader, "name", "");
+        String className = attribute(reader, "classname", suite);
+        double seconds = parseSeconds(reader.getAttributeValue(null, "time"));
+        boolean failed = false;
+        boolean skipped = false;
+        boolean flaky = false;
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 1) {
+                    switch (reader.getLocalName()) {
+                        case "failure", "error", "rerunFailure", "rerunError" -> failed = true;
+                        case "flakyFailure", "flakyError" -> flaky = true;
+                        case "skipped" -> skipped = true;
+                        default -> {
+                        }
+                    }
+                }
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        TestStatus status = failed ? TestStatus.FAILED
+                : skipped ? TestStatus.SKIPPED
+                : flaky ? TestStatus.FLAKY
+                : TestStatus.PASSED;
+        handler.testCase(suite, className, name, seconds, status);
+    }
+
+    private static String attribute(XMLStreamReader reader, String name, String defaultValue) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static double parseSeconds(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            // 古い Surefire は桁区切りを付けることがある（例: "1,234.5"）
+            return Double.parseDouble(value.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson の設定。Spring Boot は Module の Bean を自動で ObjectMapper に登録する。
+ * <p>
+ * Blackbird は getter やコンストラクタの呼び出しをリフレクションではなく LambdaMetafactory で生成した
+ * 関数に置き換える。{@link Task} や {@link User} のような単純な Bean ほど効果が大きい。
+ */
+@Configuration(proxyBeanMethods = false)
+public class JacksonConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "taskmanager.jackson.blackbird.enabled", havingValue = "true", matchIfMissing = true)
+    BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
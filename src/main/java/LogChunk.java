@@ -0,0 +1,11 @@
+package com.example.taskmanager;
+
+/**
+ * ログに追記された 1 回分のバイト列。{@code offset} は非圧縮での開始位置。
+ */
+public record LogChunk(long offset, byte[] data) {
+
+    public long end() {
+        return offset + data.length;
+    }
+}
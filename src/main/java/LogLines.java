@@ -0,0 +1,9 @@
+package com.example.taskmanager;
+
+import java.util.List;
+
+/**
+ * 行範囲の読み取り結果。{@code from} は返した最初の行番号（0 始まり）。
+ */
+public record LogLines(long from, List<String> lines, long totalLines, long totalBytes) {
+}
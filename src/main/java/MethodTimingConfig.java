@@ -0,0 +1,60 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@code @Service} の公開メソッドと Spring Data リポジトリの呼び出しを {@link MethodTimingInterceptor} で計測する。
+ * <p>
+ * サービスは既存のプロキシ（@Transactional 用）の先頭にアドバイザーを足すので、トランザクションの開始・
+ * コミットも計測に含まれる。リポジトリはリポジトリファクトリのプロキシに直接アドバイスを足し、
+ * operation タグにはリポジトリのインターフェース名を使う。
+ * 結果は管理用ポート（{@code management.server.port}）の {@code /actuator/prometheus} の
+ * {@code taskmanager_operation_seconds_bucket} などで見られる。
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "taskmanager.method-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class MethodTimingConfig {
+
+    @Bean
+    static BeanPostProcessor serviceTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ServiceTimingPostProcessor(
+                new MethodTimingInterceptor(meterRegistry::getObject, "service", null));
+    }
+
+    @Bean
+    static BeanPostProcessor repositoryTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                // リポジトリはファクトリビーンの afterPropertiesSet で作られるので、その前に登録する
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, information) ->
+                                    proxyFactory.addAdvice(0, new MethodTimingInterceptor(meterRegistry::getObject,
+                                            "repository", information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    static final class ServiceTimingPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+        ServiceTimingPostProcessor(MethodTimingInterceptor interceptor) {
+            this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true), interceptor);
+            setBeforeExistingAdvisors(true);
+            // サービスはクラスとして注入されるので、インターフェースを実装していてもクラスプロキシにする
+            setProxyTargetClass(true);
+        }
+    }
+}
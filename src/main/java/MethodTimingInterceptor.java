@@ -0,0 +1,83 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * メソッド呼び出しを {@code taskmanager.operation} タイマー（layer / operation / outcome タグ付き、
+ * パーセンタイルヒストグラムあり）で計測するインターセプター。
+ * <p>
+ * タイマーはメソッドごとに初回呼び出しで作ってキャッシュし、以降はマップを 1 回引いて
+ * {@link System#nanoTime()} の差を記録するだけにする。呼び出しのたびにアノテーションや
+ * タグを組み立てることはしない。
+ */
+public class MethodTimingInterceptor implements MethodInterceptor {
+
+    public static final String METRIC_NAME = "taskmanager.operation";
+
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final String layer;
+    // null なら呼び出し先のクラス名を使う
+    private final String component;
+    private final ConcurrentHashMap<Method, Timers> timers = new ConcurrentHashMap<>();
+
+    public MethodTimingInterceptor(Supplier<MeterRegistry> meterRegistry, String layer, @Nullable String component) {
+        this.meterRegistry = meterRegistry;
+        this.layer = layer;
+        this.component = component;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Timers timer = timers.get(method);
+        if (timer == null) {
+            if (method.getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            timer = timers.computeIfAbsent(method, m -> createTimers(m, invocation.getThis()));
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            timer.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timer.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timers createTimers(Method method, @Nullable Object target) {
+        String owner = component != null ? component
+                : target != null ? ClassUtils.getUserClass(target).getSimpleName()
+                : method.getDeclaringClass().getSimpleName();
+        String operation = owner + "." + method.getName();
+        MeterRegistry registry = meterRegistry.get();
+        return new Timers(timer(registry, operation, "success"), timer(registry, operation, "error"));
+    }
+
+    private Timer timer(MeterRegistry registry, String operation, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .tag("layer", layer)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    private record Timers(Timer success, Timer error) {
+    }
+}
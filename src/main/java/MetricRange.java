@@ -0,0 +1,13 @@
+package com.example.taskmanager;
+
+/**
+ * 範囲クエリの結果。点ごとのオブジェクトを作らないよう、列ごとの配列で返す。
+ * {@code timestamps} はバケット開始時刻（エポックミリ秒）。
+ */
+public record MetricRange(SystemMetric metric,
+                          int resolutionSeconds,
+                          long[] timestamps,
+                          double[] min,
+                          double[] max,
+                          double[] avg) {
+}
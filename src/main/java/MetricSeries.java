@@ -0,0 +1,135 @@
+package com.example.taskmanager;
+
+import java.util.Arrays;
+
+/**
+ * 1 つのメトリクスの時系列。解像度の異なる複数の段（例: 1 秒・1 分・1 時間）をそれぞれ固定長の
+ * リングバッファで持つ。
+ * <p>
+ * サンプルは記録した時点で全段の該当バケットに畳み込む（min / max / sum / count）ので、
+ * 粗い段は生データを読み直さずに済み、サンプルごとのオブジェクトも作らない。
+ * スロットの中身が別のバケットのものなら上書きする。これで古いデータは自然に消え、メモリは一定になる。
+ */
+final class MetricSeries {
+
+    private final Tier[] tiers;
+
+    /**
+     * {@code resolutions} は細かい順の秒数、{@code capacities} は各段のスロット数。
+     */
+    MetricSeries(int[] resolutions, int[] capacities) {
+        tiers = new Tier[resolutions.length];
+        for (int i = 0; i < resolutions.length; i++) {
+            tiers[i] = new Tier(resolutions[i], capacities[i]);
+        }
+    }
+
+    synchronized void record(long epochSecond, double value) {
+        for (Tier tier : tiers) {
+            tier.record(epochSecond, value);
+        }
+    }
+
+    /**
+     * 最新のサンプル値。まだなければ NaN。
+     */
+    synchronized double latest() {
+        return tiers[0].latest;
+    }
+
+    /**
+     * {@code [fromSecond, toSecond)} の範囲を {@code tierIndex} 段の解像度で返す。データのないバケットは含めない。
+     */
+    synchronized MetricRange query(SystemMetric metric, int tierIndex, long fromSecond, long toSecond) {
+        return tiers[tierIndex].query(metric, fromSecond, toSecond);
+    }
+
+    int tierCount() {
+        return tiers.length;
+    }
+
+    int resolution(int tierIndex) {
+        return tiers[tierIndex].resolution;
+    }
+
+    /**
+     * その段で遡れる秒数。
+     */
+    long retentionSeconds(int tierIndex) {
+        return (long) tiers[tierIndex].resolution * tiers[tierIndex].capacity;
+    }
+
+    private static final class Tier {
+
+        final int resolution;
+        final int capacity;
+        // スロットに入っているバケット番号（epochSecond / resolution）。-1 は空き
+        final long[] buckets;
+        final double[] min;
+        final double[] max;
+        final double[] sum;
+        final int[] count;
+        double latest = Double.NaN;
+        long newestBucket = -1;
+
+        Tier(int resolution, int capacity) {
+            this.resolution = resolution;
+            this.capacity = capacity;
+            this.buckets = new long[capacity];
+            this.min = new double[capacity];
+            this.max = new double[capacity];
+            this.sum = new double[capacity];
+            this.count = new int[capacity];
+            Arrays.fill(buckets, -1);
+        }
+
+        void record(long epochSecond, double value) {
+            long bucket = epochSecond / resolution;
+            if (bucket <= newestBucket - capacity) {
+                return;
+            }
+            int slot = (int) (bucket % capacity);
+            if (buckets[slot] != bucket) {
+                buckets[slot] = bucket;
+                min[slot] = value;
+                max[slot] = value;
+                sum[slot] = value;
+                count[slot] = 1;
+            } else {
+                min[slot] = Math.min(min[slot], value);
+                max[slot] = Math.max(max[slot], value);
+                sum[slot] += value;
+                count[slot]++;
+            }
+            if (bucket >= newestBucket) {
+                newestBucket = bucket;
+                latest = value;
+            }
+        }
+
+        MetricRange query(SystemMetric metric, long fromSecond, long toSecond) {
+            long first = Math.max(fromSecond / resolution, newestBucket - capacity + 1);
+            long last = Math.min((toSecond - 1) / resolution, newestBucket);
+            int n = (int) Math.max(0, last - first + 1);
+            long[] timestamps = new long[n];
+            double[] mins = new double[n];
+            double[] maxs = new double[n];
+            double[] avgs = new double[n];
+            int found = 0;
+            for (long bucket = first; bucket <= last; bucket++) {
+                int slot = (int) (bucket % capacity);
+                if (buckets[slot] != bucket) {
+                    continue;
+                }
+                timestamps[found] = bucket * resolution * 1000;
+                mins[found] = min[slot];
+                maxs[found] = max[slot];
+                avgs[found] = sum[slot] / count[slot];
+                found++;
+            }
+            return new MetricRange(metric, resolution,
+                    Arrays.copyOf(timestamps, found), Arrays.copyOf(mins, found),
+                    Arrays.copyOf(maxs, found), Arrays.copyOf(avgs, found));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.taskmanager;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 取り込み済みのワークフローラン。書き込みは {@link PipelineIngestionRepository} が JDBC で行い、
+ * このエンティティは読み取り専用に使う。
+ */
+@Entity
+@Table(name = "pipelines")
+public class Pipeline {
+
+    @Id
+    private Long id;
+
+    private String repository;
+
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    private PipelineStatus status;
+
+    private String branch;
+
+    @Column(name = "commit_sha")
+    private String commit;
+
+    private String author;
+
+    @Column(name = "author_avatar")
+    private String authorAvatar;
+
+    @Column(name = "duration_seconds")
+    private long duration;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    @Column(name = "workflow_url")
+    private String workflowUrl;
+
+    @Column(name = "workflow_id")
+    private Long workflowId;
+
+    @OneToMany
+    @JoinColumn(name = "pipeline_id", insertable = false, updatable = false)
+    @OrderBy("startTime")
+    private List<PipelineStage> stages = new ArrayList<>();
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PipelineStatus getStatus() {
+        return status;
+    }
+
+    public String getBranch() {
+        return branch;
+    }
+
+    public String getCommit() {
+        return commit;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getAuthorAvatar() {
+        return authorAvatar;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public String getWorkflowUrl() {
+        return workflowUrl;
+    }
+
+    public Long getWorkflowId() {
+        return workflowId;
+    }
+
+    public Long getRunId() {
+        return id;
+    }
+
+    public List<PipelineStage> getStages() {
+        return stages;
+    }
+}
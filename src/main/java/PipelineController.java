@@ -0,0 +1,43 @@
+package com.example.taskmanager;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.data.domain.Limit;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 取り込み済みのパイプラインを返す。GitHub には問い合わせない。
+ */
+@RestController
+@RequestMapping("/api/pipelines")
+@Validated
+public class PipelineController {
+
+    private final PipelineRepository pipelineRepository;
+
+    public PipelineController(PipelineRepository pipelineRepository) {
+        this.pipelineRepository = pipelineRepository;
+    }
+
+    @GetMapping
+    public List<Pipeline> getPipelines(@RequestParam(required = false) String repository,
+                                       @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) {
+        if (repository != null) {
+            return pipelineRepository.findByRepositoryOrderByStartTimeDesc(repository, Limit.of(limit));
+        }
+        return pipelineRepository.findAllByOrderByStartTimeDesc(Limit.of(limit));
+    }
+
+    @GetMapping("/{id}")
+    public Pipeline getPipeline(@PathVariable Long id) {
+        return pipelineRepository.findWithStagesById(id)
+                .orElseThrow(() -> new PipelineNotFoundException(id));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.taskmanager;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * パイプライン取り込みの書き込み側。GitHub から取得した行を JdbcTemplate のバッチで
+ * {@code INSERT ... ON CONFLICT DO UPDATE} する。同じランを何度取り込んでも結果は変わらない。
+ */
+@Repository
+public class PipelineIngestionRepository {
+
+    private static final String UPSERT_PIPELINE_SQL =
+            "insert into pipelines (id, repository, name, status, branch, commit_sha, author, author_avatar, "
+                    + "duration_seconds, start_time, end_time, workflow_url, workflow_id, source_updated_at, ingested_at) "
+                    + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, current_timestamp) "
+                    + "on conflict (id) do update set name = excluded.name, status = excluded.status, "
+                    + "duration_seconds = excluded.duration_seconds, start_time = excluded.start_time, "
+                    + "end_time = excluded.end_time, source_updated_at = excluded.source_updated_at, "
+                    + "ingested_at = current_timestamp";
+
+    private static final String UPSERT_STAGE_SQL =
+            "insert into pipeline_stages (pipeline_id, id, name, status, duration_seconds, start_time, end_time) "
+                    + "values (?, ?, ?, ?, ?, ?, ?) "
+                    + "on conflict (pipeline_id, id) do update set name = excluded.name, status = excluded.status, "
+                    + "duration_seconds = excluded.duration_seconds, start_time = excluded.start_time, "
+                    + "end_time = excluded.end_time";
+
+    private static final String UPSERT_STATE_SQL =
+            "insert into pipeline_ingestion_state "
+                    + "(repository, created_since, etag, etag_created_since, resume_page, updated_at) "
+                    + "values (?, ?, ?, ?, ?, current_timestamp) "
+                    + "on conflict (repository) do update set created_since = excluded.created_since, "
+                    + "etag = excluded.etag, etag_created_since = excluded.etag_created_since, "
+                    + "resume_page = excluded.resume_page, updated_at = current_timestamp";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PipelineIngestionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public IngestionState loadState(String repository) {
+        List<IngestionState> rows = jdbcTemplate.query(
+                "select created_since, etag, etag_created_since, resume_page from pipeline_ingestion_state "
+                        + "where repository = ?",
+                (rs, rowNum) -> new IngestionState(
+                        toInstant(rs.getTimestamp(1)), rs.getString(2), toInstant(rs.getTimestamp(3)), rs.getInt(4)),
+                repository);
+        return rows.isEmpty() ? IngestionState.EMPTY : rows.get(0);
+    }
+
+    public void saveState(String repository, IngestionState state) {
+        jdbcTemplate.update(UPSERT_STATE_SQL, repository, toTimestamp(state.createdSince()),
+                state.etag(), toTimestamp(state.etagCreatedSince()), state.resumePage());
+    }
+
+    /**
+     * 指定したランの取り込み済み {@code source_updated_at} を返す。未取り込みの ID は含まれない。
+     */
+    public Map<Long, Instant> findSourceUpdatedAt(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Map<Long, Instant> result = new HashMap<>();
+        jdbcTemplate.query("select id, source_updated_at from pipelines where id in (" + placeholders + ")",
+                rs -> {
+                    result.put(rs.getLong(1), toInstant(rs.getTimestamp(2)));
+                },
+                ids.toArray());
+        return result;
+    }
+
+    public void upsertPipelines(String repository, List<GitHubActionsClient.WorkflowRun> runs, int batchSize) {
+        jdbcTemplate.batchUpdate(UPSERT_PIPELINE_SQL, runs, batchSize, (ps, run) -> {
+            Instant start = run.runStartedAt() != null ? run.runStartedAt() : run.createdAt();
+            PipelineStatus status = PipelineStatus.fromGitHub(run.status(), run.conclusion());
+            Instant end = "completed".equals(run.status()) ? run.updatedAt() : null;
+            ps.setLong(1, run.id());
+            ps.setString(2, repository);
+            ps.setString(3, run.name() != null ? run.name() : "Workflow");
+            ps.setString(4, status.name());
+            ps.setString(5, run.headBranch());
+            ps.setString(6, run.headSha());
+            ps.setString(7, run.actor() != null ? run.actor().login() : null);
+            ps.setString(8, run.actor() != null ? run.actor().avatarUrl() : null);
+            ps.setLong(9, seconds(start, end));
+            ps.setTimestamp(10, toTimestamp(start));
+            ps.setTimestamp(11, toTimestamp(end));
+            ps.setString(12, run.htmlUrl());
+            ps.setObject(13, run.workflowId());
+            ps.setTimestamp(14, toTimestamp(run.updatedAt()));
+        });
+    }
+
+    public void upsertStages(List<StageRow> stages, int batchSize) {
+        jdbcTemplate.batchUpdate(UPSERT_STAGE_SQL, stages, batchSize, (ps, row) -> {
+            GitHubActionsClient.Job job = row.job();
+            ps.setLong(1, row.pipelineId());
+            ps.setLong(2, job.id());
+            ps.setString(3, job.name());
+            ps.setString(4, PipelineStatus.fromGitHub(job.status(), job.conclusion()).name());
+            ps.setLong(5, seconds(job.startedAt(), job.completedAt()));
+            ps.setTimestamp(6, toTimestamp(job.startedAt()));
+            ps.setTimestamp(7, toTimestamp(job.completedAt()));
+        });
+    }
+
+    private static long seconds(Instant start, Instant end) {
+        if (start == null || end == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(start, end).toSeconds());
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant != null ? Timestamp.valueOf(LocalDateTime.ofInstant(instant, ZoneOffset.UTC)) : null;
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toInstant(ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * リポジトリごとの取り込み位置。{@code etag} は {@code etagCreatedSince} で問い合わせたときのもので、
+     * 問い合わせ条件が変わったら使えない。{@code resumePage} は前回 {@code max-pages} で打ち切ったときに
+     * 次に読むページ（打ち切っていなければ 0）。
+     */
+    public record IngestionState(Instant createdSince, String etag, Instant etagCreatedSince, int resumePage) {
+        static final IngestionState EMPTY = new IngestionState(null, null, null, 0);
+    }
+
+    public record StageRow(long pipelineId, GitHubActionsClient.Job job) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.taskmanager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * GitHub Actions のワークフローランを定期的に取り込み、{@code pipelines} / {@code pipeline_stages} に保存する。
+ * <p>
+ * リポジトリごとに「まだ終わっていない最古のラン、なければ最新のランの作成時刻」をカーソルとして持ち、
+ * 次回はそれ以降に作られたランだけを取りに行く。実行中のランはカーソルより後ろに残るので、
+ * 完了したときの状態変化も取りこぼさない。カーソルが動いていなければ前回の ETag で条件付きリクエストにし、
+ * 304 ならそのリポジトリは何もしない。ジョブ（ステージ）は {@code updated_at} が変わったランだけ取得する。
+ * <p>
+ * 一覧は新しい順なので、{@code max-pages} で打ち切るとカーソルとの間に古いランが残る。そのときはカーソルを
+ * 動かさず、次回は続きのページから読む。待つ間に新しいランが増えるとページがずれて同じランを読み直すが、
+ * 保存は upsert なので重複はしない（ずれは古い方向にしか起きないので読み飛ばしもしない）。
+ * <p>
+ * 取り込みは時間がかかるので、他の {@code @Scheduled} を待たせないよう
+ * {@code spring.task.scheduling.pool.size} でスケジューラーのスレッドを増やしておくこと。
+ * <p>
+ * {@code taskmanager.pipelines.ingestion.enabled=true} のときに有効。
+ */
+@Service
+@ConditionalOnProperty(name = "taskmanager.pipelines.ingestion.enabled", havingValue = "true")
+public class PipelineIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PipelineIngestionService.class);
+
+    private final GitHubActionsClient client;
+    private final PipelineIngestionRepository ingestionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<String> repositories;
+    private final int maxPages;
+    private final int batchSize;
+
+    public PipelineIngestionService(GitHubActionsClient client,
+                                    PipelineIngestionRepository ingestionRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${taskmanager.pipelines.repositories:}") List<String> repositories,
+                                    @Value("${taskmanager.pipelines.max-pages:10}") int maxPages,
+                                    @Value("${taskmanager.pipelines.batch-size:500}") int batchSize) {
+        this.client = client;
+        this.ingestionRepository = ingestionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.repositories = repositories.stream().map(String::trim).filter(r -> !r.isEmpty()).toList();
+        this.maxPages = maxPages;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${taskmanager.pipelines.poll-interval-ms:60000}")
+    public void poll() {
+        for (String repository : repositories) {
+            try {
+                ingest(repository);
+            } catch (RuntimeException e) {
+                log.warn("Failed to ingest pipeline runs for {}", repository, e);
+            }
+        }
+    }
+
+    /**
+     * 1 リポジトリ分を取り込み、保存したラン数を返す（304 なら 0）。
+     */
+    public int ingest(String repository) {
+        PipelineIngestionRepository.IngestionState state = ingestionRepository.loadState(repository);
+        Instant since = state.createdSince();
+        boolean resuming = state.resumePage() > 1;
+        int startPage = resuming ? state.resumePage() : 1;
+        // ETag は同じ URL（= 同じカーソルの 1 ページ目）に対してしか意味がない
+        String etag = !resuming && Objects.equals(since, state.etagCreatedSince()) ? state.etag() : null;
+
+        GitHubActionsClient.RunsPage first = client.listRuns(repository, since, startPage, etag);
+        if (first.notModified()) {
+            log.debug("Pipeline runs for {} not modified", repository);
+            return 0;
+        }
+        List<GitHubActionsClient.WorkflowRun> runs = new ArrayList<>(first.runs());
+        List<GitHubActionsClient.WorkflowRun> page = first.runs();
+        int last = startPage;
+        while (page.size() == GitHubActionsClient.PAGE_SIZE && last - startPage + 1 < maxPages) {
+            last++;
+            page = client.listRuns(repository, since, last, null).runs();
+            runs.addAll(page);
+        }
+
+        List<PipelineIngestionRepository.StageRow> stages = fetchChangedStages(repository, runs);
+        PipelineIngestionRepository.IngestionState next;
+        if (page.size() == GitHubActionsClient.PAGE_SIZE) {
+            // since との間にまだ読んでいないランがある
+            next = new PipelineIngestionRepository.IngestionState(since, null, null, last + 1);
+            log.info("Reached {} pages for {}, resuming from page {} next time", maxPages, repository, last + 1);
+        } else {
+            // 続きから読んだ場合も、それより前のページのランはここで読んだランより新しいので、
+            // ここで読んだ分だけで決めたカーソルはそれらを追い越さない
+            next = new PipelineIngestionRepository.IngestionState(
+                    nextCursor(runs, since), resuming ? null : first.etag(), since, 0);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            ingestionRepository.upsertPipelines(repository, runs, batchSize);
+            ingestionRepository.upsertStages(stages, batchSize);
+            ingestionRepository.saveState(repository, next);
+        });
+        log.info("Ingested {} pipeline runs ({} stages) for {}", runs.size(), stages.size(), repository);
+        return runs.size();
+    }
+
+    private List<PipelineIngestionRepository.StageRow> fetchChangedStages(
+            String repository, List<GitHubActionsClient.WorkflowRun> runs) {
+        Map<Long, Instant> known = ingestionRepository.findSourceUpdatedAt(
+                runs.stream().map(GitHubActionsClient.WorkflowRun::id).toList());
+        List<PipelineIngestionRepository.StageRow> stages = new ArrayList<>();
+        for (GitHubActionsClient.WorkflowRun run : runs) {
+            if (run.updatedAt() != null && run.updatedAt().equals(known.get(run.id()))) {
+                continue;
+            }
+            for (GitHubActionsClient.Job job : client.listJobs(repository, run.id())) {
+                stages.add(new PipelineIngestionRepository.StageRow(run.id(), job));
+            }
+        }
+        return stages;
+    }
+
+    static Instant nextCursor(List<GitHubActionsClient.WorkflowRun> runs, Instant current) {
+        Instant oldestOpen = null;
+        Instant newest = current;
+        for (GitHubActionsClient.WorkflowRun run : runs) {
+            Instant created = run.createdAt();
+            if (created == null) {
+                continue;
+            }
+            if (!"completed".equals(run.status()) && (oldestOpen == null || created.isBefore(oldestOpen))) {
+                oldestOpen = created;
+            }
+            if (newest == null || created.isAfter(newest)) {
+                newest = created;
+            }
+        }
+        return oldestOpen != null ? oldestOpen : newest;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.taskmanager;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * パイプラインログの読み書き。
+ * <p>
+ * {@code GET} は {@code Range: bytes=a-b} / {@code bytes=-n}（末尾 n バイト）に対応し、一度に返すのは
+ * {@code max-read-bytes} まで。行単位で読むときは {@code /lines} を使う（{@code from} が負なら末尾から）。
+ */
+@RestController
+@RequestMapping("/api/pipelines/{id}/logs")
+@Validated
+public class PipelineLogController {
+
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    private final PipelineLogStore logStore;
+    private final PipelineRepository pipelineRepository;
+    private final int maxReadBytes;
+    private final int tailBacklogBytes;
+    private final int tailQueueCapacity;
+
+    public PipelineLogController(PipelineLogStore logStore,
+                                 PipelineRepository pipelineRepository,
+                                 @Value("${taskmanager.pipeline-logs.max-read-bytes:1048576}") int maxReadBytes,
+                                 @Value("${taskmanager.pipeline-logs.tail-backlog-bytes:65536}") int tailBacklogBytes,
+                                 @Value("${taskmanager.pipeline-logs.tail-queue-capacity:1024}") int tailQueueCapacity) {
+        this.logStore = logStore;
+        this.pipelineRepository = pipelineRepository;
+        this.maxReadBytes = maxReadBytes;
+        this.tailBacklogBytes = tailBacklogBytes;
+        this.tailQueueCapacity = tailQueueCapacity;
+    }
+
+    @GetMapping
+    public ResponseEntity<byte[]> getLog(@PathVariable long id,
+                                         @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                         @RequestParam(defaultValue = "0") @Min(0) long offset) {
+        long size = logStore.size(id);
+        if (range == null) {
+            byte[] data = logStore.readBytes(id, offset, maxReadBytes);
+            return ResponseEntity.ok()
+                    .contentType(TEXT_PLAIN_UTF8)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header("X-Log-Size", Long.toString(size))
+                    .body(data);
+        }
+        long[] bounds = parseRange(range, size);
+        if (bounds == null) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
+        int length = (int) Math.min(maxReadBytes, bounds[1] - bounds[0] + 1);
+        byte[] data = logStore.readBytes(id, bounds[0], length);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .contentType(TEXT_PLAIN_UTF8)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + bounds[0] + "-" + (bounds[0] + data.length - 1) + "/" + size)
+                .body(data);
+    }
+
+    @GetMapping("/lines")
+    public LogLines getLines(@PathVariable long id,
+                             @RequestParam(defaultValue = "0") long from,
+                             @RequestParam(defaultValue = "200") @Min(1) @Max(10000) int count) {
+        return logStore.readLines(id, from, count);
+    }
+
+    /**
+     * 追記は {@code pipelines} に行のあるパイプラインにだけ許す。任意の ID でログファイルを作らせない。
+     */
+    @PostMapping(consumes = MediaType.TEXT_PLAIN_VALUE)
+    public AppendResult append(@PathVariable long id, @RequestBody byte[] data) {
+        if (!pipelineRepository.existsById(id)) {
+            throw new PipelineNotFoundException(id);
+        }
+        LogChunk chunk = logStore.append(id, data);
+        return new AppendResult(chunk.offset(), chunk.end());
+    }
+
+    /**
+     * ライブテール。{@code Last-Event-ID}（前回受け取ったバイト位置）があればそこから、
+     * なければ末尾 {@code tail-backlog-bytes} を含む行頭から送る。
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter tail(@PathVariable long id,
+                           @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = lastEventId != null
+                ? lastEventId
+                : logStore.nextLineStart(id, Math.max(0, logStore.size(id) - tailBacklogBytes));
+        SseEmitter emitter = new SseEmitter(0L);
+        new PipelineLogTail(id, logStore, emitter, tailQueueCapacity, maxReadBytes).start(from);
+        return emitter;
+    }
+
+    /**
+     * 単一範囲だけを扱う。{@code [first, last]}（両端含む）を返し、満たせなければ null。
+     */
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || size == 0) {
+                    return null;
+                }
+                return new long[]{Math.max(0, size - suffix), size - 1};
+            }
+            long first = Long.parseLong(spec.substring(0, dash));
+            long last = dash == spec.length() - 1 ? size - 1 : Math.min(size - 1, Long.parseLong(spec.substring(dash + 1)));
+            if (first >= size || last < first) {
+                return null;
+            }
+            return new long[]{first, last};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public record AppendResult(long offset, long end) {
+    }
+}
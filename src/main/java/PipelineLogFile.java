@@ -0,0 +1,486 @@
+package com.example.taskmanager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 1 パイプライン分のログ。追記専用で、圧縮済みブロックを並べたセグメントファイルと固定長の索引から成る。
+ * <p>
+ * 追記されたバイト列は {@code blockSize} ごとに個別に deflate し、現在のセグメント（{@code NNNNNNNN.seg}）の
+ * 末尾に書く。セグメントが {@code segmentSize} を超えたら次のファイルに移る。ブロックごとに
+ * {@code index.idx} へ 1 エントリ（非圧縮での開始位置・開始行・セグメント内位置・長さ・改行数）を追記する。
+ * <p>
+ * 読み取りは索引とセグメントをメモリマップし、索引を二分探索して必要なブロックだけを展開する。
+ * 開くときに読むのは索引の最終エントリだけなので、ログの大きさによらず数十バイトで済む。
+ * まだブロックになっていない末尾はメモリ上に持ち、読み取りにも含める。
+ */
+final class PipelineLogFile implements Closeable {
+
+    static final int ENTRY_SIZE = 48;
+    static final String INDEX_FILE = "index.idx";
+
+    private final Path directory;
+    private final int blockSize;
+    private final long segmentSize;
+
+    private final FileChannel indexChannel;
+    private FileChannel segmentChannel;
+    private int segment;
+    private long segmentPosition;
+
+    private volatile int entryCount;
+    private long flushedBytes;
+    private long flushedNewlines;
+    private boolean endsWithNewline = true;
+    private byte[] pending;
+    private int pendingLength;
+    private int pendingNewlines;
+    private boolean closed;
+
+    // 読み取り側のマッピング。書き込みで伸びたら張り直す
+    private final Object mapLock = new Object();
+    private volatile MappedByteBuffer indexMap;
+    private final Map<Integer, MappedByteBuffer> segmentMaps = new ConcurrentHashMap<>();
+
+    private PipelineLogFile(Path directory, int blockSize, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.blockSize = blockSize;
+        this.segmentSize = segmentSize;
+        this.pending = new byte[blockSize];
+        Files.createDirectories(directory);
+        this.indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+    }
+
+    static PipelineLogFile open(Path directory, int blockSize, long segmentSize) {
+        try {
+            return new PipelineLogFile(directory, blockSize, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 最終エントリから書き込み位置を復元する。途中で落ちて半端に残った索引やセグメントの末尾は切り捨てる。
+     */
+    private void recover() throws IOException {
+        long indexSize = indexChannel.size();
+        int entries = (int) (indexSize / ENTRY_SIZE);
+        if (indexSize % ENTRY_SIZE != 0) {
+            indexChannel.truncate((long) entries * ENTRY_SIZE);
+        }
+        if (entries > 0) {
+            ByteBuffer buffer = ByteBuffer.allocate(ENTRY_SIZE);
+            readFully(indexChannel, buffer, (long) (entries - 1) * ENTRY_SIZE);
+            Entry last = Entry.read(buffer, 0);
+            flushedBytes = last.start + last.length;
+            flushedNewlines = last.firstLine + last.newlines;
+            endsWithNewline = last.endsWithNewline;
+            segment = last.segment;
+            segmentPosition = last.filePosition + last.compressedLength;
+            segmentChannel = FileChannel.open(segmentPath(segment), StandardOpenOption.WRITE);
+            if (segmentChannel.size() > segmentPosition) {
+                segmentChannel.truncate(segmentPosition);
+            }
+        }
+        entryCount = entries;
+    }
+
+    /**
+     * 追記し、追記したチャンクを {@code onAppended} に渡す。通知はロック内で行うので順序は追記順になる。
+     * 通知先はブロックしてはならない。
+     */
+    synchronized LogChunk append(byte[] data, Consumer<LogChunk> onAppended) {
+        ensureOpen();
+        long offset = flushedBytes + pendingLength;
+        int position = 0;
+        while (position < data.length) {
+            int n = Math.min(data.length - position, blockSize - pendingLength);
+            System.arraycopy(data, position, pending, pendingLength, n);
+            for (int i = pendingLength; i < pendingLength + n; i++) {
+                if (pending[i] == '\n') {
+                    pendingNewlines++;
+                }
+            }
+            pendingLength += n;
+            position += n;
+            if (pendingLength == blockSize) {
+                flushBlock();
+            }
+        }
+        LogChunk chunk = new LogChunk(offset, data);
+        onAppended.accept(chunk);
+        return chunk;
+    }
+
+    /**
+     * メモリ上の末尾をブロックとして書き出す。
+     */
+    synchronized void flush() {
+        if (!closed && pendingLength > 0) {
+            flushBlock();
+        }
+    }
+
+    private void flushBlock() {
+        try {
+            byte[] compressed = deflate(pending, pendingLength);
+            if (segmentChannel == null || (segmentPosition > 0 && segmentPosition + compressed.length > segmentSize)) {
+                if (segmentChannel != null) {
+                    segmentChannel.close();
+                    segment++;
+                }
+                segmentChannel = FileChannel.open(segmentPath(segment),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                segmentPosition = 0;
+            }
+            writeFully(segmentChannel, ByteBuffer.wrap(compressed), segmentPosition);
+
+            boolean lastIsNewline = pending[pendingLength - 1] == '\n';
+            Entry entry = new Entry(flushedBytes, flushedNewlines, segmentPosition, segment,
+                    compressed.length, pendingLength, pendingNewlines, lastIsNewline);
+            ByteBuffer buffer = ByteBuffer.allocate(ENTRY_SIZE);
+            entry.write(buffer);
+            buffer.flip();
+            writeFully(indexChannel, buffer, (long) entryCount * ENTRY_SIZE);
+
+            segmentPosition += compressed.length;
+            flushedBytes += pendingLength;
+            flushedNewlines += pendingNewlines;
+            endsWithNewline = lastIsNewline;
+            // 読み取り側は pending のコピーを取るので、配列は新しくする
+            pending = new byte[blockSize];
+            pendingLength = 0;
+            pendingNewlines = 0;
+            entryCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized Snapshot snapshot() {
+        ensureOpen();
+        return new Snapshot(entryCount, flushedBytes, flushedNewlines, endsWithNewline,
+                Arrays.copyOf(pending, pendingLength), pendingNewlines);
+    }
+
+    long size() {
+        return snapshot().size();
+    }
+
+    /**
+     * {@code offset} から最大 {@code length} バイトを返す。末尾を越える分は切り詰める。
+     */
+    byte[] readBytes(long offset, int length) {
+        Snapshot snapshot = snapshot();
+        return readBytes(snapshot, offset, length);
+    }
+
+    private byte[] readBytes(Snapshot snapshot, long offset, int length) {
+        long size = snapshot.size();
+        if (offset >= size || length <= 0) {
+            return new byte[0];
+        }
+        int total = (int) Math.min(length, size - offset);
+        byte[] result = new byte[total];
+        int written = 0;
+        long position = offset;
+        int block = snapshot.entryCount > 0 && position < snapshot.flushedBytes ? findBlockByOffset(snapshot, position) : -1;
+        while (written < total && block >= 0 && block < snapshot.entryCount) {
+            Entry entry = entry(snapshot, block);
+            byte[] data = inflate(entry);
+            int from = (int) (position - entry.start);
+            int n = Math.min(total - written, data.length - from);
+            System.arraycopy(data, from, result, written, n);
+            written += n;
+            position += n;
+            block++;
+        }
+        if (written < total) {
+            int from = (int) (position - snapshot.flushedBytes);
+            System.arraycopy(snapshot.pending, from, result, written, total - written);
+        }
+        return result;
+    }
+
+    /**
+     * {@code from} 行目（0 始まり）から最大 {@code count} 行を返す。{@code from} が負なら末尾から数える。
+     */
+    LogLines readLines(long from, int count) {
+        Snapshot snapshot = snapshot();
+        long totalLines = snapshot.lineCount();
+        long first = from < 0 ? Math.max(0, totalLines + from) : from;
+        List<String> lines = new ArrayList<>(Math.min(count, 1024));
+        if (first >= totalLines || count <= 0) {
+            return new LogLines(first, lines, totalLines, snapshot.size());
+        }
+        long position = lineStart(snapshot, first);
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        int block = snapshot.entryCount > 0 && position < snapshot.flushedBytes ? findBlockByOffset(snapshot, position) : -1;
+        while (lines.size() < count && block >= 0 && block < snapshot.entryCount) {
+            Entry entry = entry(snapshot, block);
+            byte[] data = inflate(entry);
+            position = collectLines(data, (int) (position - entry.start), entry.start, line, lines, count);
+            block++;
+        }
+        if (lines.size() < count && position >= snapshot.flushedBytes) {
+            collectLines(snapshot.pending, (int) (position - snapshot.flushedBytes), snapshot.flushedBytes,
+                    line, lines, count);
+        }
+        if (lines.size() < count && line.size() > 0) {
+            lines.add(line.toString(StandardCharsets.UTF_8));
+        }
+        return new LogLines(first, lines, totalLines, snapshot.size());
+    }
+
+    private static long collectLines(byte[] data, int from, long base, ByteArrayOutputStream line,
+                                     List<String> lines, int count) {
+        int start = from;
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == '\n') {
+                line.write(data, start, i - start);
+                lines.add(line.toString(StandardCharsets.UTF_8));
+                line.reset();
+                start = i + 1;
+                if (lines.size() == count) {
+                    return base + start;
+                }
+            }
+        }
+        line.write(data, start, data.length - start);
+        return base + data.length;
+    }
+
+    /**
+     * {@code line} 行目の先頭のバイト位置。{@code line} 個目の改行の直後になる。
+     */
+    long lineStart(long line) {
+        return lineStart(snapshot(), line);
+    }
+
+    private long lineStart(Snapshot snapshot, long line) {
+        if (line <= 0) {
+            return 0;
+        }
+        if (line > snapshot.flushedNewlines) {
+            return snapshot.flushedBytes + newlineEnd(snapshot.pending, line - snapshot.flushedNewlines);
+        }
+        // firstLine < line を満たす最後のブロックに line 個目の改行がある
+        int lo = 0;
+        int hi = snapshot.entryCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (entry(snapshot, mid).firstLine < line) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        Entry entry = entry(snapshot, lo);
+        return entry.start + newlineEnd(inflate(entry), line - entry.firstLine);
+    }
+
+    private static int newlineEnd(byte[] data, long nth) {
+        long seen = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == '\n' && ++seen == nth) {
+                return i + 1;
+            }
+        }
+        return data.length;
+    }
+
+    private int findBlockByOffset(Snapshot snapshot, long offset) {
+        int lo = 0;
+        int hi = snapshot.entryCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (entry(snapshot, mid).start <= offset) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    private Entry entry(Snapshot snapshot, int index) {
+        MappedByteBuffer map = indexMap;
+        int required = snapshot.entryCount * ENTRY_SIZE;
+        if (map == null || map.capacity() < required) {
+            synchronized (mapLock) {
+                map = indexMap;
+                if (map == null || map.capacity() < required) {
+                    map = mapReadOnly(directory.resolve(INDEX_FILE), required);
+                    indexMap = map;
+                }
+            }
+        }
+        return Entry.read(map, index * ENTRY_SIZE);
+    }
+
+    private byte[] inflate(Entry entry) {
+        long end = entry.filePosition + entry.compressedLength;
+        MappedByteBuffer map = segmentMaps.get(entry.segment);
+        if (map == null || map.capacity() < end) {
+            synchronized (mapLock) {
+                map = segmentMaps.get(entry.segment);
+                if (map == null || map.capacity() < end) {
+                    map = mapReadOnly(segmentPath(entry.segment), end);
+                    segmentMaps.put(entry.segment, map);
+                }
+            }
+        }
+        ByteBuffer compressed = map.slice((int) entry.filePosition, entry.compressedLength);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] data = new byte[entry.length];
+            int n = 0;
+            while (n < data.length && !inflater.finished()) {
+                n += inflater.inflate(data, n, data.length - n);
+            }
+            return data;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt log block in " + segmentPath(entry.segment), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] deflate(byte[] data, int length) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static MappedByteBuffer mapReadOnly(Path path, long size) {
+        // マッピングはチャネルを閉じても有効
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format("%08d.seg", number));
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new ClosedLogException();
+        }
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        try {
+            if (pendingLength > 0) {
+                flushBlock();
+            }
+            if (segmentChannel != null) {
+                segmentChannel.close();
+            }
+            indexChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            closed = true;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * 開いたあとに閉じられたログへのアクセス。呼び出し側は開き直して再試行する。
+     */
+    static final class ClosedLogException extends IllegalStateException {
+        ClosedLogException() {
+            super("Log file already closed");
+        }
+    }
+
+    record Snapshot(int entryCount, long flushedBytes, long flushedNewlines, boolean flushedEndsWithNewline,
+                    byte[] pending, int pendingNewlines) {
+
+        long size() {
+            return flushedBytes + pending.length;
+        }
+
+        /**
+         * 改行で終わっていない最後の行も 1 行に数える。
+         */
+        long lineCount() {
+            long newlines = flushedNewlines + pendingNewlines;
+            boolean endsWithNewline = pending.length > 0 ? pending[pending.length - 1] == '\n' : flushedEndsWithNewline;
+            return size() == 0 || endsWithNewline ? newlines : newlines + 1;
+        }
+    }
+
+    private record Entry(long start, long firstLine, long filePosition, int segment,
+                         int compressedLength, int length, int newlines, boolean endsWithNewline) {
+
+        static Entry read(ByteBuffer buffer, int at) {
+            return new Entry(buffer.getLong(at), buffer.getLong(at + 8), buffer.getLong(at + 16),
+                    buffer.getInt(at + 24), buffer.getInt(at + 28), buffer.getInt(at + 32),
+                    buffer.getInt(at + 36), buffer.getInt(at + 40) != 0);
+        }
+
+        void write(ByteBuffer buffer) {
+            buffer.putLong(start).putLong(firstLine).putLong(filePosition)
+                    .putInt(segment).putInt(compressedLength).putInt(length).putInt(newlines)
+                    .putInt(endsWithNewline ? 1 : 0).putInt(0);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.taskmanager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * パイプラインログの保存先。ログごとに {@link PipelineLogFile} を開き、開いたままにする数は上限で抑える。
+ * <p>
+ * 追い出されたログは閉じられ（末尾のブロックも書き出される）、次のアクセスで開き直す。
+ * ライブテールの購読はログを開いているかどうかと無関係に保持する。
+ * メモリ上の末尾は {@link #flushAll()} が定期的にブロックとして書き出す。
+ */
+@Component
+public class PipelineLogStore {
+
+    private final Path root;
+    private final int blockSize;
+    private final long segmentSize;
+    private final Cache<Long, PipelineLogFile> openFiles;
+    private final Map<Long, List<Consumer<LogChunk>>> subscribers = new ConcurrentHashMap<>();
+
+    public PipelineLogStore(@Value("${taskmanager.pipeline-logs.directory:data/pipeline-logs}") String directory,
+                            @Value("${taskmanager.pipeline-logs.block-size:65536}") int blockSize,
+                            @Value("${taskmanager.pipeline-logs.segment-size:16777216}") long segmentSize,
+                            @Value("${taskmanager.pipeline-logs.max-open-files:256}") long maxOpenFiles) {
+        this.root = Paths.get(directory);
+        this.blockSize = blockSize;
+        this.segmentSize = segmentSize;
+        this.openFiles = Caffeine.newBuilder()
+                .maximumSize(maxOpenFiles)
+                .<Long, PipelineLogFile>evictionListener((id, file, cause) -> {
+                    // 追い出しと同じキーの再オープンが重ならないよう、同期的に閉じる
+                    if (file != null) {
+                        file.close();
+                    }
+                })
+                .build();
+    }
+
+    public LogChunk append(long pipelineId, byte[] data) {
+        return withFile(pipelineId, file -> file.append(data, chunk -> notify(pipelineId, chunk)));
+    }
+
+    public byte[] readBytes(long pipelineId, long offset, int length) {
+        if (!exists(pipelineId)) {
+            return new byte[0];
+        }
+        return withFile(pipelineId, file -> file.readBytes(offset, length));
+    }
+
+    public LogLines readLines(long pipelineId, long from, int count) {
+        if (!exists(pipelineId)) {
+            return new LogLines(0, List.of(), 0, 0);
+        }
+        return withFile(pipelineId, file -> file.readLines(from, count));
+    }
+
+    public long size(long pipelineId) {
+        if (!exists(pipelineId)) {
+            return 0;
+        }
+        return withFile(pipelineId, PipelineLogFile::size);
+    }
+
+    /**
+     * {@code offset} 以降で最初の行頭の位置。テールの開始位置を行の途中にしないために使う。
+     */
+    public long nextLineStart(long pipelineId, long offset) {
+        if (offset <= 0) {
+            return 0;
+        }
+        byte[] probe = readBytes(pipelineId, offset - 1, blockSize);
+        for (int i = 0; i < probe.length; i++) {
+            if (probe[i] == '\n') {
+                return offset + i;
+            }
+        }
+        return offset - 1 + probe.length;
+    }
+
+    public boolean exists(long pipelineId) {
+        return openFiles.getIfPresent(pipelineId) != null
+                || Files.exists(directory(pipelineId).resolve(PipelineLogFile.INDEX_FILE));
+    }
+
+    /**
+     * 追記のたびに {@code subscriber} を呼ぶ。呼び出しは追記側のスレッドで行われるので、ブロックしてはならない。
+     */
+    public Runnable subscribe(long pipelineId, Consumer<LogChunk> subscriber) {
+        subscribers.computeIfAbsent(pipelineId, id -> new CopyOnWriteArrayList<>()).add(subscriber);
+        return () -> subscribers.computeIfPresent(pipelineId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${taskmanager.pipeline-logs.flush-interval-ms:1000}")
+    public void flushAll() {
+        openFiles.asMap().values().forEach(PipelineLogFile::flush);
+    }
+
+    @PreDestroy
+    void close() {
+        openFiles.asMap().values().forEach(PipelineLogFile::close);
+        openFiles.invalidateAll();
+    }
+
+    private void notify(long pipelineId, LogChunk chunk) {
+        List<Consumer<LogChunk>> list = subscribers.get(pipelineId);
+        if (list != null) {
+            list.forEach(subscriber -> subscriber.accept(chunk));
+        }
+    }
+
+    private <T> T withFile(long pipelineId, Function<PipelineLogFile, T> action) {
+        while (true) {
+            PipelineLogFile file = openFiles.get(pipelineId,
+                    id -> PipelineLogFile.open(directory(id), blockSize, segmentSize));
+            try {
+                return action.apply(file);
+            } catch (PipelineLogFile.ClosedLogException e) {
+                // 使っている最中に追い出された。閉じたインスタンスを外して開き直す
+                openFiles.asMap().remove(pipelineId, file);
+            }
+        }
+    }
+
+    private Path directory(long pipelineId) {
+        return root.resolve(Long.toString(pipelineId));
+    }
+}
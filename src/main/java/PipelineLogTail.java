@@ -0,0 +1,137 @@
+package com.example.taskmanager;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1 クライアント分のライブテール。
+ * <p>
+ * 追記の通知は有限のキューに積むだけにし、送信は専用の仮想スレッドが行う。遅いクライアントが
+ * 追記側を止めることはない。キューがあふれたら接続を閉じる。イベント ID は送ったところまでの
+ * バイト位置なので、クライアントは {@code Last-Event-ID} 付きで再接続すれば続きから受け取れる。
+ * <p>
+ * チャンクは任意のバイト位置で切れるので、末尾で途切れた UTF-8 の多バイト文字は送らずに持ち越し、
+ * 次のチャンクの先頭に付けて文字列にする。イベント ID も送った文字の境界を指す。
+ */
+final class PipelineLogTail {
+
+    private static final LogChunk CLOSE = new LogChunk(-1, new byte[0]);
+
+    private final long pipelineId;
+    private final PipelineLogStore logStore;
+    private final SseEmitter emitter;
+    private final BlockingQueue<LogChunk> queue;
+    private final int maxChunkBytes;
+    private volatile boolean overflowed;
+    // 前回のチャンクの末尾で途切れていた多バイト文字（送信スレッドだけが触る）
+    private byte[] carry = new byte[0];
+
+    PipelineLogTail(long pipelineId, PipelineLogStore logStore, SseEmitter emitter, int queueCapacity, int maxChunkBytes) {
+        this.pipelineId = pipelineId;
+        this.logStore = logStore;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxChunkBytes = maxChunkBytes;
+    }
+
+    /**
+     * {@code from} 以降を送り、その後は追記を待って送り続ける。
+     */
+    void start(long from) {
+        // 先に購読してから既存分を読むので、その間の追記も取りこぼさない（重複は送信時に捨てる）
+        Runnable unsubscribe = logStore.subscribe(pipelineId, chunk -> {
+            if (!queue.offer(chunk)) {
+                overflowed = true;
+            }
+        });
+        emitter.onCompletion(() -> queue.offer(CLOSE));
+        emitter.onTimeout(() -> queue.offer(CLOSE));
+        emitter.onError(e -> queue.offer(CLOSE));
+        Thread.ofVirtual().name("log-tail-" + pipelineId).start(() -> {
+            try {
+                run(from);
+                emitter.complete();
+            } catch (IOException | RuntimeException e) {
+                emitter.completeWithError(e);
+            } finally {
+                unsubscribe.run();
+            }
+        });
+    }
+
+    private void run(long from) throws IOException, InterruptedException {
+        long position = from;
+        long size = logStore.size(pipelineId);
+        while (position < size) {
+            byte[] data = logStore.readBytes(pipelineId, position, maxChunkBytes);
+            send(new LogChunk(position, data));
+            position += data.length;
+        }
+        while (!overflowed) {
+            LogChunk chunk = queue.poll(15, TimeUnit.SECONDS);
+            if (chunk == CLOSE) {
+                return;
+            }
+            if (chunk == null) {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+                continue;
+            }
+            if (chunk.end() <= position) {
+                continue;
+            }
+            int skip = (int) Math.max(0, position - chunk.offset());
+            byte[] data = skip == 0 ? chunk.data() : Arrays.copyOfRange(chunk.data(), skip, chunk.data().length);
+            send(new LogChunk(chunk.offset() + skip, data));
+            position = chunk.end();
+        }
+    }
+
+    private void send(LogChunk chunk) throws IOException {
+        byte[] data = chunk.data();
+        long offset = chunk.offset();
+        if (carry.length > 0) {
+            byte[] joined = new byte[carry.length + data.length];
+            System.arraycopy(carry, 0, joined, 0, carry.length);
+            System.arraycopy(data, 0, joined, carry.length, data.length);
+            data = joined;
+            offset -= carry.length;
+        }
+        int complete = completeLength(data);
+        carry = Arrays.copyOfRange(data, complete, data.length);
+        if (complete == 0) {
+            return;
+        }
+        emitter.send(SseEmitter.event()
+                .id(Long.toString(offset + complete))
+                .name("log")
+                .data(new TailEvent(offset, new String(data, 0, complete, StandardCharsets.UTF_8)),
+                        MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * 末尾で途切れた UTF-8 の多バイト文字を除いた長さ。途切れていなければ {@code data.length}。
+     * 不正なバイト列はそのまま返す（デコード時に置換文字になる）。
+     */
+    static int completeLength(byte[] data) {
+        // 先頭バイトは末尾から高々 3 バイト前にある
+        for (int i = data.length - 1, trailing = 1; i >= 0 && trailing <= 4; i--, trailing++) {
+            int b = data[i] & 0xff;
+            if ((b & 0xc0) == 0x80) {
+                continue;
+            }
+            int length = b >= 0xf0 ? 4 : b >= 0xe0 ? 3 : b >= 0xc0 ? 2 : 1;
+            return trailing >= length ? data.length : i;
+        }
+        return data.length;
+    }
+
+    record TailEvent(long offset, String text) {
+    }
+}
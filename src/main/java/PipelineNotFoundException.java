@@ -0,0 +1,12 @@
+package com.example.taskmanager;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class PipelineNotFoundException extends RuntimeException {
+
+    public PipelineNotFoundException(Long id) {
+        super("Pipeline not found: " + id);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.taskmanager;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PipelineRepository extends JpaRepository<Pipeline, Long> {
+
+    @EntityGraph(attributePaths = "stages")
+    Optional<Pipeline> findWithStagesById(Long id);
+
+    @EntityGraph(attributePaths = "stages")
+    List<Pipeline> findByRepositoryOrderByStartTimeDesc(String repository, Limit limit);
+
+    @EntityGraph(attributePaths = "stages")
+    List<Pipeline> findAllByOrderByStartTimeDesc(Limit limit);
+}
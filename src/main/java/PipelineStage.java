@@ -0,0 +1,75 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "pipeline_stages")
+@IdClass(PipelineStage.Key.class)
+public class PipelineStage {
+
+    @Id
+    @JsonIgnore
+    @Column(name = "pipeline_id")
+    private Long pipelineId;
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    private PipelineStatus status;
+
+    @Column(name = "duration_seconds")
+    private long duration;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    public Long getPipelineId() {
+        return pipelineId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PipelineStatus getStatus() {
+        return status;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public record Key(Long pipelineId, Long id) implements Serializable {
+        public Key() {
+            this(null, null);
+        }
+    }
+}
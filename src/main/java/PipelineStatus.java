@@ -0,0 +1,42 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * パイプラインとステージの状態。JSON ではフロントエンドに合わせて小文字で出す。
+ */
+public enum PipelineStatus {
+    RUNNING,
+    SUCCESS,
+    FAILED,
+    PENDING,
+    SKIPPED;
+
+    @JsonValue
+    public String toJson() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * GitHub の status/conclusion を変換する（lib/real-data-service.ts の mapGitHubStatusToPipelineStatus と同じ規則）。
+     */
+    static PipelineStatus fromGitHub(String status, String conclusion) {
+        if ("in_progress".equals(status) || "queued".equals(status)) {
+            return RUNNING;
+        }
+        if ("completed".equals(status)) {
+            if ("success".equals(conclusion)) {
+                return SUCCESS;
+            }
+            if ("failure".equals(conclusion) || "cancelled".equals(conclusion)) {
+                return FAILED;
+            }
+            if ("skipped".equals(conclusion)) {
+                return SKIPPED;
+            }
+        }
+        return PENDING;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.taskmanager;
+
+import java.util.List;
+
+/**
+ * 他ノードでコミットされた変更を {@link ChangeNotificationChannel} から受け取るリスナー。
+ * <p>
+ * 自ノードの変更は {@link TaskMutationListener} / {@link UserMutationListener} で反映済みなので、ここには来ない。
+ * 呼び出しは受信用の 1 スレッドから届いた順に行われる。
+ */
+public interface RemoteChangeListener {
+
+    /**
+     * タスクが作成されたか、完了状態が切り替わった。
+     */
+    default void onRemoteTaskChanged(long taskId) {
+    }
+
+    default void onRemoteTaskDeleted(long taskId) {
+    }
+
+    default void onRemoteTaskAssigned(long taskId, long userId) {
+    }
+
+    default void onRemoteUserCreated(long userId, String email) {
+    }
+
+    /**
+     * @param emails 無効にするメールアドレス。最後の要素が変更後のアドレス（メールアドレスの変更なら変更前と変更後の 2 件）
+     */
+    default void onRemoteUserChanged(long userId, List<String> emails) {
+    }
+
+    default void onRemoteUserDeleted(long userId, List<String> emails) {
+    }
+
+    /**
+     * 他ノードの変更を取りこぼした可能性がある（受信用の接続の張り直しや、送信側のキューの溢れ）。
+     * ローカルに持っている内容は全て捨てる。
+     */
+    default void onRemoteReset() {
+    }
+}
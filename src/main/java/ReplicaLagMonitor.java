@@ -0,0 +1,127 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * レプリカの遅延を定期的に測り、{@code max-lag} を超えている間や問い合わせに失敗している間は
+ * 読み取りをプライマリに戻させる。
+ * <p>
+ * 遅延は「レプリカの現在時刻 − 最後に適用したトランザクションのコミット時刻」。更新の無いプライマリでも
+ * この値が伸び続けないよう、計測のたびにプライマリの {@code replication_heartbeat} を更新する。
+ * 受信が止まったレプリカではハートビートが届かなくなるので、遅延はそのまま伸びて {@code max-lag} を超える。
+ * 次の場合は遅延にかかわらず使わない。
+ * <ul>
+ *   <li>リカバリ中でない（昇格した、またはレプリケーションしていない独立したインスタンス）</li>
+ *   <li>WAL 受信プロセスがいない（{@code pg_stat_wal_receiver} が空）</li>
+ * </ul>
+ * ハートビートの間隔は計測間隔と同じなので、{@code max-lag} は計測間隔より十分長くすること。
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final double NOT_IN_RECOVERY = -1;
+    static final double NOT_RECEIVING = -2;
+
+    static final String HEARTBEAT_SQL = "update replication_heartbeat set beat_at = now() where id = 1";
+    // pg_stat_wal_receiver の詳細は pg_read_all_stats が無いと null になるが、行の有無（pid）は誰でも見える
+    static final String LAG_SQL = "select case when not pg_is_in_recovery() then " + NOT_IN_RECOVERY + " "
+            + "when not exists (select 1 from pg_stat_wal_receiver) then " + NOT_RECEIVING + " "
+            + "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), " + NOT_RECEIVING + ") end";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final double maxLagSeconds;
+    // 初回の計測までは使わない
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean heartbeatFailing;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this(queryWithTimeout(primary), queryWithTimeout(replica), maxLag, meterRegistry);
+    }
+
+    ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    double lagSeconds() {
+        return lagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${taskmanager.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        beat();
+        boolean wasUsable = usable;
+        try {
+            Double lag = replica.queryForObject(LAG_SQL, Double.class);
+            double measured = lag != null ? lag : NOT_RECEIVING;
+            if (measured == NOT_IN_RECOVERY || measured == NOT_RECEIVING) {
+                lagSeconds = Double.NaN;
+                usable = false;
+                if (wasUsable) {
+                    log.warn("Replica is {}, routing reads to primary",
+                            measured == NOT_IN_RECOVERY ? "not in recovery" : "not receiving WAL");
+                }
+                return;
+            }
+            lagSeconds = measured;
+            usable = lagSeconds <= maxLagSeconds;
+            if (wasUsable && !usable) {
+                log.warn("Replica lag {} s exceeds {} s, routing reads to primary", lagSeconds, maxLagSeconds);
+            }
+        } catch (RuntimeException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Replica lag check failed, routing reads to primary", e);
+            }
+        }
+        if (!wasUsable && usable) {
+            log.info("Replica lag {} s, routing reads to replica", lagSeconds);
+        }
+    }
+
+    /**
+     * プライマリにコミットを 1 つ起こし、レプリカの最終適用時刻を進める。失敗しても遅延が伸びるだけなので続ける。
+     */
+    private void beat() {
+        try {
+            primary.update(HEARTBEAT_SQL);
+            if (heartbeatFailing) {
+                heartbeatFailing = false;
+                log.info("Replication heartbeat recovered");
+            }
+        } catch (RuntimeException e) {
+            if (!heartbeatFailing) {
+                heartbeatFailing = true;
+                log.warn("Replication heartbeat failed; replica lag will grow until it recovers", e);
+            }
+        }
+    }
+
+    private static JdbcTemplate queryWithTimeout(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout(5);
+        return jdbcTemplate;
+    }
+}
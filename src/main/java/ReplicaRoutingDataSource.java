@@ -0,0 +1,103 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 読み取り専用トランザクションのコネクションをレプリカから、それ以外をプライマリから取る。
+ * <p>
+ * どちらに行くかはコネクションを実際に取る時点で決まる。{@code @Transactional(readOnly = true)} の印は
+ * トランザクション開始処理の後で立つので、{@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * で包み、最初の SQL まで取得を遅らせて使うこと。
+ * {@link ReplicaLagMonitor} がレプリカを使えないと判断している間は、読み取りもプライマリに送る。
+ * <p>
+ * 読んだ結果をキャッシュしたりタグを付けて返したりする処理は、{@link #pinToPrimary} の範囲で実行してプライマリから読む。
+ * 更新直後のタグやキャッシュに、まだレプリカに届いていない古い行が結び付くのを防ぐため。
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<int[]> PINNED = ThreadLocal.withInitial(() -> new int[1]);
+    private static final PrimaryScope NOT_PINNED = () -> {
+    };
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryWrites;
+    private final Counter replicaReads;
+    private final Counter fallbackReads;
+    private final Counter pinnedReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryWrites = routed(meterRegistry, "primary", "write");
+        this.replicaReads = routed(meterRegistry, "replica", "read");
+        this.fallbackReads = routed(meterRegistry, "primary", "read-fallback");
+        this.pinnedReads = routed(meterRegistry, "primary", "read-pinned");
+    }
+
+    /**
+     * 閉じるまでの間にこのスレッドで取るコネクションを、読み取り専用でもプライマリにする。入れ子にできる。
+     * 振り分けはコネクションを取る時点で決まるので、トランザクションの開始より前（または最初の SQL より前）に開くこと。
+     * 読み書き分離が無効なときは何もしない。
+     */
+    public static PrimaryScope pinToPrimary() {
+        int[] depth = PINNED.get();
+        depth[0]++;
+        return () -> depth[0]--;
+    }
+
+    /**
+     * {@code pin} が false なら何もしない {@link #pinToPrimary}。
+     */
+    public static PrimaryScope pinToPrimary(boolean pin) {
+        return pin ? pinToPrimary() : NOT_PINNED;
+    }
+
+    static boolean isPinnedToPrimary() {
+        return PINNED.get()[0] > 0;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrites.increment();
+            return Target.PRIMARY;
+        }
+        if (isPinnedToPrimary()) {
+            pinnedReads.increment();
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            fallbackReads.increment();
+            return Target.PRIMARY;
+        }
+        replicaReads.increment();
+        return Target.REPLICA;
+    }
+
+    @FunctionalInterface
+    public interface PrimaryScope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target, String kind) {
+        return Counter.builder("datasource.routing")
+                .tag("target", target)
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.taskmanager;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * タスクとユーザーの変更バージョン。読み取り API の強い ETag の元になる。
+ * <p>
+ * 一覧にはそれぞれ 1 つのカウンタを、個別のリソースには ID をハッシュしたストライプのカウンタを持ち、
+ * {@link TaskService} / {@link UserService} の更新がコミットされるたびに進める。ストライプは固定長なので
+ * ID の数によらずメモリは一定で、別の ID の更新で ETag が変わることがあるだけ（無駄な 200 になるが古い 304 にはならない）。
+ * <p>
+ * 呼び出し側はデータを読む<em>前に</em>タグを取ること。読み取りと更新が重なっても、新しいデータに古いタグが
+ * 付くだけで、次のリクエストで取り直しになる。タグには起動時刻を含めるので、再起動やノードをまたいで一致しない。
+ * <p>
+ * 他ノードでコミットされた更新は {@link ChangeNotificationChannel} から {@link RemoteChangeListener} として受け取る。
+ * 通知を取りこぼした可能性があるときは {@link #allChanged} で全てのタグを変える。複数ノードで動かす場合、
+ * {@code taskmanager.change-notify.enabled=true} でないと別ノードの更新でタグが進まず、古い 304 を返す。
+ * <p>
+ * 読み書き分離が有効なとき、最後の変更からレプリカの許容遅延（{@code max-lag} と計測間隔の和）が過ぎるまでは
+ * {@link #tasksSettling()} / {@link #usersSettling()} が true を返す。その間、タグを付けて返す読み取りは
+ * プライマリで行うこと（レプリカの古い行に新しいタグが付くのを防ぐ）。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.etags.enabled", havingValue = "true", matchIfMissing = true)
+public class ResourceVersions implements TaskMutationListener, UserMutationListener, RemoteChangeListener {
+
+    private static final int STRIPES = 4096;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong tasks = new AtomicLong();
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLongArray taskStripes = new AtomicLongArray(STRIPES);
+    private final AtomicLongArray userStripes = new AtomicLongArray(STRIPES);
+    private final long settleNanos;
+    private volatile long tasksChangedAt;
+    private volatile long usersChangedAt;
+
+    public ResourceVersions(@Value("${taskmanager.replica.enabled:false}") boolean replicaEnabled,
+                            @Value("${taskmanager.replica.max-lag:5s}") Duration maxLag,
+                            @Value("${taskmanager.replica.lag-check-interval-ms:1000}") long lagCheckIntervalMillis) {
+        this.settleNanos = replicaEnabled ? maxLag.plusMillis(lagCheckIntervalMillis).toNanos() : 0;
+        long settled = System.nanoTime() - settleNanos;
+        this.tasksChangedAt = settled;
+        this.usersChangedAt = settled;
+    }
+
+    public String tasksTag() {
+        return epoch + ".t" + tasks.get();
+    }
+
+    public String taskTag(long id) {
+        return epoch + ".t" + id + "." + taskStripes.get(stripe(id));
+    }
+
+    public boolean tasksSettling() {
+        return System.nanoTime() - tasksChangedAt < settleNanos;
+    }
+
+    public boolean usersSettling() {
+        return System.nanoTime() - usersChangedAt < settleNanos;
+    }
+
+    public String usersTag() {
+        return epoch + ".u" + users.get();
+    }
+
+    public String userTag(long id) {
+        return epoch + ".u" + id + "." + userStripes.get(stripe(id));
+    }
+
+    @Override
+    public void onCreated(Task task) {
+        taskChanged(task.getId());
+    }
+
+    @Override
+    public void onToggled(Task task) {
+        taskChanged(task.getId());
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        taskChanged(task.getId());
+    }
+
+    @Override
+    public void onCreated(User user) {
+        userChanged(user.getId());
+    }
+
+    @Override
+    public void onEmailChanged(User user, String previousEmail) {
+        userChanged(user.getId());
+    }
+
+    @Override
+    public void onPasswordChanged(User user) {
+        userChanged(user.getId());
+    }
+
+    @Override
+    public void onDeleted(User user) {
+        userChanged(user.getId());
+    }
+
+    @Override
+    public void onRemoteTaskChanged(long taskId) {
+        taskChanged(taskId);
+    }
+
+    @Override
+    public void onRemoteTaskDeleted(long taskId) {
+        taskChanged(taskId);
+    }
+
+    @Override
+    public void onRemoteUserCreated(long userId, String email) {
+        userChanged(userId);
+    }
+
+    @Override
+    public void onRemoteUserChanged(long userId, List<String> emails) {
+        userChanged(userId);
+    }
+
+    @Override
+    public void onRemoteUserDeleted(long userId, List<String> emails) {
+        userChanged(userId);
+    }
+
+    @Override
+    public void onRemoteReset() {
+        allChanged();
+    }
+
+    public void taskChanged(long id) {
+        tasksChangedAt = System.nanoTime();
+        taskStripes.incrementAndGet(stripe(id));
+        tasks.incrementAndGet();
+    }
+
+    public void userChanged(long id) {
+        usersChangedAt = System.nanoTime();
+        userStripes.incrementAndGet(stripe(id));
+        users.incrementAndGet();
+    }
+
+    /**
+     * 取りこぼした更新があり得るとき（通知チャネルの再接続時など）に、全てのタグを無効にする。
+     */
+    public void allChanged() {
+        long now = System.nanoTime();
+        tasksChangedAt = now;
+        usersChangedAt = now;
+        for (int i = 0; i < STRIPES; i++) {
+            taskStripes.incrementAndGet(i);
+            userStripes.incrementAndGet(i);
+        }
+        tasks.incrementAndGet();
+        users.incrementAndGet();
+    }
+
+    private static int stripe(long id) {
+        return (int) ((id ^ (id >>> 32)) * 0x9E3779B9L >>> 20) & (STRIPES - 1);
+    }
+}
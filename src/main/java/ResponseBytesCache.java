@@ -0,0 +1,301 @@
+package com.example.taskmanager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * シリアライズ済みのレスポンスボディのキャッシュ。変更のない一覧はバイト列のコピーだけで返せる。
+ * <p>
+ * エントリは {@link ResourceVersions} のタグと組で持ち、取り出すときにタグが現在のものと違えば使わない。
+ * 更新のコミット時には該当する名前空間（{@link #TASKS} / {@link #USERS}）をまとめて捨てる。
+ * 他ノードでの更新は {@link ChangeNotificationChannel} から受け取って同じように捨てる（タグも同時に変わるので、
+ * 捨てるのが遅れても古いボディは返らない）。
+ * gzip を受け付けるクライアント用に圧縮済みのボディも持ち、{@code max-size} を元と圧縮後のバイト数の合計で守る。
+ * {@code max-entry-size} を超えるボディはキャッシュしない（そのまま流す）。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseBytesCache implements TaskMutationListener, UserMutationListener, RemoteChangeListener {
+
+    public static final String TASKS = "tasks";
+    public static final String USERS = "users";
+
+    private final Cache<Key, Entry> entries;
+    private final long maxEntryBytes;
+    private final boolean gzipEnabled;
+
+    public ResponseBytesCache(@Value("${taskmanager.response-cache.max-size:64MB}") DataSize maxSize,
+                              @Value("${taskmanager.response-cache.max-entry-size:8MB}") DataSize maxEntrySize,
+                              @Value("${taskmanager.response-cache.gzip:true}") boolean gzipEnabled,
+                              MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, Entry entry) -> entry.weight())
+                .recordStats()
+                .build();
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.gzipEnabled = gzipEnabled;
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "responses");
+        Gauge.builder("response.cache.bytes", entries,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean acceptsGzip(String acceptEncoding) {
+        return gzipEnabled && acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    /**
+     * タグが一致するエントリがあればレスポンスに書き込んで true を返す。
+     */
+    public boolean send(String namespace, String key, String tag, boolean gzip, HttpServletResponse response)
+            throws IOException {
+        Entry entry = entries.getIfPresent(new Key(namespace, key));
+        if (entry == null || !entry.tag().equals(tag)) {
+            return false;
+        }
+        byte[] body = gzip ? entry.gzip() : entry.body();
+        response.setContentType(entry.contentType());
+        prepare(response, gzip);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        return true;
+    }
+
+    /**
+     * タグが一致するエントリがあれば、そのボディを返す {@link ResponseEntity} を組み立てる。無ければ null。
+     */
+    @Nullable
+    public ResponseEntity<byte[]> cached(String namespace, String key, String tag, boolean gzip) {
+        Entry entry = entries.getIfPresent(new Key(namespace, key));
+        if (entry == null || !entry.tag().equals(tag)) {
+            return null;
+        }
+        return entity(entry.contentType(), gzip ? entry.gzip() : entry.body(), gzip);
+    }
+
+    /**
+     * 組み立て済みのボディをキャッシュに入れ、それを返す {@link ResponseEntity} を組み立てる。
+     */
+    public ResponseEntity<byte[]> store(String namespace, String key, String tag, String contentType, byte[] body,
+                                        boolean gzip) {
+        Entry entry = put(namespace, key, tag, contentType, body);
+        byte[] sent = gzip ? (entry != null ? entry.gzip() : compress(body)) : body;
+        return entity(contentType, sent, gzip);
+    }
+
+    /**
+     * ストリームで書き出すレスポンスを、流しながら写し取る。最後まで書けたら {@link Recording#commit()} を呼ぶこと。
+     */
+    public Recording record(String namespace, String key, String tag, String contentType, boolean gzip,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(contentType);
+        prepare(response, gzip);
+        OutputStream out = response.getOutputStream();
+        return new Recording(new Key(namespace, key), tag, contentType, gzip ? new GZIPOutputStream(out, 8192) : out);
+    }
+
+    public void invalidate(String namespace) {
+        entries.asMap().keySet().removeIf(key -> key.namespace().equals(namespace));
+    }
+
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    @Override
+    public void onCreated(Task task) {
+        invalidate(TASKS);
+    }
+
+    @Override
+    public void onToggled(Task task) {
+        invalidate(TASKS);
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        invalidate(TASKS);
+    }
+
+    @Override
+    public void onCreated(User user) {
+        invalidate(USERS);
+    }
+
+    @Override
+    public void onEmailChanged(User user, String previousEmail) {
+        invalidate(USERS);
+    }
+
+    @Override
+    public void onPasswordChanged(User user) {
+        invalidate(USERS);
+    }
+
+    @Override
+    public void onDeleted(User user) {
+        invalidate(USERS);
+    }
+
+    @Override
+    public void onRemoteTaskChanged(long taskId) {
+        invalidate(TASKS);
+    }
+
+    @Override
+    public void onRemoteTaskDeleted(long taskId) {
+        invalidate(TASKS);
+    }
+
+    @Override
+    public void onRemoteUserCreated(long userId, String email) {
+        invalidate(USERS);
+    }
+
+    @Override
+    public void onRemoteUserChanged(long userId, List<String> emails) {
+        invalidate(USERS);
+    }
+
+    @Override
+    public void onRemoteUserDeleted(long userId, List<String> emails) {
+        invalidate(USERS);
+    }
+
+    @Override
+    public void onRemoteReset() {
+        invalidateAll();
+    }
+
+    private Entry put(String namespace, String key, String tag, String contentType, byte[] body) {
+        if (body.length > maxEntryBytes) {
+            return null;
+        }
+        Entry entry = new Entry(tag, contentType, body, gzipEnabled ? compress(body) : null);
+        entries.put(new Key(namespace, key), entry);
+        return entry;
+    }
+
+    private static ResponseEntity<byte[]> entity(String contentType, byte[] body, boolean gzip) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+
+    private static void prepare(HttpServletResponse response, boolean gzip) {
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static byte[] compress(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private record Key(String namespace, String key) {
+    }
+
+    private record Entry(String tag, String contentType, byte[] body, byte[] gzip) {
+
+        int weight() {
+            long bytes = body.length + (gzip != null ? gzip.length : 0);
+            return (int) Math.min(Integer.MAX_VALUE, bytes);
+        }
+    }
+
+    /**
+     * 書き込みを下流に流しつつ、{@code max-entry-size} までを手元に写し取る出力ストリーム。
+     */
+    public final class Recording extends OutputStream {
+
+        private final Key key;
+        private final String tag;
+        private final String contentType;
+        private final OutputStream target;
+        // 上限を超えたら null にして写し取りをやめる
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream(8192);
+
+        private Recording(Key key, String tag, String contentType, OutputStream target) {
+            this.key = key;
+            this.tag = tag;
+            this.contentType = contentType;
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            if (copy != null) {
+                if (copy.size() + 1 > maxEntryBytes) {
+                    copy = null;
+                } else {
+                    copy.write(b);
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            if (copy != null) {
+                if (copy.size() + (long) len > maxEntryBytes) {
+                    copy = null;
+                } else {
+                    copy.write(b, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            target.close();
+        }
+
+        /**
+         * ボディを最後まで書けたときに呼ぶ。途中で失敗したレスポンスはキャッシュしない。
+         */
+        public void commit() {
+            if (copy != null) {
+                put(key.namespace(), key.key(), tag, contentType, copy.toByteArray());
+                copy = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.taskmanager;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+@Configuration
+public class SecurityConfig {
+
+    /**
+     * {@code /actuator/prometheus} はアプリのポートでは公開しない。{@code management.server.port} で分けた
+     * 管理用ポート（外部に出さない）に届いたスクレイプだけを認証なしで通す。管理用ポートを分けていなければ
+     * 他のエンドポイントと同じく認証が要る。
+     */
+    @Bean
+    SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                            @Value("${management.server.port:-1}") int managementPort) throws Exception {
+        RequestMatcher scrape = new AndRequestMatcher(EndpointRequest.to("prometheus"),
+                request -> managementPort > 0 && request.getLocalPort() == managementPort);
+        http
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/**", "/actuator/health").permitAll()
+                        .requestMatchers(scrape).permitAll()
+                        .anyRequest().authenticated());
+        return http.build();
+    }
+
+    @Bean
+    PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * 収集するシステムメトリクスの種類。cpu / memory / disk は使用率（%）、network は送受信の合計（KB/s）。
+ */
+public enum SystemMetric {
+    CPU,
+    MEMORY,
+    DISK,
+    NETWORK;
+
+    @JsonValue
+    public String toJson() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.taskmanager;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+@Validated
+public class SystemMetricsController {
+
+    private final SystemMetricsStore store;
+
+    public SystemMetricsController(SystemMetricsStore store) {
+        this.store = store;
+    }
+
+    @GetMapping("/current")
+    public Map<SystemMetric, Double> current() {
+        Map<SystemMetric, Double> values = new EnumMap<>(SystemMetric.class);
+        for (SystemMetric metric : SystemMetric.values()) {
+            values.put(metric, store.latest(metric));
+        }
+        return values;
+    }
+
+    /**
+     * {@code from} / {@code to} を省略すると直近 {@code hours} 時間。{@code resolution} は秒（0 で自動選択）。
+     */
+    @GetMapping("/history")
+    public MetricRange history(@RequestParam SystemMetric metric,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                               @RequestParam(defaultValue = "1") @Min(1) @Max(2160) int hours,
+                               @RequestParam(defaultValue = "0") @Min(0) int resolution) {
+        Instant end = to != null ? to : Instant.now().plusSeconds(1);
+        Instant start = from != null ? from : end.minus(Duration.ofHours(hours));
+        return store.query(metric, start, end, resolution);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.taskmanager;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * {@code /actuator/systemmetrics/{metric}?minutes=60&resolution=0} で範囲クエリを返す actuator エンドポイント。
+ */
+@Component
+@Endpoint(id = "systemmetrics")
+public class SystemMetricsEndpoint {
+
+    private final SystemMetricsStore store;
+
+    public SystemMetricsEndpoint(SystemMetricsStore store) {
+        this.store = store;
+    }
+
+    @ReadOperation
+    public MetricRange range(@Selector String metric, @Nullable Integer minutes, @Nullable Integer resolution) {
+        Instant end = Instant.now().plusSeconds(1);
+        Instant start = end.minus(Duration.ofMinutes(minutes != null ? minutes : 60));
+        return store.query(SystemMetric.valueOf(metric.toUpperCase(Locale.ROOT)), start, end,
+                resolution != null ? resolution : 0);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.taskmanager;
+
+import com.sun.management.OperatingSystemMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 1 秒ごとにホストの CPU・メモリ・ディスク・ネットワークを測って {@link SystemMetricsStore} に記録する。
+ * ネットワークは Linux の {@code /proc/net/dev}（loopback を除く）の差分から求め、読めない環境では記録しない。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.system-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class SystemMetricsSampler {
+
+    private static final Logger log = LoggerFactory.getLogger(SystemMetricsSampler.class);
+
+    private static final Path NET_DEV = Paths.get("/proc/net/dev");
+
+    private final SystemMetricsStore store;
+    private final OperatingSystemMXBean os;
+    private final FileStore fileStore;
+    private long lastNetworkBytes = -1;
+    private long lastNetworkNanos;
+
+    public SystemMetricsSampler(SystemMetricsStore store) throws IOException {
+        this.store = store;
+        this.os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        this.fileStore = Files.getFileStore(Paths.get("").toAbsolutePath());
+    }
+
+    @Scheduled(fixedRateString = "${taskmanager.system-metrics.sample-interval-ms:1000}")
+    public void sample() {
+        Instant now = Instant.now();
+        double cpu = os.getCpuLoad();
+        if (cpu >= 0) {
+            store.record(now, SystemMetric.CPU, cpu * 100);
+        }
+        long totalMemory = os.getTotalMemorySize();
+        if (totalMemory > 0) {
+            store.record(now, SystemMetric.MEMORY, 100.0 * (totalMemory - os.getFreeMemorySize()) / totalMemory);
+        }
+        try {
+            long total = fileStore.getTotalSpace();
+            if (total > 0) {
+                store.record(now, SystemMetric.DISK, 100.0 * (total - fileStore.getUsableSpace()) / total);
+            }
+        } catch (IOException e) {
+            log.debug("Failed to read disk usage", e);
+        }
+        sampleNetwork(now);
+    }
+
+    private void sampleNetwork(Instant now) {
+        long bytes = readNetworkBytes();
+        long nanos = System.nanoTime();
+        if (bytes < 0) {
+            return;
+        }
+        if (lastNetworkBytes >= 0 && bytes >= lastNetworkBytes) {
+            double seconds = (nanos - lastNetworkNanos) / 1e9;
+            store.record(now, SystemMetric.NETWORK, (bytes - lastNetworkBytes) / 1024.0 / seconds);
+        }
+        lastNetworkBytes = bytes;
+        lastNetworkNanos = nanos;
+    }
+
+    private static long readNetworkBytes() {
+        if (!Files.isReadable(NET_DEV)) {
+            return -1;
+        }
+        try {
+            List<String> lines = Files.readAllLines(NET_DEV);
+            long total = 0;
+            // 先頭 2 行はヘッダー。"iface: rx_bytes ... (8 列) tx_bytes ..."
+            for (String line : lines.subList(Math.min(2, lines.size()), lines.size())) {
+                int colon = line.indexOf(':');
+                if (colon < 0 || line.substring(0, colon).trim().equals("lo")) {
+                    continue;
+                }
+                String[] fields = line.substring(colon + 1).trim().split("\\s+");
+                total += Long.parseLong(fields[0]) + Long.parseLong(fields[8]);
+            }
+            return total;
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * システムメトリクスの時系列ストア。メトリクスごとに 1 秒・1 分・1 時間の 3 段を持つ {@link MetricSeries}。
+ * <p>
+ * 範囲クエリは、要求範囲を遡れてかつ点数が {@code max-points} に収まる最も細かい段から答える。
+ * 数日分のグラフは 1 時間（または 1 分）の段だけで描け、秒単位の生データは走査しない。
+ * 最新値は {@code system.metrics.current} ゲージとして actuator にも出る。
+ */
+@Component
+public class SystemMetricsStore {
+
+    static final int[] RESOLUTIONS = {1, 60, 3600};
+
+    private final Map<SystemMetric, MetricSeries> series = new EnumMap<>(SystemMetric.class);
+    private final int maxPoints;
+
+    public SystemMetricsStore(MeterRegistry meterRegistry,
+                              @Value("${taskmanager.system-metrics.raw-retention:1h}") Duration rawRetention,
+                              @Value("${taskmanager.system-metrics.minute-retention:7d}") Duration minuteRetention,
+                              @Value("${taskmanager.system-metrics.hour-retention:90d}") Duration hourRetention,
+                              @Value("${taskmanager.system-metrics.max-points:1500}") int maxPoints) {
+        this.maxPoints = maxPoints;
+        int[] capacities = {
+                (int) rawRetention.toSeconds(),
+                (int) minuteRetention.toMinutes(),
+                (int) hourRetention.toHours()
+        };
+        for (SystemMetric metric : SystemMetric.values()) {
+            MetricSeries s = new MetricSeries(RESOLUTIONS, capacities);
+            series.put(metric, s);
+            Gauge.builder("system.metrics.current", s, MetricSeries::latest)
+                    .tag("metric", metric.toJson())
+                    .register(meterRegistry);
+        }
+    }
+
+    public void record(Instant timestamp, SystemMetric metric, double value) {
+        series.get(metric).record(timestamp.getEpochSecond(), value);
+    }
+
+    public double latest(SystemMetric metric) {
+        return series.get(metric).latest();
+    }
+
+    /**
+     * {@code [from, to)} を返す。{@code resolutionSeconds} が 0 なら段を自動で選ぶ。
+     */
+    public MetricRange query(SystemMetric metric, Instant from, Instant to, int resolutionSeconds) {
+        MetricSeries s = series.get(metric);
+        long fromSecond = from.getEpochSecond();
+        long toSecond = to.getEpochSecond();
+        return s.query(metric, selectTier(s, fromSecond, toSecond, resolutionSeconds), fromSecond, toSecond);
+    }
+
+    private int selectTier(MetricSeries s, long fromSecond, long toSecond, int resolutionSeconds) {
+        long now = Instant.now().getEpochSecond();
+        int last = s.tierCount() - 1;
+        for (int i = 0; i < last; i++) {
+            if (resolutionSeconds > 0) {
+                if (s.resolution(i) >= resolutionSeconds) {
+                    return i;
+                }
+                continue;
+            }
+            boolean covers = now - fromSecond <= s.retentionSeconds(i);
+            boolean fits = (toSecond - fromSecond) / s.resolution(i) <= maxPoints;
+            if (covers && fits) {
+                return i;
+            }
+        }
+        return last;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.taskmanager;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record TaskBatchCreateRequest(
+        @NotEmpty @Size(max = 1000) List<@NotBlank @Size(max = 255) String> titles) {
+}
@@ -0,0 +1,14 @@
+package com.example.taskmanager;
+
+import java.util.List;
+
+/**
+ * {@link TaskRepository} に JDBC バッチでの書き込みを追加するフラグメント。
+ */
+public interface TaskBatchOperations {
+
+    /**
+     * ID を採番して 1 回のバッチ INSERT で保存する。渡したタスクに ID と作成日時が設定される。
+     */
+    List<Task> insertAll(List<Task> tasks);
+}
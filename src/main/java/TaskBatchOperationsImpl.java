@@ -0,0 +1,102 @@
+package com.example.taskmanager;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spring Data のリポジトリフラグメントとして {@link TaskRepository} に合成される実装。
+ * <p>
+ * JPA を経由すると 1 件ごとに永続化コンテキストへの登録と INSERT が発生するため、
+ * 事前に採番した ID を使って JdbcTemplate で直接バッチ送信する。
+ * PostgreSQL では JDBC URL の {@code reWriteBatchedInserts=true} で複数行 INSERT に書き換えられる。
+ * 事前採番できないデータベース（{@link TaskIdAllocator#isSupported()} が false）では ID を省いて
+ * 同じバッチを送り、自動採番された ID を生成キーとして受け取る。
+ */
+class TaskBatchOperationsImpl implements TaskBatchOperations {
+
+    private static final String INSERT_SQL =
+            "insert into tasks (id, title, description, completed, priority, created_at, updated_at) "
+                    + "values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_GENERATED_SQL =
+            "insert into tasks (title, description, completed, priority, created_at, updated_at) "
+                    + "values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskIdAllocator taskIdAllocator;
+
+    TaskBatchOperationsImpl(JdbcTemplate jdbcTemplate, TaskIdAllocator taskIdAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskIdAllocator = taskIdAllocator;
+    }
+
+    @Override
+    public List<Task> insertAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : tasks) {
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            if (task.getPriority() == null) {
+                task.setPriority(TaskPriority.MEDIUM);
+            }
+        }
+        Timestamp timestamp = Timestamp.valueOf(now);
+        if (!taskIdAllocator.isSupported()) {
+            return insertWithGeneratedKeys(tasks, timestamp);
+        }
+        long[] ids = taskIdAllocator.allocate(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(ids[i]);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, tasks, tasks.size(), (ps, task) -> {
+            ps.setLong(1, task.getId());
+            ps.setString(2, task.getTitle());
+            ps.setString(3, task.getDescription());
+            ps.setBoolean(4, task.isCompleted());
+            ps.setString(5, task.getPriority().name());
+            ps.setTimestamp(6, timestamp);
+            ps.setTimestamp(7, timestamp);
+        });
+        return tasks;
+    }
+
+    private List<Task> insertWithGeneratedKeys(List<Task> tasks, Timestamp timestamp) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_GENERATED_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Task task = tasks.get(i);
+                        ps.setString(1, task.getTitle());
+                        ps.setString(2, task.getDescription());
+                        ps.setBoolean(3, task.isCompleted());
+                        ps.setString(4, task.getPriority().name());
+                        ps.setTimestamp(5, timestamp);
+                        ps.setTimestamp(6, timestamp);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return tasks.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < tasks.size(); i++) {
+            // 生成キーの列名の大文字小文字は DB によるが、キーリストの Map は大文字小文字を区別しない
+            tasks.get(i).setId(((Number) generated.get(i).get("id")).longValue());
+        }
+        return tasks;
+    }
+}
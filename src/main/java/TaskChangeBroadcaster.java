@@ -0,0 +1,249 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * タスクの変更を SSE の購読者に配信する。
+ * <p>
+ * 変更はコミット後に購読者ごとの保留バッファ（タスク ID → 最新の変更）へ入れるだけで、送信は
+ * {@link #flush()} が一定間隔でまとめて行う。同じタスクへの連続した変更はその間に 1 件へ畳まれる
+ * （作成してすぐ削除したものは何も送らない）。
+ * <p>
+ * 接続ごとにスレッドは持たない。待機中の購読者は非同期リクエストとして保持されるだけで、送るものが
+ * ある購読者だけ仮想スレッドで書き出す（購読者ごとに同時に 1 つまで）。
+ * バッファが {@code buffer-size} 件を超えたら中身を捨てて {@code resync} イベントを送り、クライアントに
+ * 一覧の取り直しを求める。書き出しが {@code send-timeout-ms} を超えて終わらない購読者は切断する。
+ * 切断の {@code complete()} は書き出し中のスレッドと同じロックを待つので、{@link #flush()} のスレッドではなく
+ * 送信用の仮想スレッドで行う。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.task-stream.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskChangeBroadcaster implements TaskMutationListener {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final int bufferSize;
+    private final long sendTimeoutMillis;
+    private final long emitterTimeoutMillis;
+    private final Counter resyncs;
+    private final Counter dropped;
+
+    public TaskChangeBroadcaster(@Value("${taskmanager.task-stream.buffer-size:256}") int bufferSize,
+                                 @Value("${taskmanager.task-stream.send-timeout-ms:10000}") long sendTimeoutMillis,
+                                 @Value("${taskmanager.task-stream.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                                 MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        Gauge.builder("task.stream.subscribers", subscribers, Set::size).register(meterRegistry);
+        this.resyncs = Counter.builder("task.stream.resyncs").register(meterRegistry);
+        this.dropped = Counter.builder("task.stream.dropped").register(meterRegistry);
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(emitterTimeoutMillis));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void onCreated(Task task) {
+        offer(TaskEventType.CREATED, task);
+    }
+
+    @Override
+    public void onToggled(Task task) {
+        offer(TaskEventType.TOGGLED, task);
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        offer(TaskEventType.DELETED, task);
+    }
+
+    private void offer(TaskEventType type, Task task) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        TaskChange change = new TaskChange(type, new Task(task));
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(change);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${taskmanager.task-stream.flush-interval-ms:100}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                dropped.increment();
+                subscriber.drop();
+            } else if (subscriber.hasPending()) {
+                subscriber.scheduleSend();
+            }
+        }
+    }
+
+    /**
+     * 無通信の接続がプロキシに切られないよう、また切れた接続を見つけるためにコメント行を送る。
+     */
+    @Scheduled(fixedDelayString = "${taskmanager.task-stream.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.requestHeartbeat();
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    /**
+     * 同じタスクへの 2 つの変更を 1 つに畳む。null は「何も送らない」。
+     */
+    static TaskChange coalesce(TaskChange previous, TaskChange next) {
+        if (previous.type() == TaskEventType.CREATED) {
+            return next.type() == TaskEventType.DELETED ? null : new TaskChange(TaskEventType.CREATED, next.task());
+        }
+        return next;
+    }
+
+    public record TaskChange(TaskEventType type, Task task) {
+    }
+
+    private final class Subscriber {
+
+        final SseEmitter emitter;
+        // 挿入順を保つので、送信順は各タスクの最初の変更順になる
+        private final Map<Long, TaskChange> pending = new LinkedHashMap<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private boolean overflowed;
+        private boolean heartbeat;
+        private volatile long sendStartedAt;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(TaskChange change) {
+            if (overflowed) {
+                return;
+            }
+            Long id = change.task().getId();
+            TaskChange previous = pending.get(id);
+            if (previous == null) {
+                if (pending.size() >= bufferSize) {
+                    // 追いつけていない。個別の変更は捨てて、取り直しを求める
+                    pending.clear();
+                    overflowed = true;
+                    resyncs.increment();
+                    return;
+                }
+                pending.put(id, change);
+                return;
+            }
+            TaskChange merged = coalesce(previous, change);
+            if (merged == null) {
+                pending.remove(id);
+            } else {
+                pending.put(id, merged);
+            }
+        }
+
+        synchronized boolean hasPending() {
+            return overflowed || heartbeat || !pending.isEmpty();
+        }
+
+        synchronized void requestHeartbeat() {
+            heartbeat = true;
+        }
+
+        boolean isStalled(long now) {
+            long started = sendStartedAt;
+            return sending.get() && started > 0 && now - started > sendTimeoutMillis;
+        }
+
+        void scheduleSend() {
+            if (sending.compareAndSet(false, true)) {
+                sendStartedAt = System.currentTimeMillis();
+                senders.execute(this::send);
+            }
+        }
+
+        private void send() {
+            List<TaskChange> changes;
+            boolean resync;
+            boolean ping;
+            synchronized (this) {
+                changes = new ArrayList<>(pending.values());
+                pending.clear();
+                resync = overflowed;
+                overflowed = false;
+                ping = heartbeat;
+                heartbeat = false;
+            }
+            try {
+                if (resync) {
+                    emitter.send(SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON));
+                } else {
+                    for (TaskChange change : changes) {
+                        emitter.send(SseEmitter.event().name("task").data(change, MediaType.APPLICATION_JSON));
+                    }
+                }
+                if (ping && changes.isEmpty() && !resync) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 切断済み。onError / onCompletion で購読者から外れる
+                subscribers.remove(this);
+            } finally {
+                sendStartedAt = 0;
+                sending.set(false);
+            }
+        }
+
+        /**
+         * 以後の配信対象から外し、接続を閉じる。書き出しが詰まっている間は {@code complete()} も
+         * エミッターのロックで待たされるので、スケジューラーのスレッドを塞がないよう送信用スレッドで閉じる。
+         */
+        void drop() {
+            if (subscribers.remove(this)) {
+                senders.execute(emitter::complete);
+            }
+        }
+    }
+}
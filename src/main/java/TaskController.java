@@ -0,0 +1,221 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tasks")
+public class TaskController {
+
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final TaskService taskService;
+    private final ObjectMapper objectMapper;
+    // taskmanager.etags.enabled=false のときは null で、条件付きリクエストを扱わない
+    private final ResourceVersions versions;
+    // taskmanager.response-cache.enabled=false のときは null。ETag が無効でも使わない（キーにタグが要る）
+    private final ResponseBytesCache responseCache;
+    // 1 件ごとにフラッシュするとチャンクが細切れになるので、フラッシュはバッファ任せにする
+    private final ObjectWriter taskWriter;
+    private final ObjectWriter summaryWriter;
+
+    public TaskController(TaskService taskService,
+                          ObjectMapper objectMapper,
+                          @Nullable ResourceVersions versions,
+                          @Nullable ResponseBytesCache responseCache) {
+        this.taskService = taskService;
+        this.objectMapper = objectMapper;
+        this.versions = versions;
+        this.responseCache = versions != null ? responseCache : null;
+        this.taskWriter = objectMapper.writerFor(Task.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.summaryWriter = objectMapper.writerFor(TaskSummary.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * 全タスクをレスポンスへ直接書き出す。リストを組み立てないので件数によらずヒープ使用量は一定。
+     * {@code Accept: application/x-ndjson} なら 1 行 1 タスクの NDJSON、それ以外は JSON 配列で返す。
+     * <p>
+     * 絞り込み・並び順・件数のいずれかを指定すると、{@link TaskSummary}（説明文なし）の一覧を返す。
+     * {@code sort} は {@code id} か {@code createdAt} に {@code ,asc} / {@code ,desc} を付けたもの。
+     * <p>
+     * {@code If-None-Match} がタスクの変更バージョンと一致すれば、DB にもシリアライズにも触れずに 304 を返す。
+     * 変更のない一覧は {@link ResponseBytesCache} からそのまま（gzip を受け付けるなら圧縮済みで）返す。
+     */
+    @GetMapping
+    public void getAllTasks(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                            @RequestParam(required = false) TaskPriority priority,
+                            @RequestParam(required = false) Boolean completed,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+                            @RequestParam(required = false) String sort,
+                            @RequestParam(required = false) Integer limit,
+                            WebRequest request,
+                            HttpServletResponse response) throws IOException {
+        boolean filtered = priority != null || completed != null || createdFrom != null || createdTo != null
+                || sort != null || limit != null;
+        // 不正な条件は、現在のタグが送られてきても 304 ではなく 400 にする（ヘッダーを書く前に検証する）
+        TaskQuery query = filtered ? TaskQuery.of(priority, completed, createdFrom, createdTo, sort, limit) : null;
+        boolean ndjson = accept != null && accept.contains(APPLICATION_NDJSON_VALUE);
+        boolean gzip = responseCache != null && responseCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        // 表現ごとにタグを分ける
+        String tag = versions != null ? versions.tasksTag() + (ndjson ? ".nd" : "") + (gzip ? ".gz" : "") : null;
+        if (tag != null && request.checkNotModified(tag)) {
+            return;
+        }
+        // タグを付けて返す（キャッシュする）ので、変更がレプリカに届くまではプライマリから読む
+        try (ReplicaRoutingDataSource.PrimaryScope ignored =
+                     ReplicaRoutingDataSource.pinToPrimary(tag != null && versions.tasksSettling())) {
+            String contentType = ndjson ? APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE;
+            ResponseBytesCache.Recording recording = null;
+            if (responseCache != null) {
+                String key = contentType + "?" + query;
+                if (responseCache.send(ResponseBytesCache.TASKS, key, tag, gzip, response)) {
+                    return;
+                }
+                recording = responseCache.record(ResponseBytesCache.TASKS, key, tag, contentType, gzip, response);
+            } else {
+                response.setContentType(contentType);
+            }
+            List<TaskSummary> summaries = query != null ? taskService.findTasks(query) : null;
+            OutputStream out = recording != null ? recording : response.getOutputStream();
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                if (ndjson) {
+                    generator.setRootValueSeparator(null);
+                    if (summaries != null) {
+                        summaries.forEach(summary -> writeLine(generator, summaryWriter, summary));
+                    } else {
+                        taskService.forEachTask(task -> writeLine(generator, taskWriter, task));
+                    }
+                } else {
+                    generator.writeStartArray();
+                    if (summaries != null) {
+                        summaries.forEach(summary -> write(generator, summaryWriter, summary));
+                    } else {
+                        taskService.forEachTask(task -> write(generator, taskWriter, task));
+                    }
+                    generator.writeEndArray();
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (recording != null) {
+                recording.commit();
+            }
+        }
+    }
+
+    /**
+     * 一覧はストリームで書き出すので直接レスポンスに書くが、1 件の取得は {@link UserController} と同じく
+     * {@link ResponseEntity} を返し、304 もその中で返す。
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Task> getTask(@PathVariable Long id, WebRequest request) {
+        if (versions != null && request.checkNotModified(versions.taskTag(id))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        try (ReplicaRoutingDataSource.PrimaryScope ignored =
+                     ReplicaRoutingDataSource.pinToPrimary(versions != null && versions.tasksSettling())) {
+            return ResponseEntity.ok(taskService.getTask(id));
+        }
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Task createTask(@Valid @RequestBody TaskCreateRequest request) {
+        if (request.userId() != null) {
+            return taskService.createTask(request.title(), request.userId());
+        }
+        return taskService.createTask(request.title());
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<Task> createTasks(@Valid @RequestBody TaskBatchCreateRequest request) {
+        return taskService.createTasks(request.titles());
+    }
+
+    @PutMapping("/{id}/toggle")
+    public Task toggleTask(@PathVariable Long id) {
+        return taskService.toggleTaskCompletion(id);
+    }
+
+    /**
+     * 複数タスクの完了状態を 1 文で反転する。存在しない ID は無視し、反転後のタスクを返す。
+     */
+    @PutMapping("/toggle")
+    public List<Task> toggleTasks(@Valid @RequestBody TaskIdsRequest request) {
+        return taskService.toggleTasksCompletion(request.ids());
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteTask(@PathVariable Long id) {
+        taskService.deleteTask(id);
+    }
+
+    /**
+     * 複数タスクを 1 文で削除する。存在しない ID は無視する。
+     */
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteTasks(@Valid @RequestBody TaskIdsRequest request) {
+        taskService.deleteTasks(request.ids());
+    }
+
+    @GetMapping("/count/completed")
+    public long getCompletedTaskCount() {
+        return taskService.getCompletedTaskCount();
+    }
+
+    @GetMapping("/counts")
+    public TaskCounts getTaskCounts() {
+        return taskService.getTaskCounts();
+    }
+
+    private static void write(JsonGenerator generator, ObjectWriter writer, Object value) {
+        try {
+            writer.writeValue(generator, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeLine(JsonGenerator generator, ObjectWriter writer, Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
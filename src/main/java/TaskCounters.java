@@ -0,0 +1,158 @@
+package com.example.taskmanager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 優先度 × 完了状態ごとのタスク件数をメモリ上で増分管理する。
+ * <p>
+ * 各セルは {@link LongAdder}（ストライプ化されたカウンタ）なので、更新が集中しても競合しない。
+ * 件数の問い合わせはセルの合計だけで済み、テーブルの大きさに依存しない。
+ * 取りこぼしやロールバックによるずれは {@link #reconcile()} が定期的に補正する。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.task-counters.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskCounters implements TaskMutationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskCounters.class);
+
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private final TaskRepository taskRepository;
+    private final InMemoryTaskStore taskStore;
+    // index = priority.ordinal() * 2 + (completed ? 1 : 0)
+    private final LongAdder[] cells = new LongAdder[PRIORITIES.length * 2];
+    private volatile boolean initialized;
+
+    public TaskCounters(TaskRepository taskRepository, @Nullable InMemoryTaskStore taskStore) {
+        this.taskRepository = taskRepository;
+        this.taskStore = taskStore;
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 初回の照合が終わるまでは件数が不正確なので、呼び出し側は DB にフォールバックする。
+     */
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public long completed() {
+        long sum = 0;
+        for (TaskPriority priority : PRIORITIES) {
+            sum += cell(priority, true).sum();
+        }
+        return sum;
+    }
+
+    public long open() {
+        long sum = 0;
+        for (TaskPriority priority : PRIORITIES) {
+            sum += cell(priority, false).sum();
+        }
+        return sum;
+    }
+
+    public long count(TaskPriority priority) {
+        return cell(priority, true).sum() + cell(priority, false).sum();
+    }
+
+    public TaskCounts snapshot() {
+        Map<TaskPriority, Long> byPriority = new EnumMap<>(TaskPriority.class);
+        long completed = 0;
+        long open = 0;
+        for (TaskPriority priority : PRIORITIES) {
+            long done = cell(priority, true).sum();
+            long notDone = cell(priority, false).sum();
+            byPriority.put(priority, done + notDone);
+            completed += done;
+            open += notDone;
+        }
+        return new TaskCounts(completed + open, completed, open, byPriority);
+    }
+
+    @Override
+    public void onCreated(Task task) {
+        cell(task.getPriority(), task.isCompleted()).increment();
+    }
+
+    @Override
+    public void onToggled(Task task) {
+        cell(task.getPriority(), !task.isCompleted()).decrement();
+        cell(task.getPriority(), task.isCompleted()).increment();
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        cell(task.getPriority(), task.isCompleted()).decrement();
+    }
+
+    /**
+     * 正となるデータ（インメモリストアがあればそれ、なければ DB）と件数を突き合わせる。
+     * <p>
+     * 集計中に入った更新は集計結果に含まれているかどうか区別できないため、その差分だけは上乗せする。
+     * 多少の誤差は次回の照合で収束する。
+     */
+    @Scheduled(initialDelay = 0,
+            fixedDelayString = "${taskmanager.task-counters.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        long[] before = sums();
+        long[] actual;
+        try {
+            actual = taskStore != null ? countFromStore() : countFromRepository();
+        } catch (RuntimeException e) {
+            log.warn("Failed to reconcile task counters", e);
+            return;
+        }
+        long[] after = sums();
+        for (int i = 0; i < cells.length; i++) {
+            long target = actual[i] + (after[i] - before[i]);
+            cells[i].add(target - cells[i].sum());
+        }
+        initialized = true;
+    }
+
+    private long[] countFromStore() {
+        long[] counts = new long[cells.length];
+        for (Task task : taskStore.findAll()) {
+            counts[index(task.getPriority(), task.isCompleted())]++;
+        }
+        return counts;
+    }
+
+    private long[] countFromRepository() {
+        long[] counts = new long[cells.length];
+        for (TaskRepository.TaskCountRow row : taskRepository.countGroupedByPriorityAndCompleted()) {
+            counts[index(row.getPriority(), Boolean.TRUE.equals(row.getCompleted()))] += row.getTotal();
+        }
+        return counts;
+    }
+
+    private long[] sums() {
+        long[] sums = new long[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            sums[i] = cells[i].sum();
+        }
+        return sums;
+    }
+
+    private LongAdder cell(TaskPriority priority, boolean completed) {
+        return cells[index(priority, completed)];
+    }
+
+    private static int index(TaskPriority priority, boolean completed) {
+        // priority が NULL の行はスキーマの既定値 MEDIUM として数える
+        TaskPriority p = priority != null ? priority : TaskPriority.MEDIUM;
+        return p.ordinal() * 2 + (completed ? 1 : 0);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.taskmanager;
+
+import java.util.Map;
+
+public record TaskCounts(long total, long completed, long open, Map<TaskPriority, Long> byPriority) {
+}
@@ -0,0 +1,14 @@
+package com.example.taskmanager;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * @param userId 指定するとそのユーザーに割り当てる（省略可）
+ */
+public record TaskCreateRequest(@NotBlank @Size(max = 255) String title, Long userId) {
+
+    public TaskCreateRequest(String title) {
+        this(title, null);
+    }
+}
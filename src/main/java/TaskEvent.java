@@ -0,0 +1,15 @@
+package com.example.taskmanager;
+
+/**
+ * ジャーナルに記録されたタスクの変更。{@code offset} はジャーナル上の位置で、
+ * 続きを読むときは {@link TaskEventPage#nextOffset()} を使う。
+ * タスクの各値は変更後（削除なら削除直前）の状態。
+ */
+public record TaskEvent(long offset,
+                        TaskEventType type,
+                        long timestamp,
+                        long taskId,
+                        String title,
+                        boolean completed,
+                        TaskPriority priority) {
+}
@@ -0,0 +1,39 @@
+package com.example.taskmanager;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * タスク変更ジャーナルの読み出し。前回の {@code nextOffset} を渡して読み進める。
+ * {@code waitMs} を付けると、新しいイベントが無いときにその時間だけ待ってから返す（ロングポーリング）。
+ */
+@RestController
+@ConditionalOnProperty(name = "taskmanager.task-journal.enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("/api/task-events")
+@Validated
+public class TaskEventController {
+
+    private final TaskEventJournal journal;
+
+    public TaskEventController(TaskEventJournal journal) {
+        this.journal = journal;
+    }
+
+    @GetMapping
+    public TaskEventPage getEvents(@RequestParam(defaultValue = "0") @Min(0) long offset,
+                                   @RequestParam(defaultValue = "500") @Min(1) @Max(10000) int limit,
+                                   @RequestParam(defaultValue = "0") @Min(0) @Max(30000) long waitMs)
+            throws InterruptedException {
+        TaskEventPage page = journal.read(offset, limit);
+        if (page.events().isEmpty() && waitMs > 0 && journal.awaitAfter(page.nextOffset(), waitMs)) {
+            page = journal.read(page.nextOffset(), limit);
+        }
+        return page;
+    }
+}
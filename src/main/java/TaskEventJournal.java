@@ -0,0 +1,403 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * タスクの変更イベント（TaskCreated / TaskToggled / TaskDeleted）を追記専用で記録するジャーナル。
+ * <p>
+ * コミット後にリスナーとして受け取ったイベントは有限のキューに積むだけで、ファイルへの書き込みは
+ * 専用スレッドがまとめて行う。ファイルは固定長のセグメント（{@code <開始オフセット>.journal}）で、
+ * メモリマップして書き込む。レコードは {@code [長さ][CRC32][本文]}。セグメントの残りに収まらない
+ * レコードはスキップ印を置いて次のセグメントへ書く。
+ * <p>
+ * オフセットはジャーナル全体での位置（セグメントの開始オフセット + セグメント内の位置）で、
+ * 読み手は任意のオフセットから自分のペースで読み進め、何度でも読み直せる。書き込み済みとして
+ * 公開されるのはバッチ単位なので、読み手が書きかけのレコードを見ることはない。
+ * キューが満杯のときはコミット後の呼び出し元を待たせる（イベントは落とさない）。
+ * 書き込みに失敗したら、書けたところまでを公開し、残りは捨てずに間隔を空けて書き直す。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.task-journal.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskEventJournal implements TaskMutationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskEventJournal.class);
+
+    static final int HEADER_SIZE = 8;
+    private static final int SKIP = -1;
+    private static final String SUFFIX = ".journal";
+    // タイトルは VARCHAR(255) なので、UTF-8 で 255 × 3 バイトを超えない
+    private static final int MAX_RECORD_SIZE = HEADER_SIZE + 1 + 8 + 8 + 1 + 1 + 255 * 3;
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 5000;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int batchSize;
+    private final boolean fsync;
+    private final BlockingQueue<PendingEvent> queue;
+    private final ConcurrentSkipListMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+    private final Object appended = new Object();
+    // 読み手に公開済みの末尾。これより前のレコードは書き終わっている
+    private volatile long writeOffset;
+    private volatile boolean running;
+    private Thread writer;
+
+    // 以下は書き込みスレッドだけが触る
+    private long activeBase;
+    private MappedByteBuffer active;
+    private int activePosition;
+
+    public TaskEventJournal(@Value("${taskmanager.task-journal.directory:data/task-journal}") String directory,
+                            @Value("${taskmanager.task-journal.segment-size:67108864}") int segmentSize,
+                            @Value("${taskmanager.task-journal.max-segments:64}") int maxSegments,
+                            @Value("${taskmanager.task-journal.queue-capacity:65536}") int queueCapacity,
+                            @Value("${taskmanager.task-journal.batch-size:1024}") int batchSize,
+                            @Value("${taskmanager.task-journal.fsync:false}") boolean fsync,
+                            MeterRegistry meterRegistry) {
+        if (segmentSize < MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("taskmanager.task-journal.segment-size must be at least "
+                    + MAX_RECORD_SIZE + " bytes");
+        }
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.batchSize = batchSize;
+        this.fsync = fsync;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("task.journal.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("task.journal.offset", this, TaskEventJournal::endOffset).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Long> bases;
+        try (Stream<Path> files = Files.list(directory)) {
+            bases = files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+        if (bases.isEmpty()) {
+            activeBase = 0;
+            active = map(activeBase, true);
+            activePosition = 0;
+        } else {
+            for (int i = 0; i < bases.size() - 1; i++) {
+                segments.put(bases.get(i), map(bases.get(i), false));
+            }
+            activeBase = bases.get(bases.size() - 1);
+            active = map(activeBase, true);
+            activePosition = recover(active);
+        }
+        segments.put(activeBase, active);
+        writeOffset = activeBase + activePosition;
+        running = true;
+        writer = new Thread(this::writeLoop, "task-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Task journal opened at offset {} ({} segments)", writeOffset, segments.size());
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (active != null) {
+            active.force();
+        }
+    }
+
+    @Override
+    public void onCreated(Task task) {
+        enqueue(TaskEventType.CREATED, task);
+    }
+
+    @Override
+    public void onToggled(Task task) {
+        enqueue(TaskEventType.TOGGLED, task);
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        enqueue(TaskEventType.DELETED, task);
+    }
+
+    private void enqueue(TaskEventType type, Task task) {
+        PendingEvent event = new PendingEvent(type, System.currentTimeMillis(), task.getId(),
+                task.getTitle(), task.isCompleted(), task.getPriority());
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while journaling {} for task {}", type, task.getId());
+        }
+    }
+
+    /**
+     * 公開済みの末尾オフセット。次に書かれるイベントの位置でもある。
+     */
+    public long endOffset() {
+        return writeOffset;
+    }
+
+    /**
+     * 保持している最も古いオフセット。古いセグメントは {@code max-segments} を超えると消える。
+     */
+    public long startOffset() {
+        return segments.firstKey();
+    }
+
+    /**
+     * {@code offset} から最大 {@code limit} 件読む。保持範囲より前のオフセットは最古の位置から読む。
+     *
+     * @throws InvalidJournalOffsetException レコードの境界でない、または末尾より先のオフセット
+     */
+    public TaskEventPage read(long offset, int limit) {
+        long end = writeOffset;
+        if (offset > end) {
+            throw new InvalidJournalOffsetException(offset);
+        }
+        long position = Math.max(offset, segments.firstKey());
+        List<TaskEvent> events = new ArrayList<>(Math.min(limit, 256));
+        while (events.size() < limit && position < end) {
+            Map.Entry<Long, MappedByteBuffer> segment = segments.floorEntry(position);
+            if (segment == null) {
+                // 読んでいる間に古いセグメントが消えた
+                position = segments.firstKey();
+                continue;
+            }
+            long base = segment.getKey();
+            MappedByteBuffer buffer = segment.getValue();
+            int local = (int) (position - base);
+            int length = local + HEADER_SIZE <= segmentSize ? buffer.getInt(local) : SKIP;
+            if (length == SKIP) {
+                position = base + segmentSize;
+                continue;
+            }
+            if (length <= 0 || local + HEADER_SIZE + length > segmentSize) {
+                throw new InvalidJournalOffsetException(position);
+            }
+            byte[] body = new byte[length];
+            buffer.get(local + HEADER_SIZE, body);
+            if (crc(body) != buffer.getInt(local + 4)) {
+                throw new InvalidJournalOffsetException(position);
+            }
+            events.add(decode(position, body));
+            position += HEADER_SIZE + length;
+        }
+        return new TaskEventPage(events, position);
+    }
+
+    /**
+     * {@code offset} より先にイベントが書かれるまで最大 {@code timeoutMillis} 待つ。書かれていれば true。
+     */
+    public boolean awaitAfter(long offset, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (appended) {
+            while (writeOffset <= offset) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                appended.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    private void writeLoop() {
+        // 書けなかったイベントは次の周回に持ち越すので、キューより先に書く
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        long backoff = 0;
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (backoff > 0) {
+                    Thread.sleep(backoff);
+                }
+                if (batch.isEmpty()) {
+                    PendingEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                int written = 0;
+                try {
+                    for (PendingEvent event : batch) {
+                        append(event);
+                        written++;
+                    }
+                    if (fsync) {
+                        active.force();
+                    }
+                } finally {
+                    batch.subList(0, written).clear();
+                    writeOffset = activeBase + activePosition;
+                    synchronized (appended) {
+                        appended.notifyAll();
+                    }
+                }
+                backoff = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty() || !queue.isEmpty()) {
+                    log.error("Task journal writer interrupted with {} events unwritten", batch.size() + queue.size());
+                }
+                return;
+            } catch (RuntimeException e) {
+                backoff = Math.min(MAX_RETRY_BACKOFF_MILLIS, Math.max(100, backoff * 2));
+                log.error("Failed to write task events to the journal; retrying {} events in {} ms",
+                        batch.size(), backoff, e);
+            }
+        }
+    }
+
+    private void append(PendingEvent event) {
+        byte[] body = encode(event);
+        int recordSize = HEADER_SIZE + body.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalStateException("Task event larger than a journal segment: " + recordSize + " bytes");
+        }
+        if (activePosition + recordSize > segmentSize) {
+            if (activePosition + 4 <= segmentSize) {
+                active.putInt(activePosition, SKIP);
+            }
+            roll();
+        }
+        active.put(activePosition + HEADER_SIZE, body);
+        active.putInt(activePosition + 4, crc(body));
+        // 長さは最後に書く。途中で落ちても長さ 0 のままなので復旧時にそこで止まる
+        active.putInt(activePosition, body.length);
+        activePosition += recordSize;
+    }
+
+    private void roll() {
+        active.force();
+        // 新しいセグメントを作れてから切り替える（失敗しても書き直しで同じ位置から続けられる）
+        long nextBase = activeBase + segmentSize;
+        MappedByteBuffer next = map(nextBase, true);
+        activeBase = nextBase;
+        active = next;
+        activePosition = 0;
+        segments.put(activeBase, active);
+        while (segments.size() > maxSegments) {
+            Map.Entry<Long, MappedByteBuffer> oldest = segments.pollFirstEntry();
+            try {
+                Files.deleteIfExists(segmentPath(oldest.getKey()));
+            } catch (IOException e) {
+                log.warn("Failed to delete journal segment {}", oldest.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * 最後のセグメントを先頭から辿り、壊れていない最後のレコードの直後の位置を返す。
+     */
+    private int recover(MappedByteBuffer buffer) {
+        int position = 0;
+        while (position + HEADER_SIZE <= segmentSize) {
+            int length = buffer.getInt(position);
+            if (length == SKIP) {
+                return position;
+            }
+            if (length <= 0 || position + HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            byte[] body = new byte[length];
+            buffer.get(position + HEADER_SIZE, body);
+            if (crc(body) != buffer.getInt(position + 4)) {
+                break;
+            }
+            position += HEADER_SIZE + length;
+        }
+        // 書きかけのレコードが残っていれば消しておく
+        for (int i = position; i < Math.min(segmentSize, position + HEADER_SIZE); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        return position;
+    }
+
+    private MappedByteBuffer map(long base, boolean writable) {
+        Path path = segmentPath(base);
+        try (FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SUFFIX));
+    }
+
+    private static byte[] encode(PendingEvent event) {
+        byte[] title = event.title != null ? event.title.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        byte[] body = new byte[1 + 8 + 8 + 1 + 1 + title.length];
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        buffer.put(event.type.code())
+                .putLong(event.timestamp)
+                .putLong(event.taskId)
+                .put((byte) (event.completed ? 1 : 0))
+                .put(event.priority != null ? (byte) event.priority.ordinal() : (byte) -1)
+                .put(title);
+        return body;
+    }
+
+    private static TaskEvent decode(long offset, byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        TaskEventType type = TaskEventType.fromCode(buffer.get());
+        long timestamp = buffer.getLong();
+        long taskId = buffer.getLong();
+        boolean completed = buffer.get() != 0;
+        byte priority = buffer.get();
+        String title = new String(body, buffer.position(), buffer.remaining(), StandardCharsets.UTF_8);
+        return new TaskEvent(offset, type, timestamp, taskId, title, completed,
+                priority >= 0 ? TaskPriority.values()[priority] : null);
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private record PendingEvent(TaskEventType type, long timestamp, long taskId, String title,
+                                boolean completed, TaskPriority priority) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.taskmanager;
+
+import java.util.List;
+
+public record TaskEventPage(List<TaskEvent> events, long nextOffset) {
+}
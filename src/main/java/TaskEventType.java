@@ -0,0 +1,30 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum TaskEventType {
+    CREATED("TaskCreated"),
+    TOGGLED("TaskToggled"),
+    DELETED("TaskDeleted");
+
+    private static final TaskEventType[] VALUES = values();
+
+    private final String eventName;
+
+    TaskEventType(String eventName) {
+        this.eventName = eventName;
+    }
+
+    @JsonValue
+    public String eventName() {
+        return eventName;
+    }
+
+    static TaskEventType fromCode(byte code) {
+        return VALUES[code];
+    }
+
+    byte code() {
+        return (byte) ordinal();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.taskmanager;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * tasks の ID シーケンス（PostgreSQL の IDENTITY 既定では {@code tasks_id_seq}）から ID をまとめて取得し、
+ * プールから払い出す。
+ * <p>
+ * 1 回の問い合わせで {@code poolSize} 件（要求がそれより多ければ要求数）を確保するので、
+ * バッチ作成で 1 件ごとに nextval を呼ぶ必要がなくなる。
+ * プールに残った ID は再起動時に欠番になるが、ID の連続性は保証していない。
+ * <p>
+ * シーケンスを名前で引けるのは PostgreSQL だけなので、それ以外（テストの H2 など）では {@link #isSupported()} が
+ * false を返し、呼び出し側は INSERT 時の自動採番で生成キーを受け取る。
+ */
+@Component
+public class TaskIdAllocator {
+
+    // シーケンス名は決め打ちせず、IDENTITY / serial の実体を引く
+    private static final String NEXT_IDS_SQL =
+            "select nextval(pg_get_serial_sequence('tasks', 'id')) from generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int poolSize;
+    private long[] pool = new long[0];
+    private int position;
+    private volatile Boolean supported;
+
+    public TaskIdAllocator(JdbcTemplate jdbcTemplate,
+                           @Value("${taskmanager.task-ids.pool-size:100}") int poolSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * 事前採番できるデータベースか。false のとき {@link #allocate} は使えない。
+     */
+    public boolean isSupported() {
+        Boolean result = supported;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            supported = result;
+        }
+        return result;
+    }
+
+    public synchronized long[] allocate(int count) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("ID pre-allocation requires PostgreSQL");
+        }
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            if (position == pool.length) {
+                refill(Math.max(poolSize, count - filled));
+            }
+            int n = Math.min(count - filled, pool.length - position);
+            System.arraycopy(pool, position, ids, filled, n);
+            position += n;
+            filled += n;
+        }
+        return ids;
+    }
+
+    private void refill(int size) {
+        pool = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, size).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        position = 0;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.taskmanager;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record TaskIdsRequest(@NotEmpty @Size(max = 1000) List<@NotNull Long> ids) {
+}
@@ -0,0 +1,30 @@
+package com.example.taskmanager;
+
+/**
+ * {@link TaskService} の更新をコミット後に受け取るリスナー。
+ * <p>
+ * 渡される {@link Task} は呼び出し元と共有されているので、保持する場合はコピーすること。
+ */
+public interface TaskMutationListener {
+
+    default void onCreated(Task task) {
+    }
+
+    /**
+     * @param task 切り替え後の状態
+     */
+    default void onToggled(Task task) {
+    }
+
+    /**
+     * @param task 削除直前の状態
+     */
+    default void onDeleted(Task task) {
+    }
+
+    /**
+     * タスクがユーザーに割り当てられた。作成と同時に割り当てた場合は {@link #onCreated} の後に呼ばれる。
+     */
+    default void onAssigned(Task task, long userId) {
+    }
+}
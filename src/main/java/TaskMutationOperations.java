@@ -0,0 +1,20 @@
+package com.example.taskmanager;
+
+import java.util.List;
+
+/**
+ * {@link TaskRepository} に 1 文で完結する更新を追加するフラグメント。
+ */
+public interface TaskMutationOperations {
+
+    /**
+     * 指定したタスクの完了状態を 1 つの UPDATE 文で反転し、反転後の状態を返す。
+     * 行ロックの下で現在値から反転するので、同時に切り替えても更新は失われない。存在しない ID は結果に含まれない。
+     */
+    List<Task> toggleCompletion(long... ids);
+
+    /**
+     * 指定したタスクを 1 つの DELETE 文で削除し、削除直前の状態を返す。存在しない ID は結果に含まれない。
+     */
+    List<Task> deleteReturning(long... ids);
+}
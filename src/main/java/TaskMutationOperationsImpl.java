@@ -0,0 +1,108 @@
+package com.example.taskmanager;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 切り替えと削除を、読み込み → 書き込みの往復ではなく結果を返す 1 文で行う。
+ * <p>
+ * PostgreSQL では {@code UPDATE/DELETE ... RETURNING}、テストで使う H2 では同じ意味の
+ * {@code FINAL TABLE / OLD TABLE} を使う。ID の集合は配列パラメータ 1 つで渡すので、件数が変わっても文は同じ。
+ * <p>
+ * JPA を経由しないので、{@code @Modifying(flushAutomatically = true, clearAutomatically = true)} と同じく
+ * 実行前に永続化コンテキストをフラッシュし、実行後にクリアして古いエンティティが残らないようにする。
+ */
+class TaskMutationOperationsImpl implements TaskMutationOperations {
+
+    private static final String COLUMNS = "id, title, description, completed, priority, created_at, updated_at";
+
+    private static final String TOGGLE_RETURNING =
+            "update tasks set completed = not completed, updated_at = ? where id = any(?) returning " + COLUMNS;
+    private static final String TOGGLE_FINAL_TABLE = "select " + COLUMNS + " from final table "
+            + "(update tasks set completed = not completed, updated_at = ? where id = any(?))";
+    private static final String DELETE_RETURNING = "delete from tasks where id = any(?) returning " + COLUMNS;
+    private static final String DELETE_OLD_TABLE = "select " + COLUMNS + " from old table "
+            + "(delete from tasks where id = any(?))";
+
+    private static final RowMapper<Task> TASK_ROW_MAPPER = (rs, rowNum) -> {
+        Task task = new Task(rs.getLong("id"), rs.getString("title"), rs.getBoolean("completed"));
+        task.setDescription(rs.getString("description"));
+        String priority = rs.getString("priority");
+        if (priority != null) {
+            task.setPriority(TaskPriority.valueOf(priority));
+        }
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        task.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        task.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+        return task;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private volatile Boolean returning;
+
+    TaskMutationOperationsImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Task> toggleCompletion(long... ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return execute(supportsReturning() ? TOGGLE_RETURNING : TOGGLE_FINAL_TABLE, ids, now);
+    }
+
+    @Override
+    public List<Task> deleteReturning(long... ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        return execute(supportsReturning() ? DELETE_RETURNING : DELETE_OLD_TABLE, ids, null);
+    }
+
+    private List<Task> execute(String sql, long[] ids, Timestamp updatedAt) {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        if (inTransaction) {
+            entityManager.flush();
+        }
+        Long[] boxed = new Long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            boxed[i] = ids[i];
+        }
+        List<Task> result = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            int index = 1;
+            if (updatedAt != null) {
+                ps.setTimestamp(index++, updatedAt);
+            }
+            ps.setArray(index, connection.createArrayOf("bigint", boxed));
+            return ps;
+        }, TASK_ROW_MAPPER);
+        if (inTransaction) {
+            entityManager.clear();
+        }
+        return result;
+    }
+
+    private boolean supportsReturning() {
+        Boolean supported = returning;
+        if (supported == null) {
+            supported = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            returning = supported;
+        }
+        return supported;
+    }
+}
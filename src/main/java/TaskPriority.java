@@ -0,0 +1,10 @@
+package com.example.taskmanager;
+
+/**
+ * tasks.priority カラムに対応する優先度。
+ */
+public enum TaskPriority {
+    LOW,
+    MEDIUM,
+    HIGH
+}
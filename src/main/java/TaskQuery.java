@@ -0,0 +1,76 @@
+package com.example.taskmanager;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * タスク一覧の絞り込み条件。null の条件は絞り込まない。作成日時は {@code createdFrom} 以上 {@code createdTo} 未満。
+ */
+public record TaskQuery(TaskPriority priority,
+                        Boolean completed,
+                        LocalDateTime createdFrom,
+                        LocalDateTime createdTo,
+                        TaskSort sort,
+                        boolean descending,
+                        int limit) {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    public TaskQuery {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidTaskQueryException("limit must be between 1 and " + MAX_LIMIT + ": " + limit);
+        }
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new InvalidTaskQueryException("createdFrom must be before createdTo");
+        }
+        if (sort == null) {
+            sort = TaskSort.ID;
+        }
+    }
+
+    /**
+     * Spring Data と同じ {@code property[,asc|desc]} 形式の並び順を解釈する。
+     */
+    public static TaskQuery of(TaskPriority priority, Boolean completed, LocalDateTime createdFrom,
+                               LocalDateTime createdTo, String sort, Integer limit) {
+        TaskSort sortBy = TaskSort.ID;
+        boolean descending = false;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",", 2);
+            sortBy = TaskSort.fromProperty(parts[0].trim());
+            if (parts.length == 2) {
+                String direction = parts[1].trim();
+                if (direction.equalsIgnoreCase("desc")) {
+                    descending = true;
+                } else if (!direction.equalsIgnoreCase("asc")) {
+                    throw new InvalidTaskQueryException("Unknown sort direction: " + direction);
+                }
+            }
+        }
+        return new TaskQuery(priority, completed, createdFrom, createdTo, sortBy, descending,
+                limit != null ? limit : DEFAULT_LIMIT);
+    }
+
+    public boolean matches(Task task) {
+        if (priority != null && task.getPriority() != priority) {
+            return false;
+        }
+        if (completed != null && task.isCompleted() != completed) {
+            return false;
+        }
+        LocalDateTime createdAt = task.getCreatedAt();
+        if (createdFrom != null && (createdAt == null || createdAt.isBefore(createdFrom))) {
+            return false;
+        }
+        return createdTo == null || (createdAt != null && createdAt.isBefore(createdTo));
+    }
+
+    public Comparator<Task> comparator() {
+        Comparator<Task> byId = Comparator.comparing(Task::getId);
+        Comparator<Task> comparator = sort == TaskSort.CREATED_AT
+                ? Comparator.comparing(Task::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(byId)
+                : byId;
+        return descending ? comparator.reversed() : comparator;
+    }
+}
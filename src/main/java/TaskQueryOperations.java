@@ -0,0 +1,14 @@
+package com.example.taskmanager;
+
+import java.util.List;
+
+/**
+ * {@link TaskRepository} に条件付きの一覧取得を追加するフラグメント。
+ */
+public interface TaskQueryOperations {
+
+    /**
+     * 条件に合うタスクを {@link TaskSummary} として読む。エンティティを作らないので永続化コンテキストにも載らない。
+     */
+    List<TaskSummary> findSummaries(TaskQuery query);
+}
@@ -0,0 +1,71 @@
+package com.example.taskmanager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.AvailableHints;
+
+import java.util.List;
+
+/**
+ * 射影だけを SELECT し、絞り込み・並び順・件数制限をすべて SQL で行う。
+ * <p>
+ * 読む列（id, title, completed, priority, created_at）はどれも db/migration の複合インデックスに
+ * 含まれているので、絞り込み条件の先頭列に合うインデックスだけで返せる（index-only scan）。
+ * completed / priority のインデックスは第 2 キーが id なので、既定の id 順は LIMIT 件読んだところで止まる。
+ * 計画は scripts/explain-task-queries.sql（PostgreSQL）と TaskQueryPlanIntegrationTest（H2）で確かめている。
+ */
+class TaskQueryOperationsImpl implements TaskQueryOperations {
+
+    private static final String SELECT = "select new com.example.taskmanager.TaskSummary("
+            + "t.id, t.title, t.completed, t.priority, t.createdAt) from Task t";
+
+    private final EntityManager entityManager;
+
+    TaskQueryOperationsImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<TaskSummary> findSummaries(TaskQuery query) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        String keyword = " where ";
+        if (query.priority() != null) {
+            jpql.append(keyword).append("t.priority = :priority");
+            keyword = " and ";
+        }
+        if (query.completed() != null) {
+            jpql.append(keyword).append("t.completed = :completed");
+            keyword = " and ";
+        }
+        if (query.createdFrom() != null) {
+            jpql.append(keyword).append("t.createdAt >= :createdFrom");
+            keyword = " and ";
+        }
+        if (query.createdTo() != null) {
+            jpql.append(keyword).append("t.createdAt < :createdTo");
+        }
+        String direction = query.descending() ? " desc" : " asc";
+        jpql.append(" order by ");
+        if (query.sort() == TaskSort.CREATED_AT) {
+            jpql.append("t.createdAt").append(direction).append(", ");
+        }
+        jpql.append("t.id").append(direction);
+
+        TypedQuery<TaskSummary> typed = entityManager.createQuery(jpql.toString(), TaskSummary.class)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .setMaxResults(query.limit());
+        if (query.priority() != null) {
+            typed.setParameter("priority", query.priority());
+        }
+        if (query.completed() != null) {
+            typed.setParameter("completed", query.completed());
+        }
+        if (query.createdFrom() != null) {
+            typed.setParameter("createdFrom", query.createdFrom());
+        }
+        if (query.createdTo() != null) {
+            typed.setParameter("createdTo", query.createdTo());
+        }
+        return typed.getResultList();
+    }
+}
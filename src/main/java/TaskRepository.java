@@ -0,0 +1,26 @@
+package com.example.taskmanager;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskBatchOperations, TaskStreamOperations,
+        TaskQueryOperations, TaskMutationOperations, UserTaskOperations {
+
+    long countByCompleted(boolean completed);
+
+    @Query("select t.priority as priority, t.completed as completed, count(t) as total "
+            + "from Task t group by t.priority, t.completed")
+    List<TaskCountRow> countGroupedByPriorityAndCompleted();
+
+    interface TaskCountRow {
+        TaskPriority getPriority();
+
+        Boolean getCompleted();
+
+        long getTotal();
+    }
+}
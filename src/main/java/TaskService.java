@@ -1,4 +1,301 @@
 package com.example.taskmanager;
-  
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+@Service
+@Transactional
 public class TaskService {
+
+    private final TaskRepository taskRepository;
+    // taskmanager.task-store.enabled=false のときは null で、全操作がリポジトリに直接行く
+    private final InMemoryTaskStore taskStore;
+    private final TaskCounters taskCounters;
+    // taskmanager.user-task-index.enabled=false のときは null で、ユーザーのタスク ID を毎回 DB から読む
+    private final UserTaskIndex userTaskIndex;
+    private final List<TaskMutationListener> listeners;
+
+    public TaskService(TaskRepository taskRepository) {
+        this(taskRepository, null, null, null, List.of());
+    }
+
+    @Autowired
+    public TaskService(TaskRepository taskRepository,
+                       @Nullable InMemoryTaskStore taskStore,
+                       @Nullable TaskCounters taskCounters,
+                       @Nullable UserTaskIndex userTaskIndex,
+                       ObjectProvider<TaskMutationListener> listeners) {
+        this(taskRepository, taskStore, taskCounters, userTaskIndex, listeners.orderedStream().toList());
+    }
+
+    TaskService(TaskRepository taskRepository,
+                InMemoryTaskStore taskStore,
+                TaskCounters taskCounters,
+                UserTaskIndex userTaskIndex,
+                List<TaskMutationListener> listeners) {
+        this.taskRepository = taskRepository;
+        this.taskStore = taskStore;
+        this.taskCounters = taskCounters;
+        this.userTaskIndex = userTaskIndex;
+        this.listeners = listeners;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Task> getAllTasks() {
+        if (taskStore != null) {
+            return taskStore.findAll();
+        }
+        return taskRepository.findAll();
+    }
+
+    /**
+     * 全タスクをリストに溜めずに 1 件ずつ渡す。
+     */
+    @Transactional(readOnly = true)
+    public void forEachTask(Consumer<Task> action) {
+        if (taskStore != null) {
+            taskStore.findAll().forEach(action);
+            return;
+        }
+        taskRepository.forEachTask(action);
+    }
+
+    /**
+     * 条件に合うタスクの一覧。インメモリストアがあればそこから、無ければ射影クエリで読む。
+     */
+    @Transactional(readOnly = true)
+    public List<TaskSummary> findTasks(TaskQuery query) {
+        if (taskStore != null) {
+            return taskStore.findAll().stream()
+                    .filter(query::matches)
+                    .sorted(query.comparator())
+                    .limit(query.limit())
+                    .map(TaskSummary::of)
+                    .toList();
+        }
+        return taskRepository.findSummaries(query);
+    }
+
+    @Transactional(readOnly = true)
+    public Task getTask(Long id) {
+        if (taskStore != null) {
+            Task task = taskStore.findById(id);
+            if (task == null) {
+                throw new TaskNotFoundException(id);
+            }
+            return task;
+        }
+        return taskRepository.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
+    }
+
+    /**
+     * ユーザーに割り当てられたタスクを ID 昇順で {@code after} の次から最大 {@code limit} 件返す。
+     * <p>
+     * ページに載せる ID は索引（無ければ {@code user_tasks} の主キー）から二分探索で切り出し、
+     * タスク本体はその ID だけをインメモリストアか {@code findAllById} で読む。
+     * 索引に載せる ID はレプリカではなくプライマリから読む（期限まで古い割り当てが残らないように）。
+     */
+    @Transactional(readOnly = true)
+    public UserTaskPage getUserTasks(Long userId, Long after, int limit) {
+        long[] ids = userTaskIndex != null
+                ? userTaskIndex.taskIds(userId, this::loadTaskIdsForIndex)
+                : taskRepository.findTaskIdsByUser(userId);
+        long[] page = UserTaskIndex.page(ids, after, limit);
+        Map<Long, Task> loaded = taskStore == null && page.length > 0 ? findAllById(page) : Map.of();
+        List<Task> tasks = new ArrayList<>(page.length);
+        LongStream.Builder missing = LongStream.builder();
+        for (long id : page) {
+            Task task = taskStore != null ? taskStore.findById(id) : loaded.get(id);
+            if (task != null) {
+                tasks.add(task);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (tasks.size() < page.length && userTaskIndex != null) {
+            // 削除イベントより前に読み込んだ ID が残っていた
+            userTaskIndex.forget(userId, missing.build().toArray());
+        }
+        boolean more = page.length > 0 && page[page.length - 1] < ids[ids.length - 1];
+        return new UserTaskPage(tasks, more ? page[page.length - 1] : null, ids.length);
+    }
+
+    public Task createTask(String title) {
+        Task saved = taskRepository.save(new Task(title));
+        putPersisted(saved);
+        publish(listener -> listener.onCreated(saved));
+        return saved;
+    }
+
+    /**
+     * タスクを作成してユーザーに割り当てる。ユーザーが存在しなければ作成ごと取り消す。
+     */
+    public Task createTask(String title, Long userId) {
+        Task saved = taskRepository.save(new Task(title));
+        if (!taskRepository.assignToUser(saved.getId(), userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        putPersisted(saved);
+        publish(listener -> listener.onCreated(saved));
+        publish(listener -> listener.onAssigned(saved, userId));
+        return saved;
+    }
+
+    /**
+     * 複数タスクを 1 回のバッチ INSERT で作成する。
+     */
+    public List<Task> createTasks(List<String> titles) {
+        List<Task> tasks = new ArrayList<>(titles.size());
+        for (String title : titles) {
+            tasks.add(new Task(title));
+        }
+        List<Task> saved = taskRepository.insertAll(tasks);
+        for (Task task : saved) {
+            putPersisted(task);
+            publish(listener -> listener.onCreated(task));
+        }
+        return saved;
+    }
+
+    public Task toggleTaskCompletion(Long id) {
+        Task toggled;
+        if (taskStore != null) {
+            toggled = taskStore.toggleCompletion(id);
+        } else {
+            List<Task> result = taskRepository.toggleCompletion(id);
+            toggled = result.isEmpty() ? null : result.get(0);
+        }
+        if (toggled == null) {
+            throw new TaskNotFoundException(id);
+        }
+        publish(listener -> listener.onToggled(toggled));
+        return toggled;
+    }
+
+    /**
+     * 複数タスクの完了状態をまとめて反転する。存在しない ID は無視し、反転できたタスクだけを返す。
+     */
+    public List<Task> toggleTasksCompletion(Collection<Long> ids) {
+        List<Task> toggled;
+        if (taskStore != null) {
+            toggled = new ArrayList<>(ids.size());
+            for (long id : distinct(ids)) {
+                Task task = taskStore.toggleCompletion(id);
+                if (task != null) {
+                    toggled.add(task);
+                }
+            }
+        } else {
+            toggled = taskRepository.toggleCompletion(distinct(ids));
+        }
+        for (Task task : toggled) {
+            publish(listener -> listener.onToggled(task));
+        }
+        return toggled;
+    }
+
+    public void deleteTask(Long id) {
+        Task deleted;
+        if (taskStore != null) {
+            deleted = taskStore.remove(id);
+        } else {
+            List<Task> result = taskRepository.deleteReturning(id);
+            deleted = result.isEmpty() ? null : result.get(0);
+        }
+        if (deleted == null) {
+            throw new TaskNotFoundException(id);
+        }
+        publish(listener -> listener.onDeleted(deleted));
+    }
+
+    /**
+     * 複数タスクをまとめて削除する。存在しない ID は無視し、削除した件数を返す。
+     */
+    public int deleteTasks(Collection<Long> ids) {
+        List<Task> deleted;
+        if (taskStore != null) {
+            deleted = new ArrayList<>(ids.size());
+            for (long id : distinct(ids)) {
+                Task task = taskStore.remove(id);
+                if (task != null) {
+                    deleted.add(task);
+                }
+            }
+        } else {
+            deleted = taskRepository.deleteReturning(distinct(ids));
+        }
+        for (Task task : deleted) {
+            publish(listener -> listener.onDeleted(task));
+        }
+        return deleted.size();
+    }
+
+    @Transactional(readOnly = true)
+    public long getCompletedTaskCount() {
+        if (taskCounters != null && taskCounters.isInitialized()) {
+            return taskCounters.completed();
+        }
+        return taskRepository.countByCompleted(true);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskCounts getTaskCounts() {
+        if (taskCounters != null && taskCounters.isInitialized()) {
+            return taskCounters.snapshot();
+        }
+        TaskCounters fresh = new TaskCounters(taskRepository, taskStore);
+        fresh.reconcile();
+        return fresh.snapshot();
+    }
+
+    private long[] loadTaskIdsForIndex(long userId) {
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.pinToPrimary()) {
+            return taskRepository.findTaskIdsByUser(userId);
+        }
+    }
+
+    private Map<Long, Task> findAllById(long[] ids) {
+        Map<Long, Task> tasks = new HashMap<>(ids.length * 2);
+        for (Task task : taskRepository.findAllById(Arrays.stream(ids).boxed().toList())) {
+            tasks.put(task.getId(), task);
+        }
+        return tasks;
+    }
+
+    private static long[] distinct(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).distinct().toArray();
+    }
+
+    /**
+     * 作成したタスクをコミット後にストアへ載せる。ロールバックされた作成（割り当て先のユーザーが無いなど）を
+     * メモリに残さないため。
+     */
+    private void putPersisted(Task task) {
+        if (taskStore != null) {
+            TransactionCallbacks.afterCommit(() -> taskStore.putPersisted(task));
+        }
+    }
+
+    /**
+     * トランザクション中ならコミット後に、そうでなければ即座にリスナーへ通知する。
+     */
+    private void publish(Consumer<TaskMutationListener> event) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> listeners.forEach(event));
+    }
 }
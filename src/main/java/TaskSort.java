@@ -0,0 +1,28 @@
+package com.example.taskmanager;
+
+/**
+ * タスク一覧の並び順に使える列。どれも ID を第 2 キーにして順序を安定させる。
+ */
+public enum TaskSort {
+    ID("id"),
+    CREATED_AT("createdAt");
+
+    private final String property;
+
+    TaskSort(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public static TaskSort fromProperty(String property) {
+        for (TaskSort sort : values()) {
+            if (sort.property.equals(property)) {
+                return sort;
+            }
+        }
+        throw new InvalidTaskQueryException("Unknown sort property: " + property);
+    }
+}
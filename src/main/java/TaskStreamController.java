@@ -0,0 +1,29 @@
+package com.example.taskmanager;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * タスク変更の SSE 配信。イベント名は {@code task}（データは {@code {"type":"TaskToggled","task":{...}}}）と
+ * {@code resync}（取りこぼしたので一覧を取り直すこと）の 2 種類。
+ */
+@RestController
+@ConditionalOnProperty(name = "taskmanager.task-stream.enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("/api/tasks")
+public class TaskStreamController {
+
+    private final TaskChangeBroadcaster broadcaster;
+
+    public TaskStreamController(TaskChangeBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return broadcaster.subscribe();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.taskmanager;
+
+import java.util.function.Consumer;
+
+/**
+ * {@link TaskRepository} に全件をストリームで読むための操作を追加するフラグメント。
+ */
+public interface TaskStreamOperations {
+
+    /**
+     * ID 順に 1 件ずつ読み込んで {@code action} に渡す。渡したタスクは直後に永続化コンテキストから外れる。
+     * 読み取り専用トランザクションの中で呼ぶこと（PostgreSQL はトランザクション外だとフェッチサイズを無視する）。
+     */
+    void forEachTask(Consumer<Task> action);
+}
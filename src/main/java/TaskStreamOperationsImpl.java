@@ -0,0 +1,38 @@
+package com.example.taskmanager;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * JDBC のフェッチサイズ単位でカーソルを進め、処理済みのエンティティを逐次デタッチする。
+ * 結果セット全体も永続化コンテキストもヒープに溜まらないので、件数によらずメモリ使用量が一定になる。
+ */
+class TaskStreamOperationsImpl implements TaskStreamOperations {
+
+    private final EntityManager entityManager;
+    private final int fetchSize;
+
+    TaskStreamOperationsImpl(EntityManager entityManager,
+                             @Value("${taskmanager.tasks.stream-fetch-size:500}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void forEachTask(Consumer<Task> action) {
+        try (Stream<Task> stream = entityManager
+                .createQuery("select t from Task t order by t.id", Task.class)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            stream.forEach(task -> {
+                action.accept(task);
+                entityManager.detach(task);
+            });
+        }
+    }
+}
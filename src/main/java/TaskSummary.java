@@ -0,0 +1,13 @@
+package com.example.taskmanager;
+
+import java.time.LocalDateTime;
+
+/**
+ * 一覧用のタスクの射影。説明文は含まないので、カバリングインデックスだけで読める。
+ */
+public record TaskSummary(Long id, String title, boolean completed, TaskPriority priority, LocalDateTime createdAt) {
+
+    public static TaskSummary of(Task task) {
+        return new TaskSummary(task.getId(), task.getTitle(), task.isCompleted(), task.getPriority(), task.getCreatedAt());
+    }
+}
@@ -0,0 +1,432 @@
+package com.example.taskmanager;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * JUnit XML から取り込んだテスト結果のストア。
+ * <p>
+ * 実行ごとに {@link TestRun}（テスト ID・所要時間・結果の 3 列）を作り、直近 {@code max-runs} 件をメモリに、
+ * 同じ列構成のバイナリを {@code <directory>/<id>.run} に置く。テスト名は辞書で整数 ID に置き換えるので、
+ * 集計は配列の走査だけで済み、数千テスト × 数百実行でもミリ秒単位で答えられる。
+ * <p>
+ * 辞書の ID ごとに保持中の実行からの参照数を数え、古い実行を捨てて参照されない名前が辞書の半分を超えたら
+ * 詰め直す。改名や削除されたテストの名前が溜まり続けず、集計の配列も保持中のテスト数に見合った大きさで済む。
+ */
+@Component
+public class TestResultStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TestResultStore.class);
+
+    private static final int MAGIC = 0x54525331; // "TRS1"
+    private static final String SUFFIX = ".run";
+    // 辞書のキーは "クラス名#テスト名"
+    private static final char SEPARATOR = '#';
+
+    private final Path directory;
+    private final int maxRuns;
+    // 辞書。書き換えはすべて synchronized で行う
+    private final Map<String, Integer> testIds = new HashMap<>();
+    private final List<String> testNames = new ArrayList<>();
+    // 辞書の ID ごとの、保持中の実行からの参照数
+    private int[] references = new int[0];
+    private int unreferenced;
+    private final AtomicLong nextRunId = new AtomicLong(1);
+    // 差し替えは synchronized で行い、読み取り側は参照を取ってから走査する
+    private volatile Snapshot snapshot = new Snapshot(new TestRun[0], new String[0]);
+
+    public TestResultStore(@Value("${taskmanager.test-results.directory:data/test-runs}") String directory,
+                           @Value("${taskmanager.test-results.max-runs:500}") int maxRuns) {
+        this.directory = Paths.get(directory);
+        this.maxRuns = maxRuns;
+    }
+
+    @PostConstruct
+    void load() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparingLong(TestResultStore::runId))
+                    .toList();
+        }
+        for (Path file : files.subList(Math.max(0, files.size() - maxRuns), files.size())) {
+            try {
+                publish(read(file));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Skipping unreadable test run file {}", file, e);
+            }
+        }
+        if (!files.isEmpty()) {
+            nextRunId.set(runId(files.get(files.size() - 1)) + 1);
+        }
+        Snapshot loaded = snapshot;
+        log.info("Loaded {} test runs ({} distinct tests)", loaded.runs().length, loaded.names().length);
+    }
+
+    public Ingestion begin(String label) {
+        return new Ingestion(label);
+    }
+
+    public List<TestRunSummary> recentRuns(int limit) {
+        TestRun[] runs = snapshot.runs();
+        List<TestRunSummary> result = new ArrayList<>(Math.min(limit, runs.length));
+        for (int i = runs.length - 1; i >= 0 && result.size() < limit; i--) {
+            result.add(runs[i].summary());
+        }
+        return result;
+    }
+
+    /**
+     * 直近 {@code lastRuns} 回の実行にわたる全テストの統計。
+     */
+    public List<TestStats> stats(int lastRuns) {
+        Snapshot current = snapshot;
+        TestRun[] window = window(current, lastRuns);
+        int testCount = current.names().length;
+        Accumulator accumulator = new Accumulator(testCount, window.length);
+        for (TestRun run : window) {
+            for (int i = 0; i < run.size(); i++) {
+                accumulator.add(run.testIds[i], run.durationMicros[i], run.statuses[i]);
+            }
+        }
+        List<TestStats> result = new ArrayList<>();
+        for (int testId = 0; testId < testCount; testId++) {
+            if (accumulator.seen[testId]) {
+                result.add(accumulator.stats(testId, current.names()[testId]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 1 テスト分の統計。各実行を二分探索するので、実行数 × log(テスト数) で済む。
+     */
+    public TestStats stats(String name, int lastRuns) {
+        Integer testId;
+        Snapshot current;
+        // 辞書と実行の組は同じロックの下で差し替わるので、ID を引くのと同時に取る
+        synchronized (this) {
+            testId = testIds.get(name);
+            current = snapshot;
+        }
+        if (testId == null) {
+            return null;
+        }
+        TestRun[] window = window(current, lastRuns);
+        Accumulator accumulator = new Accumulator(testId + 1, window.length);
+        for (TestRun run : window) {
+            int i = run.indexOf(testId);
+            if (i >= 0) {
+                accumulator.add(testId, run.durationMicros[i], run.statuses[i]);
+            }
+        }
+        return accumulator.seen[testId] ? accumulator.stats(testId, name) : null;
+    }
+
+    private static TestRun[] window(Snapshot current, int lastRuns) {
+        TestRun[] runs = current.runs();
+        return Arrays.copyOfRange(runs, Math.max(0, runs.length - lastRuns), runs.length);
+    }
+
+    private int intern(String name) {
+        Integer id = testIds.get(name);
+        if (id == null) {
+            id = testNames.size();
+            testNames.add(name);
+            testIds.put(name, id);
+            if (id == references.length) {
+                references = Arrays.copyOf(references, Math.max(256, id * 2));
+            }
+            unreferenced++;
+        }
+        return id;
+    }
+
+    /**
+     * 実行を加え、{@code max-runs} を超えた古い実行を捨てる。{@code local} のテスト ID は {@code names} の
+     * 位置なので、ここで辞書の ID に置き換える（辞書の詰め直しと同じロックの下で行うため）。
+     */
+    private synchronized TestRun publish(LocalRun local) {
+        TestRun.Builder builder = new TestRun.Builder();
+        TestRun source = local.run();
+        for (int i = 0; i < source.size(); i++) {
+            builder.add(intern(local.names().get(source.testIds[i])), source.durationMicros[i] / 1_000_000.0,
+                    TestStatus.fromCode(source.statuses[i]));
+        }
+        TestRun run = builder.build(source.id, source.timestamp, source.label);
+        TestRun[] current = snapshot.runs();
+        int drop = Math.max(0, current.length + 1 - maxRuns);
+        TestRun[] next = Arrays.copyOfRange(current, drop, current.length + 1);
+        next[next.length - 1] = run;
+        reference(run, 1);
+        for (int i = 0; i < drop; i++) {
+            reference(current[i], -1);
+        }
+        if (unreferenced > testNames.size() / 2) {
+            next = compact(next);
+            run = next[next.length - 1];
+        }
+        snapshot = new Snapshot(next, testNames.toArray(new String[0]));
+        for (int i = 0; i < drop; i++) {
+            try {
+                Files.deleteIfExists(file(current[i].id));
+            } catch (IOException e) {
+                log.warn("Failed to delete old test run {}", current[i].id, e);
+            }
+        }
+        return run;
+    }
+
+    private void reference(TestRun run, int delta) {
+        for (int testId : run.testIds) {
+            int before = references[testId];
+            references[testId] = before + delta;
+            if (before == 0) {
+                unreferenced--;
+            } else if (before + delta == 0) {
+                unreferenced++;
+            }
+        }
+    }
+
+    /**
+     * どの実行からも参照されない名前を辞書から除き、ID を詰め直す。ID の大小関係は変えないので、
+     * 各実行のテスト ID の並び（二分探索の前提）はそのまま保たれる。
+     */
+    private TestRun[] compact(TestRun[] runs) {
+        int[] remap = new int[testNames.size()];
+        int[] counts = new int[Math.max(256, testNames.size() - unreferenced)];
+        List<String> names = new ArrayList<>(testNames.size() - unreferenced);
+        for (int id = 0; id < testNames.size(); id++) {
+            String name = testNames.get(id);
+            if (references[id] == 0) {
+                remap[id] = -1;
+                testIds.remove(name);
+                continue;
+            }
+            remap[id] = names.size();
+            counts[names.size()] = references[id];
+            testIds.put(name, names.size());
+            names.add(name);
+        }
+        testNames.clear();
+        testNames.addAll(names);
+        references = counts;
+        unreferenced = 0;
+        TestRun[] compacted = new TestRun[runs.length];
+        for (int i = 0; i < runs.length; i++) {
+            compacted[i] = runs[i].withTestIds(remap);
+        }
+        return compacted;
+    }
+
+    private void write(LocalRun local) throws IOException {
+        TestRun run = local.run();
+        Path target = file(run.id);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(run.id);
+            out.writeLong(run.timestamp);
+            out.writeUTF(run.label);
+            out.writeInt(run.size());
+            for (int testId : run.testIds) {
+                out.writeUTF(local.names().get(testId));
+            }
+            for (int micros : run.durationMicros) {
+                out.writeInt(micros);
+            }
+            out.write(run.statuses);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private LocalRun read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a test run file");
+            }
+            long id = in.readLong();
+            long timestamp = in.readLong();
+            String label = in.readUTF();
+            int n = in.readInt();
+            // ファイル内の位置をそのままテスト ID にする（辞書の ID には publish で置き換える）
+            List<String> names = new ArrayList<>(n);
+            int[] ids = new int[n];
+            for (int i = 0; i < n; i++) {
+                names.add(in.readUTF());
+                ids[i] = i;
+            }
+            int[] micros = new int[n];
+            for (int i = 0; i < n; i++) {
+                micros[i] = in.readInt();
+            }
+            byte[] statuses = in.readNBytes(n);
+            return new LocalRun(new TestRun(id, timestamp, label, ids, micros, statuses), names);
+        }
+    }
+
+    private Path file(long runId) {
+        return directory.resolve(runId + SUFFIX);
+    }
+
+    private static long runId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * 1 回の実行分の取り込み。レポートを {@link #addReport} で流し込み、{@link #commit()} で確定する。
+     */
+    public final class Ingestion {
+
+        private final String label;
+        private final TestRun.Builder builder = new TestRun.Builder();
+        // この実行だけの辞書。ストアの辞書には確定時に移す（取り込み中に詰め直されても ID がずれない）
+        private final Map<String, Integer> localIds = new HashMap<>();
+        private final List<String> localNames = new ArrayList<>();
+
+        private Ingestion(String label) {
+            this.label = label;
+        }
+
+        public int addReport(InputStream report) {
+            try {
+                return JUnitXmlParser.parse(report, (suite, className, name, seconds, status) ->
+                        builder.add(localId(className + SEPARATOR + name), seconds, status));
+            } catch (XMLStreamException e) {
+                throw new InvalidTestReportException(e);
+            }
+        }
+
+        public TestRunSummary commit() {
+            LocalRun run = new LocalRun(builder.build(nextRunId.getAndIncrement(), System.currentTimeMillis(), label),
+                    localNames);
+            try {
+                write(run);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return publish(run).summary();
+        }
+
+        private int localId(String name) {
+            Integer id = localIds.get(name);
+            if (id == null) {
+                id = localNames.size();
+                localNames.add(name);
+                localIds.put(name, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * 保持中の実行（古い順）と、そのテスト ID が指す名前。
+     */
+    private record Snapshot(TestRun[] runs, String[] names) {
+    }
+
+    /**
+     * ストアの辞書に載せる前の実行。テスト ID は {@code names} の位置。
+     */
+    private record LocalRun(TestRun run, List<String> names) {
+    }
+
+    /**
+     * テストごとの集計。所要時間はテストごとに実行数分の int 配列へ溜め、最後に並べて百分位を取る。
+     */
+    private static final class Accumulator {
+
+        private static final byte NONE = -1;
+
+        final boolean[] seen;
+        final int[] runs;
+        final int[] failures;
+        final int[] flaky;
+        final byte[] lastOutcome;
+        final int[][] durations;
+        final int windowSize;
+
+        Accumulator(int testCount, int windowSize) {
+            this.seen = new boolean[testCount];
+            this.runs = new int[testCount];
+            this.failures = new int[testCount];
+            this.flaky = new int[testCount];
+            this.lastOutcome = new byte[testCount];
+            this.durations = new int[testCount][];
+            this.windowSize = windowSize;
+            Arrays.fill(lastOutcome, NONE);
+        }
+
+        void add(int testId, int micros, byte statusCode) {
+            TestStatus status = TestStatus.fromCode(statusCode);
+            seen[testId] = true;
+            if (status == TestStatus.SKIPPED) {
+                return;
+            }
+            int[] buffer = durations[testId];
+            if (buffer == null) {
+                buffer = durations[testId] = new int[windowSize];
+            }
+            buffer[runs[testId]++] = micros;
+            byte outcome = status == TestStatus.FAILED ? (byte) 0 : (byte) 1;
+            if (status == TestStatus.FAILED) {
+                failures[testId]++;
+            }
+            if (status == TestStatus.FLAKY || (lastOutcome[testId] != NONE && lastOutcome[testId] != outcome)) {
+                flaky[testId]++;
+            }
+            lastOutcome[testId] = outcome;
+        }
+
+        TestStats stats(int testId, String key) {
+            int sep = key.indexOf(SEPARATOR);
+            String suite = sep >= 0 ? key.substring(0, sep) : "";
+            String name = sep >= 0 ? key.substring(sep + 1) : key;
+            int n = runs[testId];
+            if (n == 0) {
+                return new TestStats(name, suite, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+            }
+            int[] sorted = Arrays.copyOf(durations[testId], n);
+            Arrays.sort(sorted);
+            return new TestStats(name, suite, n, failures[testId], flaky[testId],
+                    (double) failures[testId] / n, (double) flaky[testId] / n,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted[n - 1] / 1000.0);
+        }
+
+        /**
+         * nearest-rank 法。単位はミリ秒。
+         */
+        private static double percentile(int[] sorted, double p) {
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1000.0;
+        }
+    }
+}
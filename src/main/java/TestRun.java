@@ -0,0 +1,133 @@
+package com.example.taskmanager;
+
+import java.util.Arrays;
+
+/**
+ * 1 回のテスト実行の結果を列ごとの配列で持つ。
+ * <p>
+ * {@code testIds} は {@link TestResultStore} のテスト名辞書の ID で昇順に並んでおり、
+ * 特定テストの結果は二分探索で引ける。同じ位置の {@code durationMicros} / {@code statuses} がその結果。
+ */
+final class TestRun {
+
+    final long id;
+    final long timestamp;
+    final String label;
+    final int[] testIds;
+    final int[] durationMicros;
+    final byte[] statuses;
+
+    TestRun(long id, long timestamp, String label, int[] testIds, int[] durationMicros, byte[] statuses) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.label = label;
+        this.testIds = testIds;
+        this.durationMicros = durationMicros;
+        this.statuses = statuses;
+    }
+
+    int size() {
+        return testIds.length;
+    }
+
+    /**
+     * テストの位置。この実行に含まれなければ負の値。
+     */
+    int indexOf(int testId) {
+        return Arrays.binarySearch(testIds, testId);
+    }
+
+    /**
+     * テスト ID を {@code remap[旧 ID]} に付け替えたコピー。{@code remap} は大小関係を保つこと（並びを崩さない）。
+     * 所要時間と結果の配列は共有する。
+     */
+    TestRun withTestIds(int[] remap) {
+        int[] mapped = new int[testIds.length];
+        for (int i = 0; i < testIds.length; i++) {
+            mapped[i] = remap[testIds[i]];
+        }
+        return new TestRun(id, timestamp, label, mapped, durationMicros, statuses);
+    }
+
+    int count(TestStatus status) {
+        int n = 0;
+        byte code = status.code();
+        for (byte s : statuses) {
+            if (s == code) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    TestRunSummary summary() {
+        return new TestRunSummary(id, timestamp, label, size(), count(TestStatus.PASSED),
+                count(TestStatus.FAILED), count(TestStatus.SKIPPED), count(TestStatus.FLAKY));
+    }
+
+    /**
+     * パース結果を溜めて {@link TestRun} にする。同じテストが複数回出てきたら時間を合算し、
+     * 結果は FAILED > FLAKY > PASSED > SKIPPED の順に強い方を採る。
+     */
+    static final class Builder {
+
+        private static final int[] SEVERITY = new int[TestStatus.values().length];
+
+        static {
+            SEVERITY[TestStatus.SKIPPED.ordinal()] = 0;
+            SEVERITY[TestStatus.PASSED.ordinal()] = 1;
+            SEVERITY[TestStatus.FLAKY.ordinal()] = 2;
+            SEVERITY[TestStatus.FAILED.ordinal()] = 3;
+        }
+
+        private int[] ids = new int[256];
+        private int[] micros = new int[256];
+        private byte[] statuses = new byte[256];
+        private int size;
+
+        void add(int testId, double seconds, TestStatus status) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                micros = Arrays.copyOf(micros, size * 2);
+                statuses = Arrays.copyOf(statuses, size * 2);
+            }
+            ids[size] = testId;
+            micros[size] = (int) Math.min(Integer.MAX_VALUE, Math.max(0, Math.round(seconds * 1_000_000)));
+            statuses[size] = status.code();
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        TestRun build(long id, long timestamp, String label) {
+            // (testId, 元の位置) を 1 つの long に詰めてソートする
+            long[] order = new long[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = ((long) ids[i] << 32) | i;
+            }
+            Arrays.sort(order);
+            int[] sortedIds = new int[size];
+            int[] sortedMicros = new int[size];
+            byte[] sortedStatuses = new byte[size];
+            int n = 0;
+            for (long packed : order) {
+                int i = (int) packed;
+                if (n > 0 && sortedIds[n - 1] == ids[i]) {
+                    sortedMicros[n - 1] = (int) Math.min(Integer.MAX_VALUE, (long) sortedMicros[n - 1] + micros[i]);
+                    if (SEVERITY[statuses[i]] > SEVERITY[sortedStatuses[n - 1]]) {
+                        sortedStatuses[n - 1] = statuses[i];
+                    }
+                    continue;
+                }
+                sortedIds[n] = ids[i];
+                sortedMicros[n] = micros[i];
+                sortedStatuses[n] = statuses[i];
+                n++;
+            }
+            return new TestRun(id, timestamp, label, Arrays.copyOf(sortedIds, n),
+                    Arrays.copyOf(sortedMicros, n), Arrays.copyOf(sortedStatuses, n));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.taskmanager;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Comparator;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/test-runs")
+@Validated
+public class TestRunController {
+
+    private final TestResultStore testResultStore;
+
+    public TestRunController(TestResultStore testResultStore) {
+        this.testResultStore = testResultStore;
+    }
+
+    @GetMapping
+    public List<TestRunSummary> getRuns(@RequestParam(defaultValue = "20") @Min(1) @Max(500) int limit) {
+        return testResultStore.recentRuns(limit);
+    }
+
+    /**
+     * 1 回の実行分のレポート（Surefire / Failsafe の TEST-*.xml）をまとめて取り込む。
+     * 各ファイルはリクエストから直接ストリームで読む。
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public TestRunSummary ingestReports(@RequestParam(defaultValue = "") String label,
+                                        @RequestParam("reports") List<MultipartFile> reports) throws IOException {
+        TestResultStore.Ingestion ingestion = testResultStore.begin(label);
+        for (MultipartFile report : reports) {
+            try (InputStream in = report.getInputStream()) {
+                ingestion.addReport(in);
+            }
+        }
+        return ingestion.commit();
+    }
+
+    /**
+     * レポート 1 件を本文で受け取る版。
+     */
+    @PostMapping(consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    public TestRunSummary ingestReport(@RequestParam(defaultValue = "") String label,
+                                       HttpServletRequest request) throws IOException {
+        TestResultStore.Ingestion ingestion = testResultStore.begin(label);
+        try (InputStream in = request.getInputStream()) {
+            ingestion.addReport(in);
+        }
+        return ingestion.commit();
+    }
+
+    /**
+     * 直近 {@code runs} 回の統計を {@code sort}（p95 / flakiness / failures）の降順で返す。
+     */
+    @GetMapping("/stats")
+    public List<TestStats> getStats(@RequestParam(defaultValue = "50") @Min(1) @Max(500) int runs,
+                                    @RequestParam(defaultValue = "p95") String sort,
+                                    @RequestParam(defaultValue = "50") @Min(1) @Max(5000) int limit) {
+        Comparator<TestStats> order = switch (sort) {
+            case "flakiness" -> Comparator.comparingDouble(TestStats::flakinessRate);
+            case "failures" -> Comparator.comparingDouble(TestStats::failureRate);
+            default -> Comparator.comparingDouble(TestStats::p95Millis);
+        };
+        return testResultStore.stats(runs).stream()
+                .sorted(order.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * 1 テスト分。{@code name} は "クラス名#テスト名"。
+     */
+    @GetMapping(value = "/stats", params = "name")
+    public TestStats getTestStats(@RequestParam String name,
+                                  @RequestParam(defaultValue = "50") @Min(1) @Max(500) int runs) {
+        TestStats stats = testResultStore.stats(name, runs);
+        if (stats == null) {
+            throw new TestCaseNotFoundException(name);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.taskmanager;
+
+public record TestRunSummary(long id,
+                             long timestamp,
+                             String label,
+                             int tests,
+                             int passed,
+                             int failed,
+                             int skipped,
+                             int flaky) {
+}
@@ -0,0 +1,19 @@
+package com.example.taskmanager;
+
+/**
+ * 直近の実行にわたる 1 テストの統計。
+ * {@code flakinessRate} は再実行で通った（FLAKY）か、前回の実行と成否が入れ替わった割合。
+ * スキップした実行は {@code runs} に数えない。
+ */
+public record TestStats(String name,
+                        String suite,
+                        int runs,
+                        int failures,
+                        int flakyRuns,
+                        double failureRate,
+                        double flakinessRate,
+                        double p50Millis,
+                        double p95Millis,
+                        double p99Millis,
+                        double maxMillis) {
+}
@@ -0,0 +1,30 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * テストケース 1 件の結果。FLAKY は Surefire の再実行で最終的に成功したもの（flakyFailure / flakyError）。
+ */
+public enum TestStatus {
+    PASSED,
+    FAILED,
+    SKIPPED,
+    FLAKY;
+
+    private static final TestStatus[] VALUES = values();
+
+    @JsonValue
+    public String toJson() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static TestStatus fromCode(byte code) {
+        return VALUES[code];
+    }
+
+    byte code() {
+        return (byte) ordinal();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.taskmanager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ID とメールアドレスをキーにしたユーザーのキャッシュ。
+ * <p>
+ * Caffeine の W-TinyLFU（頻度を見て追い出し候補を選ぶ方式）で上限件数を守るので、
+ * 同じユーザーへの繰り返しアクセスは残り、一度きりの走査でキャッシュが押し流されない。
+ * メール変更・パスワード変更・削除のコミット後に無効化する。他ノードでの変更は
+ * {@link ChangeNotificationChannel} から {@link RemoteChangeListener} として受け取る。取りこぼしに備えて書き込みから一定時間で失効させる。
+ * <p>
+ * キャッシュしたインスタンスは読み取り専用として扱う。更新処理はリポジトリから読み直すこと。
+ * ヒット・ミス・追い出しの統計は cache.* メトリクスとして actuator に出る。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.user-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class UserCache implements UserMutationListener, RemoteChangeListener {
+
+    private final Cache<Long, User> byId;
+    private final Cache<String, User> byEmail;
+
+    public UserCache(@Value("${taskmanager.user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${taskmanager.user-cache.expire-after-write:10m}") Duration expireAfterWrite,
+                     MeterRegistry meterRegistry) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "users.byEmail");
+    }
+
+    /**
+     * キャッシュになければ {@code loader} で読み込む。loader が null を返した場合はキャッシュしない。
+     */
+    public User getById(long id, Function<Long, User> loader) {
+        return byId.get(id, loader);
+    }
+
+    public User getByEmail(String email, Function<String, User> loader) {
+        return byEmail.get(email, loader);
+    }
+
+    /**
+     * このノードのキャッシュだけを無効化する。他ノードからの通知を受けたときに使う。
+     */
+    public void invalidateLocal(long id, Collection<String> emails) {
+        byId.invalidate(id);
+        byEmail.invalidateAll(emails);
+    }
+
+    public void invalidateAllLocal() {
+        byId.invalidateAll();
+        byEmail.invalidateAll();
+    }
+
+    @Override
+    public void onEmailChanged(User user, String previousEmail) {
+        invalidate(user.getId(), List.of(previousEmail, user.getEmail()));
+    }
+
+    @Override
+    public void onPasswordChanged(User user) {
+        invalidate(user.getId(), List.of(user.getEmail()));
+    }
+
+    @Override
+    public void onDeleted(User user) {
+        invalidate(user.getId(), List.of(user.getEmail()));
+    }
+
+    @Override
+    public void onRemoteUserChanged(long userId, List<String> emails) {
+        invalidateLocal(userId, emails);
+    }
+
+    @Override
+    public void onRemoteUserDeleted(long userId, List<String> emails) {
+        invalidateLocal(userId, emails);
+    }
+
+    @Override
+    public void onRemoteReset() {
+        invalidateAllLocal();
+    }
+
+    private void invalidate(long id, List<String> emails) {
+        invalidateLocal(id, emails);
+    }
+}
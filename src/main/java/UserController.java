@@ -0,0 +1,155 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users")
+@Validated
+public class UserController {
+
+    private final UserService userService;
+    private final TaskService taskService;
+    // taskmanager.etags.enabled=false のときは null で、条件付きリクエストを扱わない
+    private final ResourceVersions versions;
+    // taskmanager.response-cache.enabled=false のとき、または ETag が無効のときは null
+    private final ResponseBytesCache responseCache;
+    private final ObjectMapper objectMapper;
+
+    public UserController(UserService userService,
+                          TaskService taskService,
+                          @Nullable ResourceVersions versions,
+                          @Nullable ResponseBytesCache responseCache,
+                          ObjectMapper objectMapper) {
+        this.userService = userService;
+        this.taskService = taskService;
+        this.versions = versions;
+        this.responseCache = versions != null ? responseCache : null;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 一覧と個別の取得は、{@code If-None-Match} が変更バージョンと一致すれば DB に触れずに 304 を返す。
+     * ページ単位の一覧は {@link ResponseBytesCache} にシリアライズ済みのバイト列で持ち、変更が無ければそれを返す。
+     * 条件付きの取得はどれも {@link ResponseEntity} を返し、ボディはメッセージコンバーターが書き出す。
+     */
+    @GetMapping
+    public ResponseEntity<?> getUsers(@RequestParam(defaultValue = "0") @Min(0) int page,
+                                      @RequestParam(defaultValue = "20") @Min(1) @Max(500) int size,
+                                      WebRequest request) throws IOException {
+        boolean gzip = responseCache != null && responseCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String tag = versions != null ? versions.usersTag() + (gzip ? ".gz" : "") : null;
+        if (tag != null && request.checkNotModified(tag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        // タグを付けて返す（キャッシュする）ので、変更がレプリカに届くまではプライマリから読む
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = pinWhileUsersSettle()) {
+            if (responseCache == null) {
+                return ResponseEntity.ok(userService.getAllUsers(PageRequest.of(page, size, Sort.by("id"))));
+            }
+            String key = page + ":" + size;
+            ResponseEntity<byte[]> cached = responseCache.cached(ResponseBytesCache.USERS, key, tag, gzip);
+            if (cached != null) {
+                return cached;
+            }
+            Page<User> users = userService.getAllUsers(PageRequest.of(page, size, Sort.by("id")));
+            return responseCache.store(ResponseBytesCache.USERS, key, tag, MediaType.APPLICATION_JSON_VALUE,
+                    objectMapper.writeValueAsBytes(users), gzip);
+        }
+    }
+
+    /**
+     * キーセットページング。{@code cursor} を付けるとこちらになる（空文字で先頭ページ）。
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<UserCursorPage> getUsersAfter(@RequestParam String cursor,
+                                                        @RequestParam(defaultValue = "20") @Min(1) @Max(500) int size,
+                                                        WebRequest request) {
+        if (versions != null && request.checkNotModified(versions.usersTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = pinWhileUsersSettle()) {
+            return ResponseEntity.ok(userService.getUsersAfter(cursor, size));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<User> getUser(@PathVariable Long id, WebRequest request) {
+        if (versions != null && request.checkNotModified(versions.userTag(id))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = pinWhileUsersSettle()) {
+            return ResponseEntity.ok(userService.findById(id));
+        }
+    }
+
+    /**
+     * ユーザーに割り当てられたタスクを ID 昇順で返す。前ページの {@code nextAfter} を {@code after} に渡すと続きを返す。
+     */
+    @GetMapping("/{id}/tasks")
+    public UserTaskPage getUserTasks(@PathVariable Long id,
+                                     @RequestParam(required = false) Long after,
+                                     @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+        // 存在しないユーザーは 404（キャッシュに当たれば DB に行かない）
+        userService.findById(id);
+        return taskService.getUserTasks(id, after, limit);
+    }
+
+    @GetMapping("/search")
+    public List<User> searchUsers(@RequestParam @NotBlank String email) {
+        return userService.searchByEmail(email);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public User createUser(@Valid @RequestBody UserCreateRequest request) {
+        return userService.createUser(request.username(), request.email(), request.password());
+    }
+
+    @PutMapping("/{id}/email")
+    public User updateEmail(@PathVariable Long id, @Valid @RequestBody UserEmailUpdateRequest request) {
+        return userService.updateEmail(id, request.email());
+    }
+
+    @PutMapping("/{id}/password")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void updatePassword(@PathVariable Long id, @Valid @RequestBody UserPasswordUpdateRequest request) {
+        userService.updatePassword(id, request.password());
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteUser(@PathVariable Long id) {
+        userService.deleteUser(id);
+    }
+
+    private ReplicaRoutingDataSource.PrimaryScope pinWhileUsersSettle() {
+        return ReplicaRoutingDataSource.pinToPrimary(versions != null && versions.usersSettling());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.taskmanager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ユーザー総数のキャッシュ。一覧 API のたびに {@code COUNT(*)} を発行しないためのもの。
+ * <p>
+ * 作成・削除で増減させ、バックグラウンドで定期的に実数と突き合わせる。
+ * 突き合わせの間に入った増減は区別できないので、ページングの総件数としては概数として扱う。
+ */
+@Component
+public class UserCountCache implements UserMutationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCountCache.class);
+
+    private final UserRepository userRepository;
+    private final LongAdder total = new LongAdder();
+    private volatile boolean initialized;
+
+    public UserCountCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * キャッシュ済みの総数。初回の集計前だけは同期的に数える。
+     */
+    public long total() {
+        if (!initialized) {
+            refresh();
+        }
+        return Math.max(0, total.sum());
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${taskmanager.user-count.refresh-interval-ms:30000}")
+    public void refresh() {
+        long before = total.sum();
+        long actual;
+        try {
+            actual = userRepository.count();
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh user count", e);
+            return;
+        }
+        long drift = total.sum() - before;
+        total.add(actual + drift - total.sum());
+        initialized = true;
+    }
+
+    @Override
+    public void onCreated(User user) {
+        total.increment();
+    }
+
+    @Override
+    public void onDeleted(User user) {
+        total.decrement();
+    }
+}
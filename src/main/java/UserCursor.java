@@ -0,0 +1,39 @@
+package com.example.taskmanager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * キーセットページング用の不透明なカーソル。中身は直前のページ最後のユーザー ID。
+ * クライアントは中身に依存せず、レスポンスの {@code nextCursor} をそのまま返すこと。
+ */
+final class UserCursor {
+
+    private static final String PREFIX = "u:";
+
+    private UserCursor() {
+    }
+
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * 空文字は先頭ページを表す。
+     */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidCursorException(cursor);
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.taskmanager;
+
+import java.util.List;
+
+/**
+ * キーセットページングの結果。{@code nextCursor} が null なら最終ページ。
+ * {@code totalElements} はキャッシュされた概数。
+ */
+public record UserCursorPage(List<User> content, String nextCursor, long totalElements) {
+}
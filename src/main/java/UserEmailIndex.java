@@ -0,0 +1,276 @@
+package com.example.taskmanager;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * メールアドレスの部分一致検索用のトライグラム転置インデックス。
+ * <p>
+ * 各トライグラムにそれを含むユーザー ID の昇順配列（ポスティング）を持つ。検索時は検索語の
+ * トライグラムのうち最も短いポスティングだけを走査し、候補のメールアドレスを直接照合する。
+ * コストは一番珍しいトライグラムの出現数で決まり、ユーザー数そのものには比例しない。
+ * 3 文字未満の検索語はトライグラムが作れないので全件走査になる。
+ * <p>
+ * 他ノードでの作成・メール変更・削除は {@link ChangeNotificationChannel} から受け取る。通知を取りこぼした
+ * 可能性があるとき（受信用の接続の張り直しなど）は DB の現状と突き合わせて作り直す（{@link #rebuild}）。
+ * <p>
+ * {@code taskmanager.user-search.index=memory}（既定）のときに有効。
+ * {@code database} にすると PostgreSQL の pg_trgm インデックスを使う LIKE 検索になる。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.user-search.index", havingValue = "memory", matchIfMissing = true)
+public class UserEmailIndex implements UserMutationListener, RemoteChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEmailIndex.class);
+
+    static final int GRAM_LENGTH = 3;
+
+    private final UserRepository userRepository;
+    // id -> 小文字化したメールアドレス
+    private final ConcurrentLongMap<String> emails = new ConcurrentLongMap<>();
+    private final ConcurrentLongMap<Posting> postings = new ConcurrentLongMap<>();
+    private volatile boolean ready;
+
+    public UserEmailIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    void load() {
+        for (UserRepository.UserEmailRow row : userRepository.findAllEmails()) {
+            add(row.getId(), row.getEmail());
+        }
+        ready = true;
+        log.info("Indexed {} user emails ({} trigrams)", emails.size(), postings.size());
+    }
+
+    /**
+     * DB の全ユーザーと突き合わせ、メールアドレスの違うものを入れ直し、DB に無いものを外す。
+     * 外すのは読み込み前から載っていた ID だけなので、読み込み中にこのノードで作成されたユーザーは残る。
+     */
+    void rebuild() {
+        long[] before = ids();
+        List<UserRepository.UserEmailRow> rows;
+        try {
+            rows = userRepository.findAllEmails();
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild user email index", e);
+            return;
+        }
+        long[] present = new long[rows.size()];
+        int count = 0;
+        for (UserRepository.UserEmailRow row : rows) {
+            if (!row.getEmail().toLowerCase(Locale.ROOT).equals(emails.get(row.getId()))) {
+                replace(row.getId(), row.getEmail());
+            }
+            present[count++] = row.getId();
+        }
+        Arrays.sort(present);
+        for (long id : before) {
+            if (Arrays.binarySearch(present, id) < 0) {
+                removeById(id);
+            }
+        }
+        log.info("Rebuilt user email index with {} emails", count);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * {@code fragment} を含むメールアドレスを持つユーザー ID を昇順で最大 {@code limit} 件返す。
+     */
+    public long[] search(String fragment, int limit) {
+        String query = fragment.toLowerCase(Locale.ROOT);
+        if (query.length() < GRAM_LENGTH) {
+            return scan(query, limit);
+        }
+        Posting rarest = null;
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            Posting posting = postings.get(gram(query, i));
+            if (posting == null) {
+                return new long[0];
+            }
+            if (rarest == null || posting.size() < rarest.size()) {
+                rarest = posting;
+            }
+        }
+        long[] candidates = rarest.snapshot();
+        long[] matches = new long[Math.min(limit, candidates.length)];
+        int found = 0;
+        for (int i = 0; i < candidates.length && found < matches.length; i++) {
+            String email = emails.get(candidates[i]);
+            if (email != null && email.contains(query)) {
+                matches[found++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(matches, found);
+    }
+
+    public int size() {
+        return emails.size();
+    }
+
+    @Override
+    public void onCreated(User user) {
+        add(user.getId(), user.getEmail());
+    }
+
+    @Override
+    public void onEmailChanged(User user, String previousEmail) {
+        remove(user.getId(), previousEmail);
+        add(user.getId(), user.getEmail());
+    }
+
+    @Override
+    public void onDeleted(User user) {
+        remove(user.getId(), user.getEmail());
+    }
+
+    @Override
+    public void onRemoteUserCreated(long userId, String email) {
+        replace(userId, email);
+    }
+
+    @Override
+    public void onRemoteUserChanged(long userId, List<String> emails) {
+        replace(userId, emails.get(emails.size() - 1));
+    }
+
+    @Override
+    public void onRemoteUserDeleted(long userId, List<String> emails) {
+        removeById(userId);
+    }
+
+    @Override
+    public void onRemoteReset() {
+        rebuild();
+    }
+
+    void add(long id, String email) {
+        String normalized = email.toLowerCase(Locale.ROOT);
+        emails.put(id, normalized);
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            posting(gram(normalized, i)).add(id);
+        }
+    }
+
+    void remove(long id, String email) {
+        String normalized = email.toLowerCase(Locale.ROOT);
+        emails.remove(id);
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            Posting posting = postings.get(gram(normalized, i));
+            if (posting != null) {
+                posting.remove(id);
+            }
+        }
+    }
+
+    /**
+     * 載っているアドレスを外してから入れる。外すアドレスは通知ではなく索引から取るので、取りこぼしがあっても古いトライグラムが残らない。
+     */
+    private void replace(long id, String email) {
+        removeById(id);
+        add(id, email);
+    }
+
+    private void removeById(long id) {
+        String current = emails.get(id);
+        if (current != null) {
+            remove(id, current);
+        }
+    }
+
+    private long[] ids() {
+        long[] ids = new long[emails.size()];
+        int[] count = {0};
+        emails.forEach((id, email) -> {
+            if (count[0] < ids.length) {
+                ids[count[0]++] = id;
+            }
+        });
+        return Arrays.copyOf(ids, count[0]);
+    }
+
+    private long[] scan(String query, int limit) {
+        long[] matches = new long[limit];
+        int[] found = {0};
+        emails.forEach((id, email) -> {
+            if (found[0] < limit && email.contains(query)) {
+                matches[found[0]++] = id;
+            }
+        });
+        long[] result = Arrays.copyOf(matches, found[0]);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private Posting posting(long gram) {
+        Posting posting = postings.get(gram);
+        if (posting == null) {
+            Posting created = new Posting();
+            posting = postings.putIfAbsent(gram, created);
+            if (posting == null) {
+                posting = created;
+            }
+        }
+        return posting;
+    }
+
+    private static long gram(String s, int offset) {
+        return ((long) s.charAt(offset) << 32) | ((long) s.charAt(offset + 1) << 16) | s.charAt(offset + 2);
+    }
+
+    /**
+     * 昇順に保った ID 配列。ID は概ね増加順に来るので追加はほぼ末尾への追記で済む。
+     */
+    static final class Posting {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        synchronized void add(long id) {
+            int pos;
+            if (size == 0 || ids[size - 1] < id) {
+                pos = size;
+            } else {
+                pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) {
+                    return;
+                }
+                pos = -pos - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        synchronized void remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
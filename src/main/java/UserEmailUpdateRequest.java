@@ -0,0 +1,8 @@
+package com.example.taskmanager;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record UserEmailUpdateRequest(@NotBlank @Email @Size(max = 100) String email) {
+}
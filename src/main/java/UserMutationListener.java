@@ -0,0 +1,21 @@
+package com.example.taskmanager;
+
+/**
+ * {@link UserService} の更新をコミット後に受け取るリスナー。
+ * <p>
+ * 渡される {@link User} は呼び出し元と共有されているので、保持する場合はコピーすること。
+ */
+public interface UserMutationListener {
+
+    default void onCreated(User user) {
+    }
+
+    default void onEmailChanged(User user, String previousEmail) {
+    }
+
+    default void onPasswordChanged(User user) {
+    }
+
+    default void onDeleted(User user) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.taskmanager;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class UserNotFoundException extends RuntimeException {
+
+    public UserNotFoundException(Long id) {
+        super("User not found: " + id);
+    }
+
+    public UserNotFoundException(String email) {
+        super("User not found: " + email);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.taskmanager;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record UserPasswordUpdateRequest(@NotBlank @Size(min = 8, max = 72) String password) {
+}
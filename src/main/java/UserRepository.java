@@ -0,0 +1,57 @@
+package com.example.taskmanager;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserRepository extends JpaRepository<User, Long> {
+
+    Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    /**
+     * 部分一致検索。PostgreSQL では db/migration で作る pg_trgm GIN インデックスが使われる。
+     */
+    @Query("select u from User u where lower(u.email) like concat('%', lower(:fragment), '%') order by u.id")
+    List<User> searchByEmail(@Param("fragment") String fragment, Pageable pageable);
+
+    List<User> findAllByIdIn(List<Long> ids);
+
+    /**
+     * キーセットページング。主キーのインデックスを {@code afterId} から読むので、何ページ目でもコストが変わらない。
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * OFFSET ページング用。戻り値が List なので Page と違って COUNT クエリを発行しない。
+     */
+    List<User> findAllByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * パスワードハッシュだけを 1 文で更新し、更新した行数を返す。ハッシュ計算をトランザクションの外で済ませた
+     * 呼び出し側が使うので、この文だけの短いトランザクションで実行する。
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.passwordHash = :hash where u.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("hash") String hash);
+
+    @Query("select u.id as id, u.email as email from User u")
+    List<UserEmailRow> findAllEmails();
+
+    interface UserEmailRow {
+        Long getId();
+
+        String getEmail();
+    }
+}
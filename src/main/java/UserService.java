@@ -0,0 +1,340 @@
+package com.example.taskmanager;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.Nullable;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+@Service
+@Transactional
+public class UserService {
+
+    // 一意制約違反の SQLState（PostgreSQL / H2 共通）
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    // null のときは呼び出しスレッドで直接ハッシュ計算する
+    private final PasswordHashingExecutor hashingExecutor;
+    // taskmanager.user-search.index=database のときは null で、検索は LIKE クエリになる
+    private final UserEmailIndex emailIndex;
+    // null のときは作成前に毎回 existsByEmail で確認する
+    private final EmailBloomFilter emailBloomFilter;
+    // null のときはページごとに COUNT する
+    private final UserCountCache userCountCache;
+    // null のときは毎回リポジトリから読む
+    private final UserCache userCache;
+    private final List<UserMutationListener> listeners;
+    private final int maxSearchResults;
+    private volatile String unknownUserHash;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+        this(userRepository, passwordEncoder, null, null, null, null, null, List.of(), 100);
+    }
+
+    @Autowired
+    public UserService(UserRepository userRepository,
+                       PasswordEncoder passwordEncoder,
+                       @Nullable PasswordHashingExecutor hashingExecutor,
+                       @Nullable UserEmailIndex emailIndex,
+                       @Nullable EmailBloomFilter emailBloomFilter,
+                       @Nullable UserCountCache userCountCache,
+                       @Nullable UserCache userCache,
+                       ObjectProvider<UserMutationListener> listeners,
+                       @Value("${taskmanager.user-search.max-results:100}") int maxSearchResults) {
+        this(userRepository, passwordEncoder, hashingExecutor, emailIndex, emailBloomFilter, userCountCache, userCache,
+                listeners.orderedStream().toList(), maxSearchResults);
+    }
+
+    UserService(UserRepository userRepository,
+                PasswordEncoder passwordEncoder,
+                PasswordHashingExecutor hashingExecutor,
+                UserEmailIndex emailIndex,
+                EmailBloomFilter emailBloomFilter,
+                UserCountCache userCountCache,
+                UserCache userCache,
+                List<UserMutationListener> listeners,
+                int maxSearchResults) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
+        this.emailIndex = emailIndex;
+        this.emailBloomFilter = emailBloomFilter;
+        this.userCountCache = userCountCache;
+        this.userCache = userCache;
+        this.listeners = listeners;
+        this.maxSearchResults = maxSearchResults;
+    }
+
+    /**
+     * ユーザーを作成する。重複は一意制約違反で検出するので、通常は INSERT 1 回で済む。
+     * <p>
+     * ブルームフィルタが「登録済みかもしれない」と答えたときだけ事前に存在確認し、
+     * 明らかな重複で bcrypt の計算を無駄にしないようにする。
+     * トランザクションの外で実行するのは、ハッシュ計算中にコネクションを握らないため
+     * （INSERT はリポジトリ側のトランザクションで行われる）。
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public User createUser(String username, String email, String rawPassword) {
+        boolean mightExist = emailBloomFilter == null || emailBloomFilter.mightContain(email);
+        if (mightExist && userRepository.existsByEmail(email)) {
+            throw new DuplicateEmailException(email);
+        }
+        User user = new User(username, email, encode(rawPassword));
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConstraintViolation(e)) {
+                throw new DuplicateEmailException(email);
+            }
+            throw e;
+        }
+        publish(listener -> listener.onCreated(saved));
+        return saved;
+    }
+
+    /**
+     * メールアドレスとパスワードを照合する。失敗時は {@link InvalidCredentialsException}。
+     * <p>
+     * {@link #createUser} と同じくトランザクションの外で実行し、ユーザーの読み込みだけをリポジトリ側の短い
+     * トランザクションで行う。bcrypt の照合（ハッシュ用プールの待ちを含む）の間はコネクションを握らない。
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public User authenticate(String email, String rawPassword) {
+        User user = userRepository.findByEmail(email).orElse(null);
+        boolean matches = hashingExecutor != null
+                ? hashingExecutor.matches(rawPassword, hashFor(user))
+                : passwordEncoder.matches(rawPassword, hashFor(user));
+        if (user == null || !matches) {
+            throw new InvalidCredentialsException();
+        }
+        return user;
+    }
+
+    /**
+     * ユーザーの検索だけを呼び出しスレッドで行い、パスワード照合はハッシュ用プールに任せる。
+     * 読み込みは {@link #authenticate} と同じくリポジトリ側のトランザクションで済ませる。
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<User> authenticateAsync(String email, String rawPassword) {
+        if (hashingExecutor == null) {
+            return CompletableFuture.completedFuture(authenticate(email, rawPassword));
+        }
+        User user = userRepository.findByEmail(email).orElse(null);
+        return hashingExecutor.matchesAsync(rawPassword, hashFor(user))
+                .thenApply(matches -> {
+                    if (user == null || !matches) {
+                        throw new InvalidCredentialsException();
+                    }
+                    return user;
+                });
+    }
+
+    /**
+     * キャッシュがあればそこから返す。返したインスタンスは共有されているので変更しないこと。
+     * キャッシュに載せる行はレプリカではなくプライマリから読む（更新直後の古い行をキャッシュに残さない）。
+     */
+    @Transactional(readOnly = true)
+    public User findById(Long id) {
+        User user = userCache != null
+                ? userCache.getById(id, key -> loadForCache(() -> userRepository.findById(key)))
+                : userRepository.findById(id).orElse(null);
+        if (user == null) {
+            throw new UserNotFoundException(id);
+        }
+        return user;
+    }
+
+    @Transactional(readOnly = true)
+    public User findByEmail(String email) {
+        User user = userCache != null
+                ? userCache.getByEmail(email, key -> loadForCache(() -> userRepository.findByEmail(key)))
+                : userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            throw new UserNotFoundException(email);
+        }
+        return user;
+    }
+
+    /**
+     * OFFSET ページング。総件数は {@link UserCountCache} のキャッシュ値を使い、ページごとの COUNT を省く。
+     */
+    @Transactional(readOnly = true)
+    public Page<User> getAllUsers(Pageable pageable) {
+        if (userCountCache == null) {
+            return userRepository.findAll(pageable);
+        }
+        List<User> content = userRepository.findAllByOrderByIdAsc(pageable);
+        return new PageImpl<>(content, pageable, userCountCache.total());
+    }
+
+    /**
+     * キーセットページング。{@code cursor} が空なら先頭から。
+     */
+    @Transactional(readOnly = true)
+    public UserCursorPage getUsersAfter(String cursor, int size) {
+        long afterId = UserCursor.decode(cursor);
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1));
+        boolean hasNext = rows.size() > size;
+        List<User> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? UserCursor.encode(content.get(content.size() - 1).getId()) : null;
+        long total = userCountCache != null ? userCountCache.total() : userRepository.count();
+        return new UserCursorPage(List.copyOf(content), nextCursor, total);
+    }
+
+    @Transactional(readOnly = true)
+    public List<User> getAllUsers() {
+        return userRepository.findAll();
+    }
+
+    /**
+     * メールアドレスの部分一致検索。インメモリインデックスが使えれば候補 ID を引いてから主キーで読む。
+     */
+    @Transactional(readOnly = true)
+    public List<User> searchByEmail(String fragment) {
+        if (emailIndex != null && emailIndex.isReady()) {
+            long[] ids = emailIndex.search(fragment, maxSearchResults);
+            if (ids.length == 0) {
+                return List.of();
+            }
+            List<Long> boxed = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                boxed.add(id);
+            }
+            List<User> users = new ArrayList<>(userRepository.findAllByIdIn(boxed));
+            users.sort(Comparator.comparing(User::getId));
+            return users;
+        }
+        return userRepository.searchByEmail(fragment, PageRequest.of(0, maxSearchResults));
+    }
+
+    public User updateEmail(Long id, String email) {
+        User user = loadForUpdate(id);
+        String previousEmail = user.getEmail();
+        if (previousEmail.equals(email)) {
+            return user;
+        }
+        if (userRepository.existsByEmail(email)) {
+            throw new DuplicateEmailException(email);
+        }
+        user.setEmail(email);
+        // 確認と書き込みの間に同じアドレスが登録されることがあるので、ここでフラッシュして一意制約違反を拾う
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConstraintViolation(e)) {
+                throw new DuplicateEmailException(email);
+            }
+            throw e;
+        }
+        publish(listener -> listener.onEmailChanged(saved, previousEmail));
+        return saved;
+    }
+
+    /**
+     * パスワードを変更する。{@link #createUser} と同じく、ハッシュ計算中にコネクションを握らないよう
+     * トランザクションの外で計算し、書き込みはハッシュ列だけの UPDATE 1 文で行う
+     * （読んだ行を丸ごと書き戻さないので、その間の他の更新を上書きしない）。
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public User updatePassword(Long id, String rawPassword) {
+        User user = loadForUpdate(id);
+        String hash = encode(rawPassword);
+        if (userRepository.updatePasswordHash(id, hash) == 0) {
+            throw new UserNotFoundException(id);
+        }
+        user.setPasswordHash(hash);
+        publish(listener -> listener.onPasswordChanged(user));
+        return user;
+    }
+
+    public void deleteUser(Long id) {
+        User user = loadForUpdate(id);
+        userRepository.delete(user);
+        publish(listener -> listener.onDeleted(user));
+    }
+
+    private static User loadForCache(Supplier<Optional<User>> query) {
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.pinToPrimary()) {
+            return query.get().orElse(null);
+        }
+    }
+
+    /**
+     * 更新用にリポジトリから直接読む。キャッシュ上の共有インスタンスを書き換えないため。
+     */
+    private User loadForUpdate(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException(id));
+    }
+
+    /**
+     * メールアドレスの一意制約（{@link User#EMAIL_CONSTRAINT}）に違反したか。制約名は Hibernate が方言ごとに
+     * 取り出したものを使い、取れなければ一意制約違反の SQLState のメッセージから探す。
+     * H2 では制約名ではなく裏の索引名（{@code PUBLIC.USERS_EMAIL_KEY_INDEX_4} など）になるので、部分一致で見る。
+     */
+    static boolean isEmailConstraintViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return isEmailConstraint(violation.getConstraintName());
+            }
+            if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+                return sql.getMessage() != null && isEmailConstraint(sql.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private static boolean isEmailConstraint(String name) {
+        return name.toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
+    }
+
+    private String encode(String rawPassword) {
+        return hashingExecutor != null ? hashingExecutor.encode(rawPassword) : passwordEncoder.encode(rawPassword);
+    }
+
+    /**
+     * 存在しないユーザーでも同じだけハッシュ計算させ、応答時間からメールアドレスの登録有無が分からないようにする。
+     */
+    private String hashFor(User user) {
+        if (user != null) {
+            return user.getPasswordHash();
+        }
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode("unknown-user-placeholder");
+            unknownUserHash = hash;
+        }
+        return hash;
+    }
+
+    private void publish(Consumer<UserMutationListener> event) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> listeners.forEach(event));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.taskmanager;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * ユーザーとタスクの割り当て（{@code user_tasks} の 1 行）。
+ * <p>
+ * 読み書きは {@link UserTaskOperations} が JDBC で行う。エンティティとして宣言しているのは、
+ * スキーマの検証とテスト用のテーブル生成の対象にするため。
+ */
+@Entity
+@Table(name = "user_tasks")
+@IdClass(UserTask.Key.class)
+public class UserTask {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    protected UserTask() {
+    }
+
+    public UserTask(Long userId, Long taskId) {
+        this.userId = userId;
+        this.taskId = taskId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long userId;
+        private Long taskId;
+
+        public Key() {
+        }
+
+        public Key(Long userId, Long taskId) {
+            this.userId = userId;
+            this.taskId = taskId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(userId, key.userId) && Objects.equals(taskId, key.taskId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, taskId);
+        }
+    }
+}
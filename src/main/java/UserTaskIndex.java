@@ -0,0 +1,227 @@
+package com.example.taskmanager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * ユーザー → 割り当てられたタスク ID の隣接リスト。
+ * <p>
+ * ユーザーごとに昇順の {@code long[]} を 1 本持つので、ボクシングもノードも無く、ページの切り出しは二分探索と
+ * 配列コピーだけで済む。初回参照時に {@code user_tasks} の主キーから読み込み（{@link #taskIds}）、
+ * 以後は作成・削除のコミット後イベントで配列を差し替えて最新に保つ。
+ * <p>
+ * 上限は保持する ID の総数（{@code max-ids}）で、超えたら Caffeine の W-TinyLFU で参照の少ないユーザーから追い出す。
+ * 追い出されたユーザーは次の参照で DB から読み直す。他ノードでの割り当てと削除は
+ * {@link ChangeNotificationChannel} から受け取るが、取りこぼしに備えて書き込みから一定時間で失効させる。
+ * <p>
+ * 削除イベントにはユーザーが含まれないので、索引に載っているタスク → ユーザーの逆引きを別に持つ。
+ * {@code user_tasks} では 1 つのタスクを複数のユーザーに割り当てられるので、逆引きの値もユーザー ID の昇順配列。
+ * <p>
+ * 返す配列は共有されているので変更しないこと。
+ */
+@Component
+@ConditionalOnProperty(name = "taskmanager.user-task-index.enabled", havingValue = "true", matchIfMissing = true)
+public class UserTaskIndex implements TaskMutationListener, UserMutationListener, RemoteChangeListener {
+
+    private final Cache<Long, long[]> byUser;
+    private final ConcurrentLongMap<long[]> owners = new ConcurrentLongMap<>();
+
+    public UserTaskIndex(@Value("${taskmanager.user-task-index.max-ids:5000000}") long maxIds,
+                         @Value("${taskmanager.user-task-index.expire-after-write:10m}") Duration expireAfterWrite,
+                         MeterRegistry meterRegistry) {
+        this.byUser = Caffeine.newBuilder()
+                .maximumWeight(maxIds)
+                .weigher((Long userId, long[] ids) -> ids.length + 1)
+                .expireAfterWrite(expireAfterWrite)
+                // 追い出しと同じ操作の中で呼ばれるので、直後の再読み込みと逆引きが食い違わない
+                .evictionListener((Long userId, long[] ids, RemovalCause cause) -> forgetOwners(userId, ids))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUser, "userTasks");
+    }
+
+    /**
+     * ユーザーのタスク ID を昇順で返す。索引に無ければ {@code loader} で読み込んで載せる。
+     */
+    public long[] taskIds(long userId, LongFunction<long[]> loader) {
+        return byUser.get(userId, key -> {
+            long[] ids = loader.apply(key);
+            for (long id : ids) {
+                addOwner(id, key);
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * 解決できなかった（削除済みの）ID を索引から外す。削除イベントより先に読み込まれた配列の後始末に使う。
+     */
+    public void forget(long userId, long... taskIds) {
+        for (long taskId : taskIds) {
+            removeOwner(taskId, userId);
+            byUser.asMap().computeIfPresent(userId, (key, ids) -> without(ids, taskId));
+        }
+    }
+
+    /**
+     * タスクがユーザーに割り当てられた。
+     */
+    public void assigned(long userId, long taskId) {
+        // 載っていないユーザーは次の参照で DB から読むので何もしない
+        byUser.asMap().computeIfPresent(userId, (key, ids) -> {
+            addOwner(taskId, key);
+            return with(ids, taskId);
+        });
+    }
+
+    public void taskDeleted(long taskId) {
+        long[] users = owners.remove(taskId);
+        if (users != null) {
+            for (long userId : users) {
+                byUser.asMap().computeIfPresent(userId, (key, ids) -> without(ids, taskId));
+            }
+        }
+    }
+
+    public void userDeleted(long userId) {
+        // user_tasks は ON DELETE CASCADE で消えている
+        long[] ids = byUser.asMap().remove(userId);
+        if (ids != null) {
+            forgetOwners(userId, ids);
+        }
+    }
+
+    /**
+     * 変更を取りこぼした可能性があるとき（通知チャネルの再接続時など）に全て捨てる。
+     */
+    public void invalidateAll() {
+        byUser.invalidateAll();
+        owners.clear();
+    }
+
+    @Override
+    public void onAssigned(Task task, long userId) {
+        assigned(userId, task.getId());
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        taskDeleted(task.getId());
+    }
+
+    @Override
+    public void onDeleted(User user) {
+        userDeleted(user.getId());
+    }
+
+    @Override
+    public void onRemoteTaskAssigned(long taskId, long userId) {
+        assigned(userId, taskId);
+    }
+
+    @Override
+    public void onRemoteTaskDeleted(long taskId) {
+        taskDeleted(taskId);
+    }
+
+    @Override
+    public void onRemoteUserDeleted(long userId, List<String> emails) {
+        userDeleted(userId);
+    }
+
+    @Override
+    public void onRemoteReset() {
+        invalidateAll();
+    }
+
+    /**
+     * 昇順の {@code ids} から {@code after} より大きい ID を先頭から最大 {@code limit} 件切り出す。
+     * {@code after} が null なら先頭から。
+     */
+    public static long[] page(long[] ids, Long after, int limit) {
+        int from = 0;
+        if (after != null) {
+            int found = Arrays.binarySearch(ids, after);
+            from = found >= 0 ? found + 1 : -found - 1;
+        }
+        return Arrays.copyOfRange(ids, from, Math.min(ids.length, from + limit));
+    }
+
+    private void forgetOwners(long userId, long[] ids) {
+        for (long id : ids) {
+            removeOwner(id, userId);
+        }
+    }
+
+    private void addOwner(long taskId, long userId) {
+        while (true) {
+            long[] current = owners.get(taskId);
+            if (current == null) {
+                if (owners.putIfAbsent(taskId, new long[]{userId}) == null) {
+                    return;
+                }
+            } else {
+                long[] updated = with(current, userId);
+                if (updated == current || owners.replace(taskId, current, updated)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void removeOwner(long taskId, long userId) {
+        while (true) {
+            long[] current = owners.get(taskId);
+            if (current == null) {
+                return;
+            }
+            long[] updated = without(current, userId);
+            if (updated == current) {
+                return;
+            }
+            // 配列の equals は同一性なので、remove(key, value) も読んだときのままの場合だけ消す
+            boolean done = updated.length == 0
+                    ? owners.remove(taskId, current)
+                    : owners.replace(taskId, current, updated);
+            if (done) {
+                return;
+            }
+        }
+    }
+
+    // with / without は昇順配列への追加と削除。変化が無ければ同じ配列を返す
+    private static long[] with(long[] ids, long taskId) {
+        int found = Arrays.binarySearch(ids, taskId);
+        if (found >= 0) {
+            return ids;
+        }
+        int at = -found - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, at);
+        updated[at] = taskId;
+        System.arraycopy(ids, at, updated, at + 1, ids.length - at);
+        return updated;
+    }
+
+    private static long[] without(long[] ids, long taskId) {
+        int found = Arrays.binarySearch(ids, taskId);
+        if (found < 0) {
+            return ids;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, found);
+        System.arraycopy(ids, found + 1, updated, found, ids.length - found - 1);
+        return updated;
+    }
+}
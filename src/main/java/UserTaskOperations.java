@@ -0,0 +1,18 @@
+package com.example.taskmanager;
+
+/**
+ * {@link TaskRepository} にユーザーとタスクの割り当て（{@code user_tasks}）の操作を追加するフラグメント。
+ */
+public interface UserTaskOperations {
+
+    /**
+     * タスクをユーザーに割り当てる。ユーザーが存在しなければ何もせず false を返す。
+     */
+    boolean assignToUser(long taskId, long userId);
+
+    /**
+     * ユーザーに割り当てられたタスクの ID を昇順で返す。主キー {@code (user_id, task_id)} だけで答えられるので
+     * テーブル本体は読まない。
+     */
+    long[] findTaskIdsByUser(long userId);
+}
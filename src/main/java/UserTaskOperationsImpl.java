@@ -0,0 +1,53 @@
+package com.example.taskmanager;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+
+/**
+ * 割り当ての追加と ID の読み出しを JDBC で行う。
+ * <p>
+ * 追加は {@code users} から選ぶ INSERT ... SELECT 1 文なので、存在確認のための往復が要らない
+ * （ユーザーが無ければ 0 行になる）。同じトランザクションで保存したばかりのタスクが見えるよう、
+ * 実行前に永続化コンテキストをフラッシュする。
+ */
+class UserTaskOperationsImpl implements UserTaskOperations {
+
+    private static final String ASSIGN =
+            "insert into user_tasks (user_id, task_id) select id, ? from users where id = ?";
+    private static final String FIND_TASK_IDS =
+            "select task_id from user_tasks where user_id = ? order by task_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    UserTaskOperationsImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public boolean assignToUser(long taskId, long userId) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.flush();
+        }
+        return jdbcTemplate.update(ASSIGN, taskId, userId) == 1;
+    }
+
+    @Override
+    public long[] findTaskIdsByUser(long userId) {
+        return jdbcTemplate.query(FIND_TASK_IDS, rs -> {
+            long[] ids = new long[16];
+            int size = 0;
+            while (rs.next()) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size++] = rs.getLong(1);
+            }
+            return Arrays.copyOf(ids, size);
+        }, userId);
+    }
+}
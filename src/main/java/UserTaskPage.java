@@ -0,0 +1,10 @@
+package com.example.taskmanager;
+
+import java.util.List;
+
+/**
+ * ユーザーのタスクの 1 ページ（ID 昇順）。{@code nextAfter} を次の {@code after} に渡すと続きを返す。null なら最終ページ。
+ * {@code total} は割り当て件数で、削除の反映前は実際より多いことがある。
+ */
+public record UserTaskPage(List<Task> tasks, Long nextAfter, int total) {
+}
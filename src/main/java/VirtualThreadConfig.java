@@ -0,0 +1,52 @@
+package com.example.taskmanager;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 仮想スレッドモード（{@code spring.threads.virtual.enabled=true}）用の設定。
+ * <p>
+ * Spring Boot がこのプロパティで Tomcat のリクエスト処理やスケジューラを仮想スレッドに切り替える。
+ * ここでは DataSource を {@link ConnectionLimitingDataSource} で包み、仮想スレッドの数が
+ * コネクションプールの大きさを超えてプールに殺到しないようにする。
+ * bcrypt は CPU 処理なので引き続き {@link PasswordHashingExecutor} のプラットフォームスレッドで実行する。
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${taskmanager.virtual-threads.connection-wait-ms:2000}") long maxWaitMillis,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(
+                        hikari, hikari.getMaximumPoolSize(), maxWaitMillis);
+                meterRegistry.ifAvailable(registry -> {
+                    // 読み書き分離ではプールが 2 つになるので、Bean 名で区別する
+                    Gauge.builder("jdbc.connections.permits.available", limited,
+                            ConnectionLimitingDataSource::availablePermits)
+                            .tag("pool", beanName).register(registry);
+                    Gauge.builder("jdbc.connections.permits.waiting", limited,
+                            ConnectionLimitingDataSource::queueLength)
+                            .tag("pool", beanName).register(registry);
+                });
+                return limited;
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+-- PostgreSQL のスキーマ。起動時に Flyway が適用し、Hibernate は ddl-auto=validate で照合だけ行う。
+-- エンティティ（@Table / @Column）を変えたら、このファイルを直さずに次の版のマイグレーションを追加すること
+
+-- タスクテーブル
+-- id の採番には tasks_id_seq が作られ、TaskIdAllocator がバッチ作成用に nextval でまとめて確保する
+-- （pg_get_serial_sequence('tasks', 'id') で引くので名前が違っても動く）。
+-- シーケンスを持たない DB（テストの H2）では POST /api/tasks/batch も INSERT 時の自動採番を使う。
+-- updated_at は更新する側（エンティティの @PreUpdate と JDBC の UPDATE 文）が設定する
+CREATE TABLE IF NOT EXISTS tasks (
+    id BIGSERIAL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    priority VARCHAR(10) DEFAULT 'MEDIUM' CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH')),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- ユーザーテーブル
+CREATE TABLE IF NOT EXISTS users (
+    id BIGSERIAL PRIMARY KEY,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- 重複登録の判定は制約名で行う（User.EMAIL_CONSTRAINT）
+    CONSTRAINT users_email_key UNIQUE (email)
+);
+
+-- タスクとユーザーの関連テーブル
+CREATE TABLE IF NOT EXISTS user_tasks (
+    user_id BIGINT,
+    task_id BIGINT,
+    PRIMARY KEY (user_id, task_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE
+);
+
+-- インデックスの作成
+-- 一覧 API（TaskSummary）が読む列をすべてキーに含めたカバリングインデックス（Task の @Table と揃えること）。
+-- 先頭列が絞り込み条件、次が既定の並び順（id）なので、絞り込み + id 順 + LIMIT はソート無しで先頭から読むだけ。
+-- 作成日時の範囲や sort=createdAt は idx_tasks_created_at を使い、completed / priority はインデックス内で絞る。
+-- 実行計画は scripts/explain-task-queries.sql で確認できる
+CREATE INDEX IF NOT EXISTS idx_tasks_completed_id ON tasks(completed, id, created_at, priority, title);
+CREATE INDEX IF NOT EXISTS idx_tasks_priority_id ON tasks(priority, id, created_at, completed, title);
+CREATE INDEX IF NOT EXISTS idx_tasks_created_at ON tasks(created_at, id, completed, priority, title);
+-- ユーザーごとのタスク ID は主キー (user_id, task_id) だけで読める。逆向きはタスク削除時の
+-- ON DELETE CASCADE が user_tasks を全件走査しないためのもの
+CREATE INDEX IF NOT EXISTS idx_user_tasks_task ON user_tasks(task_id, user_id);
+
+-- レプリカの遅延計測用（ReplicaLagMonitor がプライマリで 1 行を更新し続ける）
+CREATE TABLE IF NOT EXISTS replication_heartbeat (
+    id INT PRIMARY KEY,
+    beat_at TIMESTAMP NOT NULL
+);
+INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, CURRENT_TIMESTAMP) ON CONFLICT (id) DO NOTHING;
+
+-- パイプライン実行（GitHub Actions のワークフローラン）。id は GitHub の run id
+CREATE TABLE IF NOT EXISTS pipelines (
+    id BIGINT PRIMARY KEY,
+    repository VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    branch VARCHAR(255),
+    commit_sha VARCHAR(40),
+    author VARCHAR(255),
+    author_avatar VARCHAR(512),
+    duration_seconds BIGINT DEFAULT 0,
+    start_time TIMESTAMP,
+    end_time TIMESTAMP,
+    workflow_url VARCHAR(512),
+    workflow_id BIGINT,
+    source_updated_at TIMESTAMP NOT NULL,
+    ingested_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- パイプラインのステージ（ワークフローのジョブ）
+CREATE TABLE IF NOT EXISTS pipeline_stages (
+    pipeline_id BIGINT NOT NULL,
+    id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    duration_seconds BIGINT DEFAULT 0,
+    start_time TIMESTAMP,
+    end_time TIMESTAMP,
+    PRIMARY KEY (pipeline_id, id),
+    FOREIGN KEY (pipeline_id) REFERENCES pipelines(id) ON DELETE CASCADE
+);
+
+-- リポジトリごとの取り込み位置（差分ポーリング用）
+CREATE TABLE IF NOT EXISTS pipeline_ingestion_state (
+    repository VARCHAR(255) PRIMARY KEY,
+    created_since TIMESTAMP,
+    etag VARCHAR(255),
+    etag_created_since TIMESTAMP,
+    resume_page INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_pipelines_repository_start ON pipelines(repository, start_time);
+CREATE INDEX IF NOT EXISTS idx_pipelines_start_time ON pipelines(start_time);
+CREATE INDEX IF NOT EXISTS idx_pipelines_status ON pipelines(status);
@@ -0,0 +1,5 @@
+-- taskmanager.user-search.index=database のとき、メールアドレスの部分一致検索
+-- (lower(email) LIKE '%...%') を順次走査ではなくトライグラム GIN インデックスで処理する。
+-- pg_trgm は PostgreSQL 13 以降 trusted 拡張なので、データベースの所有者なら作成できる
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
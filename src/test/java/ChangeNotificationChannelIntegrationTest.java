@@ -0,0 +1,121 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 実際の PostgreSQL で 2 ノード分のチャネルを動かし、NOTIFY による無効化、自ノードの通知の無視、
+ * 再接続時の全消去を確かめる。Docker が無い環境ではスキップされる。
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ChangeNotificationChannelIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private UserCache cacheA;
+    private UserCache cacheB;
+    private ChangeNotificationChannel nodeA;
+    private ChangeNotificationChannel nodeB;
+
+    @BeforeEach
+    void setUp() {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(POSTGRES.getJdbcUrl());
+        properties.setUsername(POSTGRES.getUsername());
+        properties.setPassword(POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+        cacheA = new UserCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        cacheB = new UserCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        nodeA = channel(properties, cacheA);
+        nodeB = channel(properties, cacheB);
+        nodeA.start();
+        nodeB.start();
+        await(() -> nodeA.isListening() && nodeB.isListening(), "listeners did not connect");
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.stop();
+        nodeB.stop();
+    }
+
+    private ChangeNotificationChannel channel(DataSourceProperties properties, UserCache cache) {
+        return new ChangeNotificationChannel(jdbcTemplate, properties, new ObjectMapper(), List.of(cache), 100, 1024);
+    }
+
+    private static User user(long id) {
+        User user = new User("u" + id, "u" + id + "@example.com", "hash");
+        user.setId(id);
+        return user;
+    }
+
+    private static boolean cached(UserCache cache, long id) {
+        return cache.getById(id, key -> null) != null;
+    }
+
+    private static void await(BooleanSupplier condition, String message) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail(message);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(message);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("他ノードの変更は NOTIFY で届いて無効になり、自ノードの通知は無視する")
+    void shouldInvalidateRemoteAndSkipOwnNotifications() {
+        User first = user(1L);
+        User second = user(2L);
+        cacheA.getById(1L, id -> first);
+        cacheA.getById(2L, id -> second);
+        cacheB.getById(1L, id -> first);
+
+        nodeA.onPasswordChanged(first);
+        await(() -> !cached(cacheB, 1L), "node B did not receive node A's change");
+
+        // A にも自分の通知は届いている。後から送った B の通知が A で反映されたら、その前の自分の通知も処理済み
+        nodeB.onDeleted(second);
+        await(() -> !cached(cacheA, 2L), "node A did not receive node B's change");
+        assertTrue(cached(cacheA, 1L), "node A must ignore its own notification");
+    }
+
+    @Test
+    @DisplayName("受信用の接続が切れたら再接続時にキャッシュを全て捨てる")
+    void shouldClearCacheOnReconnect() {
+        User user = user(3L);
+        cacheB.getById(3L, id -> user);
+
+        // 受信用のコネクション（最後の文が LISTEN）を切断する
+        jdbcTemplate.queryForList("select pg_terminate_backend(pid) from pg_stat_activity "
+                + "where query = 'LISTEN " + ChangeNotificationChannel.CHANNEL + "' and pid <> pg_backend_pid()");
+
+        await(() -> !cached(cacheB, 3L), "cache was not cleared on reconnect");
+        await(nodeB::isListening, "node B did not reconnect");
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 受け取った通知の反映。実際の NOTIFY の送受信と再接続は ChangeNotificationChannelIntegrationTest で確かめる。
+ */
+public class ChangeNotificationChannelTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UserCache userCache = new UserCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+    private final UserTaskIndex userTaskIndex = new UserTaskIndex(1_000, Duration.ofMinutes(10),
+            new SimpleMeterRegistry());
+    private final ResourceVersions versions = new ResourceVersions(false, Duration.ZERO, 0);
+    private final ChangeNotificationChannel channel = new ChangeNotificationChannel(
+            mock(JdbcTemplate.class), new DataSourceProperties(), objectMapper,
+            List.of(userCache, versions, userTaskIndex), 100, 1024);
+
+    private static User user(long id) {
+        User user = new User("u" + id, "u" + id + "@example.com", "hash");
+        user.setId(id);
+        return user;
+    }
+
+    private void cache(User user) {
+        userCache.getById(user.getId(), id -> user);
+        userCache.getByEmail(user.getEmail(), email -> user);
+    }
+
+    private boolean cached(long id) {
+        return userCache.getById(id, key -> null) != null;
+    }
+
+    private String payload(String node, ChangeNotificationChannel.Change... changes) throws Exception {
+        return objectMapper.writeValueAsString(new ChangeNotificationChannel.Message(node, List.of(changes)));
+    }
+
+    @Test
+    @DisplayName("他ノードのユーザー変更でキャッシュを無効にする")
+    void shouldInvalidateOnRemoteUserChange() throws Exception {
+        cache(user(1L));
+        cache(user(2L));
+
+        channel.apply(payload("other-node", new ChangeNotificationChannel.Change(
+                ChangeNotificationChannel.ChangeType.USER_CHANGED, 1L, 0, List.of("u1@example.com"))));
+
+        assertFalse(cached(1L));
+        assertNull(userCache.getByEmail("u1@example.com", email -> null));
+        assertTrue(cached(2L));
+    }
+
+    @Test
+    @DisplayName("他ノードのタスクとユーザーの作成で ETag のタグを進める")
+    void shouldAdvanceTagsOnRemoteChanges() throws Exception {
+        String tasksTag = versions.tasksTag();
+        String taskTag = versions.taskTag(7L);
+        String usersTag = versions.usersTag();
+
+        channel.apply(payload("other-node",
+                new ChangeNotificationChannel.Change(ChangeNotificationChannel.ChangeType.TASK_CHANGED, 7L, 0, null),
+                new ChangeNotificationChannel.Change(ChangeNotificationChannel.ChangeType.USER_CREATED, 8L, 0, List.of("u8@example.com"))));
+
+        assertNotEquals(tasksTag, versions.tasksTag());
+        assertNotEquals(taskTag, versions.taskTag(7L));
+        assertNotEquals(usersTag, versions.usersTag());
+    }
+
+    @Test
+    @DisplayName("自ノードが送った通知は無視する")
+    void shouldSkipOwnNotifications() throws Exception {
+        cache(user(3L));
+
+        channel.apply(payload(channel.nodeId(), new ChangeNotificationChannel.Change(
+                ChangeNotificationChannel.ChangeType.USER_DELETED, 3L, 0, List.of("u3@example.com"))));
+
+        assertTrue(cached(3L));
+    }
+
+    @Test
+    @DisplayName("他ノードの割り当てと削除を索引に反映する")
+    void shouldApplyRemoteAssignmentsToIndex() throws Exception {
+        userTaskIndex.taskIds(4L, userId -> new long[]{10});
+
+        channel.apply(payload("other-node",
+                new ChangeNotificationChannel.Change(ChangeNotificationChannel.ChangeType.TASK_ASSIGNED, 11L, 4L, null),
+                new ChangeNotificationChannel.Change(ChangeNotificationChannel.ChangeType.TASK_DELETED, 10L, 0, null)));
+
+        assertArrayEquals(new long[]{11}, userTaskIndex.taskIds(4L, userId -> fail()));
+    }
+
+    @Test
+    @DisplayName("RESET を受け取ったら全てを捨てる")
+    void shouldClearEverythingOnReset() throws Exception {
+        cache(user(5L));
+        userTaskIndex.taskIds(5L, userId -> new long[]{1});
+
+        channel.apply(payload("other-node", new ChangeNotificationChannel.Change(
+                ChangeNotificationChannel.ChangeType.RESET, 0, 0, null)));
+
+        assertFalse(cached(5L));
+        assertArrayEquals(new long[]{1, 2}, userTaskIndex.taskIds(5L, userId -> new long[]{1, 2}));
+    }
+
+    @Test
+    @DisplayName("壊れたペイロードは無視する")
+    void shouldIgnoreMalformedPayload() {
+        cache(user(6L));
+
+        assertDoesNotThrow(() -> channel.apply("{not json"));
+        assertTrue(cached(6L));
+    }
+}
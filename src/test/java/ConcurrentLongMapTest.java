@@ -0,0 +1,109 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentLongMapTest {
+
+    @Test
+    @DisplayName("put/get/remove が基本動作する")
+    void shouldPutGetAndRemove() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+
+        assertNull(map.put(1L, "a"));
+        assertEquals("a", map.put(1L, "b"));
+        assertEquals("b", map.get(1L));
+        assertEquals(1, map.size());
+
+        assertEquals("b", map.remove(1L));
+        assertNull(map.get(1L));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    @DisplayName("現在値が一致する場合だけ replace が成功する")
+    void shouldReplaceOnlyWhenExpectedMatches() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        String original = "a";
+        map.put(1L, original);
+
+        assertTrue(map.replace(1L, original, "b"));
+        assertFalse(map.replace(1L, original, "c"));
+        assertEquals("b", map.get(1L));
+        assertFalse(map.replace(2L, "x", "y"));
+    }
+
+    @Test
+    @DisplayName("値を指定した remove は現在値が等しい場合だけ削除する")
+    void shouldRemoveOnlyWhenValueMatches() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        map.put(1L, 10L);
+
+        assertFalse(map.remove(1L, 20L));
+        assertEquals(10L, map.get(1L));
+        assertTrue(map.remove(1L, Long.valueOf(10L)));
+        assertNull(map.get(1L));
+        assertEquals(0, map.size());
+        assertFalse(map.remove(2L, 10L));
+    }
+
+    @Test
+    @DisplayName("拡張と削除を繰り返しても値が失われない")
+    void shouldSurviveResizeAndRemoval() {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        for (long i = 1; i <= 10_000; i++) {
+            map.put(i, i);
+        }
+        for (long i = 1; i <= 10_000; i += 2) {
+            map.remove(i);
+        }
+
+        assertEquals(5_000, map.size());
+        for (long i = 2; i <= 10_000; i += 2) {
+            assertEquals(i, map.get(i));
+        }
+        assertNull(map.get(9_999L));
+    }
+
+    @Test
+    @DisplayName("並行して書き込んでも全てのキーが残る")
+    void shouldHandleConcurrentWriters() throws Exception {
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>();
+        int threads = 8;
+        int perThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            long base = (long) t * perThread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long i = 1; i <= perThread; i++) {
+                    map.put(base + i, base + i);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(threads * perThread, map.size());
+        for (long i = 1; i <= (long) threads * perThread; i++) {
+            assertEquals(i, map.get(i));
+        }
+    }
+}
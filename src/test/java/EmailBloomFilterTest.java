@@ -0,0 +1,106 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class EmailBloomFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private EmailBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        UserRepository.UserEmailRow john = row(1L, "john.doe@example.com");
+        UserRepository.UserEmailRow jane = row(2L, "jane.doe@example.com");
+        when(userRepository.findAllEmails()).thenReturn(List.of(john, jane));
+        filter = new EmailBloomFilter(userRepository, 1000, 0.01);
+        filter.load();
+    }
+
+    @Test
+    @DisplayName("登録済みのアドレスは大文字小文字を問わず必ず true")
+    void shouldContainLoadedEmails() {
+        assertTrue(filter.mightContain("john.doe@example.com"));
+        assertTrue(filter.mightContain("Jane.Doe@Example.com"));
+    }
+
+    @Test
+    @DisplayName("偽陽性率は設定値の数倍に収まる")
+    void shouldKeepFalsePositiveRateNearConfigured() {
+        // Given
+        for (int i = 0; i < 1000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("作成とメール変更の通知で新しいアドレスを追加する")
+    void shouldAddEmailsFromMutations() {
+        User created = new User("alice", "alice@example.com", "hash");
+        User changed = new User("bob", "bob.new@example.com", "hash");
+
+        filter.onCreated(created);
+        filter.onEmailChanged(changed, "bob@example.com");
+
+        assertTrue(filter.mightContain("alice@example.com"));
+        assertTrue(filter.mightContain("bob.new@example.com"));
+    }
+
+    @Test
+    @DisplayName("再構築で DB に無くなったアドレスを落とし、再構築中の追加は残す")
+    void shouldRebuildFromDatabase() {
+        // Given: john は削除された。再構築の読み込み中に carol が登録される
+        UserRepository.UserEmailRow jane = row(2L, "jane.doe@example.com");
+        when(userRepository.findAllEmails()).thenAnswer(invocation -> {
+            filter.add("carol@example.com");
+            return List.of(jane);
+        });
+
+        // When
+        filter.rebuild();
+
+        // Then
+        assertTrue(filter.mightContain("jane.doe@example.com"));
+        assertTrue(filter.mightContain("carol@example.com"));
+        assertFalse(filter.mightContain("john.doe@example.com"));
+    }
+
+    @Test
+    @DisplayName("再構築に失敗したら今のビット列を使い続ける")
+    void shouldKeepBitsWhenRebuildFails() {
+        when(userRepository.findAllEmails()).thenThrow(new IllegalStateException("connection refused"));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain("john.doe@example.com"));
+    }
+
+    private static UserRepository.UserEmailRow row(Long id, String email) {
+        UserRepository.UserEmailRow row = mock(UserRepository.UserEmailRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getEmail()).thenReturn(email);
+        return row;
+    }
+}
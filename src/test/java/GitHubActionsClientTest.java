@@ -0,0 +1,104 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ローカルの GitHub API スタブに対してクライアントを動かす。
+ */
+public class GitHubActionsClientTest {
+
+    private static final String RUNS_JSON = """
+            {"total_count": 2, "workflow_runs": [
+              {"id": 11, "name": "CI", "head_branch": "main", "head_sha": "abc", "status": "completed",
+               "conclusion": "success", "workflow_id": 5, "html_url": "https://example.test/11",
+               "created_at": "2024-05-01T10:00:00Z", "updated_at": "2024-05-01T10:05:00Z",
+               "run_started_at": "2024-05-01T10:00:10Z", "actor": {"login": "octo", "avatar_url": "a.png"}},
+              {"id": 12, "name": "CI", "head_branch": "feature", "head_sha": "def", "status": "in_progress",
+               "conclusion": null, "workflow_id": 5, "html_url": "https://example.test/12",
+               "created_at": "2024-05-01T11:00:00Z", "updated_at": "2024-05-01T11:01:00Z",
+               "run_started_at": "2024-05-01T11:00:05Z", "actor": {"login": "octo", "avatar_url": "a.png"}}
+            ]}
+            """;
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private GitHubActionsClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/repos/octo/app/actions/runs", exchange -> {
+            requests.add(exchange.getRequestURI().getRawQuery());
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if ("\"v1\"".equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = RUNS_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        client = new GitHubActionsClient(HttpClient.newHttpClient(), objectMapper,
+                "http://127.0.0.1:" + server.getAddress().getPort(), "", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("ワークフローランを取得し ETag を返す")
+    void shouldListRunsWithEtag() {
+        Instant since = Instant.parse("2024-05-01T00:00:00Z");
+
+        GitHubActionsClient.RunsPage page = client.listRuns("octo/app", since, 1, null);
+
+        assertFalse(page.notModified());
+        assertEquals("\"v1\"", page.etag());
+        assertEquals(2, page.runs().size());
+        assertEquals("main", page.runs().get(0).headBranch());
+        assertEquals("octo", page.runs().get(0).actor().login());
+        assertTrue(requests.get(0).contains("created=%3E%3D2024-05-01T00%3A00%3A00Z"));
+    }
+
+    @Test
+    @DisplayName("ETag が一致すれば 304 として空のページを返す")
+    void shouldReturnNotModifiedForMatchingEtag() {
+        GitHubActionsClient.RunsPage page = client.listRuns("octo/app", null, 1, "\"v1\"");
+
+        assertTrue(page.notModified());
+        assertTrue(page.runs().isEmpty());
+    }
+
+    @Test
+    @DisplayName("次回のカーソルは未完了のうち最古のランの作成時刻")
+    void shouldKeepCursorAtOldestOpenRun() {
+        List<GitHubActionsClient.WorkflowRun> runs = client.listRuns("octo/app", null, 1, null).runs();
+
+        assertEquals(Instant.parse("2024-05-01T11:00:00Z"), PipelineIngestionService.nextCursor(runs, null));
+        assertEquals(Instant.parse("2024-05-01T11:00:00Z"),
+                PipelineIngestionService.nextCursor(runs.subList(0, 1), Instant.parse("2024-05-01T11:00:00Z")));
+    }
+}
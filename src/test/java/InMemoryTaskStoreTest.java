@@ -0,0 +1,132 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class InMemoryTaskStoreTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Captor
+    private ArgumentCaptor<Collection<Task>> rows;
+
+    @Captor
+    private ArgumentCaptor<ParameterizedPreparedStatementSetter<Task>> setter;
+
+    private InMemoryTaskStore store;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(taskRepository.findAll()).thenReturn(List.of(
+                new Task(1L, "Task 1", false),
+                new Task(2L, "Task 2", false),
+                new Task(3L, "Task 3", true)));
+        store = new InMemoryTaskStore(taskRepository, jdbcTemplate, 2);
+        store.load();
+    }
+
+    @Test
+    @DisplayName("同じタスクへの更新はまとめ、現在の状態だけを JDBC のバッチで書き戻す")
+    void shouldCoalesceTogglesIntoOneBatchRow() throws Exception {
+        // Given
+        store.toggleCompletion(1L);
+        store.toggleCompletion(1L);
+        Task latest = store.toggleCompletion(1L);
+
+        // When
+        store.flush();
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(contains("update tasks"), rows.capture(), anyInt(), setter.capture());
+        assertEquals(1, rows.getValue().size());
+        Task written = rows.getValue().iterator().next();
+        assertTrue(written.isCompleted());
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        setter.getValue().setValues(statement, written);
+        verify(statement).setBoolean(1, true);
+        verify(statement).setTimestamp(2, Timestamp.valueOf(latest.getUpdatedAt()));
+        verify(statement).setLong(3, 1L);
+        assertEquals(0, store.pendingMutations());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    @DisplayName("削除はまとめて DELETE し、UPDATE は送らない")
+    void shouldFlushDeletesInBatch() {
+        store.remove(2L);
+        store.remove(3L);
+
+        store.flush();
+
+        verify(taskRepository).deleteAllByIdInBatch(List.of(2L, 3L));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("更新の後に削除されたタスクは UPDATE せずに削除だけ送る")
+    void shouldOnlyDeleteTaskRemovedAfterToggle() {
+        store.toggleCompletion(2L);
+        store.remove(2L);
+
+        store.flush();
+
+        verify(taskRepository).deleteAllByIdInBatch(List.of(2L));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("flush-batch-size ごとに分けて書き戻す")
+    void shouldSplitByFlushBatchSize() {
+        store.toggleCompletion(1L);
+        store.toggleCompletion(2L);
+        store.toggleCompletion(3L);
+
+        store.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), rows.capture(), anyInt(), any());
+        assertEquals(List.of(2, 1), rows.getAllValues().stream().map(Collection::size).toList());
+    }
+
+    @Test
+    @DisplayName("書き戻しに失敗した更新はジャーナルに戻し、次の flush で再送する")
+    void shouldRetryFailedFlush() {
+        // Given
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[][]{{1}});
+        store.toggleCompletion(1L);
+
+        // When
+        store.flush();
+
+        // Then
+        assertEquals(1, store.pendingMutations());
+        assertTrue(store.findById(1L).isCompleted());
+
+        store.flush();
+        assertEquals(0, store.pendingMutations());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricSeriesTest {
+
+    private final MetricSeries series = new MetricSeries(new int[]{1, 60, 3600}, new int[]{120, 60, 24});
+
+    @Test
+    @DisplayName("記録と同時に粗い段へ min/max/avg が畳み込まれる")
+    void shouldRollUpOnRecord() {
+        for (int second = 0; second < 120; second++) {
+            series.record(second, second);
+        }
+
+        MetricRange minutes = series.query(SystemMetric.CPU, 1, 0, 120);
+        assertArrayEquals(new long[]{0, 60_000}, minutes.timestamps());
+        assertArrayEquals(new double[]{0, 60}, minutes.min());
+        assertArrayEquals(new double[]{59, 119}, minutes.max());
+        assertArrayEquals(new double[]{29.5, 89.5}, minutes.avg());
+
+        MetricRange hours = series.query(SystemMetric.CPU, 2, 0, 3600);
+        assertEquals(1, hours.timestamps().length);
+        assertEquals(59.5, hours.avg()[0]);
+        assertEquals(119.0, series.latest());
+    }
+
+    @Test
+    @DisplayName("リングを一周すると古いバケットは上書きされる")
+    void shouldOverwriteOldBuckets() {
+        for (int second = 0; second < 300; second++) {
+            series.record(second, 1.0);
+        }
+
+        MetricRange raw = series.query(SystemMetric.CPU, 0, 0, 300);
+        assertEquals(120, raw.timestamps().length);
+        assertEquals(180_000, raw.timestamps()[0]);
+    }
+
+    @Test
+    @DisplayName("データのない秒は結果に含めない")
+    void shouldSkipEmptyBuckets() {
+        series.record(10, 5.0);
+        series.record(12, 7.0);
+
+        MetricRange raw = series.query(SystemMetric.CPU, 0, 0, 20);
+        assertArrayEquals(new long[]{10_000, 12_000}, raw.timestamps());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("待ち行列が満杯なら即座に拒否する")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        executor = new PasswordHashingExecutor(new BlockingEncoder(), meterRegistry, 1, 1);
+
+        CompletableFuture<String> running = executor.encodeAsync("first");
+        CompletableFuture<String> queued = executor.encodeAsync("second");
+
+        assertThrows(HashingCapacityExceededException.class, () -> executor.encodeAsync("third"));
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hash:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("照合結果と所要時間を記録する")
+    void shouldMatchAndRecordLatency() {
+        release.countDown();
+        executor = new PasswordHashingExecutor(new BlockingEncoder(), meterRegistry, 2, 4);
+
+        assertTrue(executor.matches("secret", "hash:secret"));
+        assertFalse(executor.matches("secret", "hash:other"));
+        assertEquals(2, meterRegistry.get("password.hashing.duration")
+                .tag("operation", "matches").timer().count());
+        assertEquals(0, executor.queueDepth());
+    }
+
+    private final class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return ("hash:" + rawPassword).equals(encodedPassword);
+        }
+
+        private void await() {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class PipelineIngestionServiceTest {
+
+    private static final String REPOSITORY = "octo/app";
+    private static final Instant SINCE = Instant.parse("2024-05-01T00:00:00Z");
+
+    private final GitHubActionsClient client = mock(GitHubActionsClient.class);
+    private final PipelineIngestionRepository repository = mock(PipelineIngestionRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final PipelineIngestionService service = new PipelineIngestionService(
+            client, repository, transactionTemplate, List.of(REPOSITORY), 2, 500);
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(repository.findSourceUpdatedAt(anyList())).thenReturn(Map.of());
+    }
+
+    /**
+     * 新しい順に {@code size} 件。{@code newestMinute} 分から 1 分ずつ古くなる。
+     */
+    private static GitHubActionsClient.RunsPage page(int newestMinute, int size) {
+        List<GitHubActionsClient.WorkflowRun> runs = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Instant created = SINCE.plusSeconds((newestMinute - i) * 60L);
+            runs.add(new GitHubActionsClient.WorkflowRun(newestMinute - i, "ci", "main", "sha", "completed",
+                    "success", 1L, null, created, created, created, null));
+        }
+        return new GitHubActionsClient.RunsPage(false, "\"v1\"", runs);
+    }
+
+    @Test
+    @DisplayName("ページの上限で打ち切ったらカーソルを進めず、次回は続きのページから読む")
+    void shouldResumeInsteadOfSkippingOlderRuns() {
+        when(repository.loadState(REPOSITORY))
+                .thenReturn(new PipelineIngestionRepository.IngestionState(SINCE, null, null, 0));
+        when(client.listRuns(REPOSITORY, SINCE, 1, null)).thenReturn(page(1000, 100));
+        when(client.listRuns(REPOSITORY, SINCE, 2, null)).thenReturn(page(900, 100));
+
+        assertEquals(200, service.ingest(REPOSITORY));
+        verify(repository).saveState(REPOSITORY,
+                new PipelineIngestionRepository.IngestionState(SINCE, null, null, 3));
+
+        when(repository.loadState(REPOSITORY))
+                .thenReturn(new PipelineIngestionRepository.IngestionState(SINCE, null, null, 3));
+        when(client.listRuns(REPOSITORY, SINCE, 3, null)).thenReturn(page(800, 30));
+
+        assertEquals(30, service.ingest(REPOSITORY));
+        verify(repository).saveState(REPOSITORY,
+                new PipelineIngestionRepository.IngestionState(SINCE.plusSeconds(800 * 60L), null, SINCE, 0));
+        verify(client, never()).listRuns(eq(REPOSITORY), any(), eq(4), any());
+    }
+
+    @Test
+    @DisplayName("上限に届かなければ最新のランまでカーソルを進め、ETag を保存する")
+    void shouldAdvanceCursorWhenWalkCompletes() {
+        when(repository.loadState(REPOSITORY))
+                .thenReturn(new PipelineIngestionRepository.IngestionState(SINCE, null, null, 0));
+        when(client.listRuns(REPOSITORY, SINCE, 1, null)).thenReturn(page(50, 40));
+
+        assertEquals(40, service.ingest(REPOSITORY));
+        verify(repository).saveState(REPOSITORY,
+                new PipelineIngestionRepository.IngestionState(SINCE.plusSeconds(50 * 60L), "\"v1\"", SINCE, 0));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PipelineLogStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private PipelineLogStore newStore() {
+        // ブロックとセグメントを小さくして、境界をまたぐ読み取りを通す
+        return new PipelineLogStore(directory.toString(), 256, 1024, 4);
+    }
+
+    private static List<String> appendLines(PipelineLogStore store, long pipelineId, int count) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String line = "step " + i + " " + "=".repeat(i % 40);
+            lines.add(line);
+            store.append(pipelineId, (line + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return lines;
+    }
+
+    @Test
+    @DisplayName("バイト範囲と行範囲で読み取れる")
+    void shouldReadByteAndLineRanges() {
+        PipelineLogStore store = newStore();
+        List<String> lines = appendLines(store, 1L, 500);
+        String all = String.join("\n", lines) + "\n";
+
+        assertEquals(all.length(), store.size(1L));
+        assertEquals(all.substring(1000, 1500),
+                new String(store.readBytes(1L, 1000, 500), StandardCharsets.UTF_8));
+
+        LogLines middle = store.readLines(1L, 120, 10);
+        assertEquals(lines.subList(120, 130), middle.lines());
+        assertEquals(500, middle.totalLines());
+
+        LogLines tail = store.readLines(1L, -3, 10);
+        assertEquals(497, tail.from());
+        assertEquals(lines.subList(497, 500), tail.lines());
+    }
+
+    @Test
+    @DisplayName("開き直しても内容と続きの追記が保たれる")
+    void shouldRecoverAfterReopen() {
+        PipelineLogStore store = newStore();
+        List<String> lines = appendLines(store, 2L, 200);
+        store.append(2L, "unterminated".getBytes(StandardCharsets.UTF_8));
+        store.close();
+
+        PipelineLogStore reopened = newStore();
+        reopened.append(2L, " line\n".getBytes(StandardCharsets.UTF_8));
+
+        LogLines tail = reopened.readLines(2L, -2, 2);
+        assertEquals(List.of(lines.get(199), "unterminated line"), tail.lines());
+        assertEquals(201, tail.totalLines());
+    }
+
+    @Test
+    @DisplayName("追記は購読者にオフセット付きで届く")
+    void shouldNotifySubscribers() {
+        PipelineLogStore store = newStore();
+        store.append(3L, "first\n".getBytes(StandardCharsets.UTF_8));
+        List<LogChunk> received = new ArrayList<>();
+        Runnable unsubscribe = store.subscribe(3L, received::add);
+
+        store.append(3L, "second\n".getBytes(StandardCharsets.UTF_8));
+        unsubscribe.run();
+        store.append(3L, "third\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(1, received.size());
+        assertEquals(6, received.get(0).offset());
+        assertEquals(6, store.nextLineStart(3L, 2));
+    }
+
+    @Test
+    @DisplayName("Range ヘッダーを解釈する")
+    void shouldParseRangeHeader() {
+        assertArrayEquals(new long[]{0, 99}, PipelineLogController.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[]{900, 999}, PipelineLogController.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[]{500, 999}, PipelineLogController.parseRange("bytes=500-", 1000));
+        assertNull(PipelineLogController.parseRange("bytes=1000-", 1000));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PipelineLogTailTest {
+
+    @Test
+    @DisplayName("文字の境界で終わるチャンクはすべて送る")
+    void shouldSendWholeChunkOnCharacterBoundary() {
+        assertEquals(0, PipelineLogTail.completeLength(new byte[0]));
+        assertEquals(4, PipelineLogTail.completeLength(utf8("ok\n!")));
+        assertEquals(7, PipelineLogTail.completeLength(utf8("ビルx")));
+        assertEquals(4, PipelineLogTail.completeLength(utf8("🚀")));
+    }
+
+    @Test
+    @DisplayName("末尾で途切れた多バイト文字は持ち越す")
+    void shouldHoldBackIncompleteTrailingSequence() {
+        byte[] text = utf8("ok ビルド");
+        // "ok " の 3 バイトの後に 3 バイト文字が 3 つ続く
+        for (int cut = 1; cut < 3; cut++) {
+            assertEquals(3, PipelineLogTail.completeLength(Arrays.copyOf(text, 3 + cut)));
+        }
+        assertEquals(6, PipelineLogTail.completeLength(Arrays.copyOf(text, 6)));
+
+        byte[] rocket = utf8("🚀");
+        for (int cut = 1; cut < 4; cut++) {
+            assertEquals(0, PipelineLogTail.completeLength(Arrays.copyOf(rocket, cut)));
+        }
+    }
+
+    @Test
+    @DisplayName("不正なバイト列は持ち越さない")
+    void shouldNotHoldBackInvalidBytes() {
+        assertEquals(4, PipelineLogTail.completeLength(new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80}));
+        assertEquals(2, PipelineLogTail.completeLength(new byte[]{'a', (byte) 0x80}));
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaLagMonitorTest {
+
+    private final JdbcTemplate primary = mock(JdbcTemplate.class);
+    private final JdbcTemplate replica = mock(JdbcTemplate.class);
+    private final ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, replica, Duration.ofSeconds(5),
+            new SimpleMeterRegistry());
+
+    private void lag(double seconds) {
+        when(replica.queryForObject(ReplicaLagMonitor.LAG_SQL, Double.class)).thenReturn(seconds);
+    }
+
+    @Test
+    @DisplayName("遅延が max-lag 以内なら使い、超えたら使わない")
+    void shouldFollowMeasuredLag() {
+        lag(0.3);
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+        verify(primary).update(ReplicaLagMonitor.HEARTBEAT_SQL);
+
+        lag(6);
+        monitor.check();
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @Test
+    @DisplayName("リカバリ中でないインスタンスは遅延 0 扱いにせず使わない")
+    void shouldRejectInstanceNotInRecovery() {
+        lag(ReplicaLagMonitor.NOT_IN_RECOVERY);
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertTrue(Double.isNaN(monitor.lagSeconds()));
+    }
+
+    @Test
+    @DisplayName("WAL を受信していないレプリカは使わない")
+    void shouldRejectReplicaNotReceiving() {
+        lag(0.1);
+        monitor.check();
+        lag(ReplicaLagMonitor.NOT_RECEIVING);
+        monitor.check();
+
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @Test
+    @DisplayName("ハートビートが失敗しても計測は続け、問い合わせの失敗では使わない")
+    void shouldKeepMeasuringWhenHeartbeatFails() {
+        when(primary.update(ReplicaLagMonitor.HEARTBEAT_SQL)).thenThrow(new QueryTimeoutException("timeout"));
+        lag(0.5);
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+
+        when(replica.queryForObject(ReplicaLagMonitor.LAG_SQL, Double.class))
+                .thenThrow(new QueryTimeoutException("timeout"));
+        monitor.check();
+        assertFalse(monitor.isReplicaUsable());
+    }
+}
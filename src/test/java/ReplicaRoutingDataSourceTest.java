@@ -0,0 +1,79 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor, new SimpleMeterRegistry());
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("読み取り専用でなければプライマリを使う")
+    void shouldUsePrimaryForWrites() throws Exception {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    @DisplayName("読み取り専用トランザクションはレプリカを使う")
+    void shouldUseReplicaForReadOnly() throws Exception {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    @DisplayName("レプリカが遅れている間は読み取りもプライマリに戻す")
+    void shouldFallBackToPrimaryWhenReplicaLags() throws Exception {
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("プライマリに固定した範囲では読み取り専用でもプライマリを使う")
+    void shouldUsePrimaryWhilePinned() throws Exception {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.pinToPrimary()) {
+            assertSame(primaryConnection, routing.getConnection());
+        }
+        assertSame(replicaConnection, routing.getConnection());
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.pinToPrimary(false)) {
+            assertSame(replicaConnection, routing.getConnection());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseBytesCacheTest {
+
+    private static final String JSON = "application/json";
+
+    private final ResponseBytesCache cache = new ResponseBytesCache(DataSize.ofKilobytes(64),
+            DataSize.ofKilobytes(4), true, new SimpleMeterRegistry());
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("同じタグならキャッシュしたバイト列をそのまま返す")
+    void shouldServeCachedBodyForSameTag() throws Exception {
+        cache.store(ResponseBytesCache.TASKS, "all", "v1", JSON, bytes("[1,2,3]"), false);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(cache.send(ResponseBytesCache.TASKS, "all", "v1", false, response));
+        assertEquals("[1,2,3]", response.getContentAsString());
+        assertEquals(JSON, response.getContentType());
+
+        assertFalse(cache.send(ResponseBytesCache.TASKS, "all", "v2", false, new MockHttpServletResponse()));
+    }
+
+    @Test
+    @DisplayName("キャッシュしたボディを ResponseEntity で返す")
+    void shouldBuildEntityFromCachedBody() {
+        ResponseEntity<byte[]> stored = cache.store(ResponseBytesCache.USERS, "0:20", "v1", JSON, bytes("{}"), true);
+        assertEquals("gzip", stored.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), stored.getHeaders().getVary());
+
+        ResponseEntity<byte[]> cached = cache.cached(ResponseBytesCache.USERS, "0:20", "v1", false);
+        assertNotNull(cached);
+        assertEquals(HttpStatus.OK, cached.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, cached.getHeaders().getContentType());
+        assertArrayEquals(bytes("{}"), cached.getBody());
+
+        assertNull(cache.cached(ResponseBytesCache.USERS, "0:20", "v2", false));
+    }
+
+    @Test
+    @DisplayName("gzip を受け付けるクライアントには圧縮済みのボディを返す")
+    void shouldServeGzippedBody() throws Exception {
+        cache.store(ResponseBytesCache.USERS, "0:20", "v1", JSON, bytes("{\"content\":[]}"), false);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(cache.send(ResponseBytesCache.USERS, "0:20", "v1", true, response));
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals("{\"content\":[]}", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("流しながら写し取ったボディは commit するまでキャッシュされない")
+    void shouldCacheRecordedBodyOnlyAfterCommit() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ResponseBytesCache.Recording recording = cache.record(ResponseBytesCache.TASKS, "all", "v1", JSON, false, response);
+        recording.write(bytes("[\"streamed\"]"));
+        recording.close();
+        assertEquals("[\"streamed\"]", response.getContentAsString());
+        assertFalse(cache.send(ResponseBytesCache.TASKS, "all", "v1", false, new MockHttpServletResponse()));
+
+        recording.commit();
+        assertTrue(cache.send(ResponseBytesCache.TASKS, "all", "v1", false, new MockHttpServletResponse()));
+    }
+
+    @Test
+    @DisplayName("上限を超えるボディは流すだけでキャッシュしない")
+    void shouldNotCacheOversizedBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ResponseBytesCache.Recording recording = cache.record(ResponseBytesCache.TASKS, "big", "v1", JSON, false, response);
+        recording.write(new byte[5 * 1024]);
+        recording.close();
+        recording.commit();
+
+        assertEquals(5 * 1024, response.getContentAsByteArray().length);
+        assertFalse(cache.send(ResponseBytesCache.TASKS, "big", "v1", false, new MockHttpServletResponse()));
+    }
+
+    @Test
+    @DisplayName("タスクの更新でタスクの名前空間だけが捨てられる")
+    void shouldInvalidateNamespaceOnMutation() throws Exception {
+        cache.store(ResponseBytesCache.TASKS, "all", "v1", JSON, bytes("[]"), false);
+        cache.store(ResponseBytesCache.USERS, "0:20", "v1", JSON, bytes("{}"), false);
+
+        cache.onToggled(new Task(1L, "Task 1", true));
+
+        assertFalse(cache.send(ResponseBytesCache.TASKS, "all", "v1", false, new MockHttpServletResponse()));
+        assertTrue(cache.send(ResponseBytesCache.USERS, "0:20", "v1", false, new MockHttpServletResponse()));
+    }
+}
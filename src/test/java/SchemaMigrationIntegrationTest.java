@@ -0,0 +1,60 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 空の PostgreSQL に db/migration を適用し、本番と同じ ddl-auto=validate でコンテキストが起動することを確かめる。
+ * Docker が無い環境ではスキップされる。
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Testcontainers(disabledWithoutDocker = true)
+public class SchemaMigrationIntegrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("全てのマイグレーションが適用され、エンティティの検証を通る")
+    void shouldMigrateAndValidate() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select version from flyway_schema_history where success order by installed_rank", String.class);
+
+        assertEquals(List.of("1", "2"), versions);
+    }
+
+    @Test
+    @DisplayName("ID の事前確保に使うシーケンスとハートビートの行がある")
+    void shouldProvideSequenceAndHeartbeat() {
+        assertNotNull(jdbcTemplate.queryForObject("select pg_get_serial_sequence('tasks', 'id')", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from replication_heartbeat where id = 1",
+                Integer.class));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskChangeBroadcasterTest {
+
+    private static TaskChangeBroadcaster.TaskChange change(TaskEventType type, boolean completed) {
+        return new TaskChangeBroadcaster.TaskChange(type, new Task(1L, "Task 1", completed));
+    }
+
+    @Test
+    @DisplayName("作成後の変更は作成のまま最新の状態に畳まれる")
+    void shouldKeepCreatedWithLatestState() {
+        TaskChangeBroadcaster.TaskChange merged = TaskChangeBroadcaster.coalesce(
+                change(TaskEventType.CREATED, false), change(TaskEventType.TOGGLED, true));
+
+        assertEquals(TaskEventType.CREATED, merged.type());
+        assertTrue(merged.task().isCompleted());
+    }
+
+    @Test
+    @DisplayName("作成してすぐ削除したタスクは何も送らない")
+    void shouldCancelCreatedThenDeleted() {
+        assertNull(TaskChangeBroadcaster.coalesce(
+                change(TaskEventType.CREATED, false), change(TaskEventType.DELETED, false)));
+    }
+
+    @Test
+    @DisplayName("切り替えの後の変更は後のものだけが残る")
+    void shouldKeepLatestAfterToggle() {
+        assertEquals(TaskEventType.DELETED, TaskChangeBroadcaster.coalesce(
+                change(TaskEventType.TOGGLED, true), change(TaskEventType.DELETED, true)).type());
+        TaskChangeBroadcaster.TaskChange toggled = TaskChangeBroadcaster.coalesce(
+                change(TaskEventType.TOGGLED, true), change(TaskEventType.TOGGLED, false));
+        assertEquals(TaskEventType.TOGGLED, toggled.type());
+        assertFalse(toggled.task().isCompleted());
+    }
+
+    @Test
+    @DisplayName("バッファを超えた購読者には個別の変更の代わりに resync を求める")
+    void shouldResyncWhenBufferOverflows() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TaskChangeBroadcaster broadcaster = new TaskChangeBroadcaster(4, 10_000, 60_000, registry);
+        broadcaster.subscribe();
+
+        // 同じタスクへの変更は畳まれるのでバッファを消費しない
+        for (int i = 0; i < 100; i++) {
+            broadcaster.onToggled(new Task(1L, "Task 1", i % 2 == 0));
+        }
+        assertEquals(0, registry.counter("task.stream.resyncs").count());
+
+        for (long id = 2; id <= 5; id++) {
+            broadcaster.onCreated(new Task(id, "Task " + id, false));
+        }
+        assertEquals(1, registry.counter("task.stream.resyncs").count());
+        assertEquals(1, broadcaster.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("書き出しが詰まった購読者の切断でスケジューラーのスレッドを塞がない")
+    void shouldDropStalledSubscriberWithoutBlockingFlush() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TaskChangeBroadcaster broadcaster = new TaskChangeBroadcaster(16, 50, 60_000, registry);
+        StalledEmitter emitter = new StalledEmitter();
+        broadcaster.subscribe(emitter);
+
+        broadcaster.onCreated(new Task(1L, "Task 1", false));
+        broadcaster.flush();
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+
+        // 書き出し中のスレッドがエミッターのロックを握ったままでも flush はすぐ戻る
+        assertTimeoutPreemptively(Duration.ofSeconds(2), broadcaster::flush);
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(1, registry.counter("task.stream.dropped").count());
+        assertEquals(1, emitter.completed.getCount());
+
+        emitter.release.countDown();
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 書き出しが終わらない接続。ResponseBodyEmitter と同じく send と complete が同じロックを取る。
+     */
+    private static final class StalledEmitter extends SseEmitter {
+
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+    }
+}
@@ -16,6 +16,11 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
 
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureWebMvc
 @TestPropertySource(locations = "classpath:application-test.properties")
@@ -42,6 +47,81 @@ public class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(0))));
     }
     
+    @Test
+    void shouldStreamTasksAsNdjson() throws Exception {
+        TaskCreateRequest request = new TaskCreateRequest("Streamed Task");
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        
+        mockMvc.perform(get("/api/tasks").accept("application/x-ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"title\":\"Streamed Task\"")))
+                .andExpect(content().string(endsWith("\n")));
+    }
+    
+    @Test
+    void shouldFilterAndSortTasks() throws Exception {
+        for (String title : new String[] {"Filtered A", "Filtered B", "Filtered C"}) {
+            mockMvc.perform(post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new TaskCreateRequest(title))))
+                    .andExpect(status().isCreated());
+        }
+        
+        mockMvc.perform(get("/api/tasks")
+                .param("completed", "false")
+                .param("priority", "MEDIUM")
+                .param("sort", "id,desc")
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title", is("Filtered C")))
+                .andExpect(jsonPath("$[1].title", is("Filtered B")))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+    
+    @Test
+    void shouldRejectInvalidTaskQuery() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("sort", "title"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void shouldAnswerNotModifiedForMatchingETag() throws Exception {
+        String etag = mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        
+        mockMvc.perform(get("/api/tasks").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        
+        // NDJSON は別の表現なので同じタグでは 304 にならない
+        mockMvc.perform(get("/api/tasks").accept("application/x-ndjson").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+    
+    @Test
+    void shouldRejectInvalidQueryEvenWithCurrentETag() throws Exception {
+        String etag = mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        
+        // 条件の検証はタグの照合より先に行う
+        mockMvc.perform(get("/api/tasks").param("limit", "0").header("If-None-Match", etag))
+                .andExpect(status().isBadRequest());
+    }
+    
     @Test
     void shouldCreateNewTask() throws Exception {
         TaskCreateRequest request = new TaskCreateRequest("Integration Test Task");
@@ -55,6 +135,36 @@ public class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.id", notNullValue()));
     }
     
+    @Test
+    void shouldCreateTasksInBatch() throws Exception {
+        // H2 には tasks_id_seq が無いので、自動採番の生成キーで ID を受け取る
+        TaskBatchCreateRequest request = new TaskBatchCreateRequest(List.of("Batch A", "Batch B", "Batch C"));
+        
+        String response = mockMvc.perform(post("/api/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[*].title", contains("Batch A", "Batch B", "Batch C")))
+                .andExpect(jsonPath("$[*].id", everyItem(notNullValue())))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        
+        Task[] created = objectMapper.readValue(response, Task[].class);
+        assertEquals(3, Arrays.stream(created).map(Task::getId).distinct().count());
+        
+        // 採番した ID で読め、後続の単発作成と ID が衝突しない
+        mockMvc.perform(get("/api/tasks/{id}", created[1].getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Batch B")));
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TaskCreateRequest("After Batch"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", not(in(Arrays.stream(created).map(task -> task.getId().intValue()).toList()))));
+    }
+    
     @Test
     void shouldUpdateTaskCompletion() throws Exception {
         // まずタスクを作成
@@ -98,6 +208,73 @@ public class TaskControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
     
+    @Test
+    void shouldToggleAndDeleteTasksInBulk() throws Exception {
+        Long[] ids = new Long[2];
+        for (int i = 0; i < ids.length; i++) {
+            String response = mockMvc.perform(post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new TaskCreateRequest("Bulk Task " + i))))
+                    .andExpect(status().isCreated())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            ids[i] = objectMapper.readValue(response, Task.class).getId();
+        }
+        String body = objectMapper.writeValueAsString(new TaskIdsRequest(List.of(ids[0], ids[1], 999999L)));
+        
+        mockMvc.perform(put("/api/tasks/toggle")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].completed", everyItem(is(true))));
+        
+        mockMvc.perform(get("/api/tasks/{id}", ids[0]))
+                .andExpect(jsonPath("$.completed", is(true)));
+        
+        mockMvc.perform(delete("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isNoContent());
+        
+        mockMvc.perform(get("/api/tasks/{id}", ids[1]))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void shouldListTasksOfUser() throws Exception {
+        String user = mockMvc.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UserCreateRequest("owner" + System.nanoTime(), "owner" + System.nanoTime() + "@example.com", "password123"))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long userId = objectMapper.readValue(user, User.class).getId();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new TaskCreateRequest("Owned Task " + i, userId))))
+                    .andExpect(status().isCreated());
+        }
+        
+        mockMvc.perform(get("/api/users/{id}/tasks", userId).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(2)))
+                .andExpect(jsonPath("$.tasks[0].title", is("Owned Task 0")))
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.nextAfter", notNullValue()));
+        
+        mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TaskCreateRequest("Orphan Task", 999999L))))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/999999/tasks"))
+                .andExpect(status().isNotFound());
+    }
+    
     @Test
     void shouldReturnNotFoundForNonExistentTask() throws Exception {
         mockMvc.perform(get("/api/tasks/999"))
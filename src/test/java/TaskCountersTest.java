@@ -0,0 +1,66 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskCountersTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskCounters taskCounters;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        taskCounters = new TaskCounters(taskRepository, null);
+    }
+
+    @Test
+    @DisplayName("作成・切り替え・削除で件数が増減する")
+    void shouldTrackMutations() {
+        Task task = new Task(1L, "Task", false);
+        task.setPriority(TaskPriority.HIGH);
+
+        taskCounters.onCreated(task);
+        assertEquals(1, taskCounters.open());
+        assertEquals(0, taskCounters.completed());
+
+        task.setCompleted(true);
+        taskCounters.onToggled(task);
+        assertEquals(0, taskCounters.open());
+        assertEquals(1, taskCounters.completed());
+        assertEquals(1, taskCounters.count(TaskPriority.HIGH));
+
+        taskCounters.onDeleted(task);
+        assertEquals(0, taskCounters.snapshot().total());
+    }
+
+    @Test
+    @DisplayName("照合で DB の件数に揃う")
+    void shouldReconcileWithRepository() {
+        TaskRepository.TaskCountRow row = mock(TaskRepository.TaskCountRow.class);
+        when(row.getPriority()).thenReturn(TaskPriority.LOW);
+        when(row.getCompleted()).thenReturn(true);
+        when(row.getTotal()).thenReturn(5L);
+        when(taskRepository.countGroupedByPriorityAndCompleted()).thenReturn(List.of(row));
+        taskCounters.onCreated(new Task(1L, "stale", false));
+
+        assertFalse(taskCounters.isInitialized());
+        taskCounters.reconcile();
+
+        assertTrue(taskCounters.isInitialized());
+        assertEquals(5, taskCounters.completed());
+        assertEquals(0, taskCounters.open());
+        assertEquals(5, taskCounters.count(TaskPriority.LOW));
+        verify(taskRepository, never()).countByCompleted(anyBoolean());
+    }
+}
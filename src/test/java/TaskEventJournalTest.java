@@ -0,0 +1,116 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskEventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private TaskEventJournal journal;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.close();
+    }
+
+    private TaskEventJournal open(int segmentSize, int maxSegments) throws Exception {
+        TaskEventJournal opened = new TaskEventJournal(directory.toString(), segmentSize, maxSegments,
+                64, 8, false, new SimpleMeterRegistry());
+        opened.open();
+        return opened;
+    }
+
+    @Test
+    @DisplayName("イベントを書き込み順に任意のオフセットから読み直せる")
+    void shouldReplayFromAnyOffset() throws Exception {
+        journal = open(1024, 8);
+        for (long id = 1; id <= 40; id++) {
+            journal.onCreated(new Task(id, "Task " + id, false));
+        }
+        journal.onToggled(new Task(7L, "Task 7", true));
+        journal.onDeleted(new Task(8L, "Task 8", false));
+
+        TaskEventPage all = readAll(42);
+        assertEquals(42, all.events().size());
+        assertEquals(TaskEventType.CREATED, all.events().get(0).type());
+        assertEquals(TaskEventType.TOGGLED, all.events().get(40).type());
+        assertTrue(all.events().get(40).completed());
+        assertEquals(8L, all.events().get(41).taskId());
+
+        TaskEvent tenth = all.events().get(9);
+        TaskEventPage replay = journal.read(tenth.offset(), 2);
+        assertEquals(List.of(10L, 11L), replay.events().stream().map(TaskEvent::taskId).toList());
+        assertEquals(all.events().get(11).offset(), replay.nextOffset());
+    }
+
+    @Test
+    @DisplayName("開き直すと続きのオフセットから書き込む")
+    void shouldRecoverAfterReopen() throws Exception {
+        journal = open(4096, 8);
+        journal.onCreated(new Task(1L, "first", false));
+        long end = readAll(1).nextOffset();
+        journal.close();
+
+        journal = open(4096, 8);
+        assertEquals(end, journal.endOffset());
+        journal.onCreated(new Task(2L, "second", false));
+
+        TaskEventPage page = readAll(2);
+        assertEquals(List.of("first", "second"), page.events().stream().map(TaskEvent::title).toList());
+    }
+
+    @Test
+    @DisplayName("レコードの境界でないオフセットは拒否する")
+    void shouldRejectMisalignedOffset() throws Exception {
+        journal = open(4096, 8);
+        journal.onCreated(new Task(1L, "only", false));
+        readAll(1);
+
+        assertThrows(InvalidJournalOffsetException.class, () -> journal.read(3, 10));
+        assertThrows(InvalidJournalOffsetException.class, () -> journal.read(journal.endOffset() + 1, 10));
+    }
+
+    @Test
+    @DisplayName("書き込みに失敗したイベントは捨てずに書き直す")
+    void shouldRetryEventsAfterWriteFailure() throws Exception {
+        // Given: 次のセグメントのファイルを作れない
+        journal = open(1024, 8);
+        Path blocker = Files.createDirectory(directory.resolve(String.format("%020d.journal", 1024)));
+
+        // When: 1 セグメントに収まらない数を書く
+        for (long id = 1; id <= 40; id++) {
+            journal.onCreated(new Task(id, "Task " + id, false));
+        }
+        Thread.sleep(300);
+        int before = journal.read(0, 1000).events().size();
+        Files.delete(blocker);
+
+        // Then: 最初のセグメント分だけが見えていて、塞いでいたものを除くと残りも順に書かれる
+        assertTrue(before > 0 && before < 40, "events before recovery: " + before);
+        TaskEventPage page = readAll(40);
+        assertEquals(LongStream.rangeClosed(1, 40).boxed().toList(),
+                page.events().stream().map(TaskEvent::taskId).toList());
+    }
+
+    private TaskEventPage readAll(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        TaskEventPage page = journal.read(0, 1000);
+        while (page.events().size() < expected && System.currentTimeMillis() < deadline) {
+            journal.awaitAfter(page.nextOffset(), 100);
+            page = journal.read(0, 1000);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 一覧 API の絞り込みが複合インデックスを使い、既定の id 順でソートしないことを H2 の EXPLAIN で確かめる。
+ * PostgreSQL での index-only scan は scripts/explain-task-queries.sql で確認する。
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class TaskQueryPlanIntegrationTest {
+
+    private static final String COLUMNS = "select id, title, completed, priority, created_at from tasks ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class).toLowerCase(Locale.ROOT);
+    }
+
+    @Test
+    @DisplayName("優先度で絞った id 順はインデックスの順に読むだけで済む")
+    void shouldReadPriorityFilterInIdOrder() {
+        String plan = explain(COLUMNS + "where priority = 'HIGH' order by id limit 100");
+
+        assertTrue(plan.contains("idx_tasks_priority_id"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    @DisplayName("完了状態で絞った id 順はインデックスの順に読むだけで済む")
+    void shouldReadCompletedFilterInIdOrder() {
+        String plan = explain(COLUMNS + "where completed = false order by id limit 100");
+
+        assertTrue(plan.contains("idx_tasks_completed_id"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    @DisplayName("作成日時の範囲は作成日時のインデックスを使う")
+    void shouldUseCreatedAtIndexForRange() {
+        String plan = explain(COLUMNS + "where created_at >= timestamp '2024-01-01 00:00:00' "
+                + "and created_at < timestamp '2024-02-01 00:00:00' order by created_at, id limit 100");
+
+        assertTrue(plan.contains("idx_tasks_created_at"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+}
@@ -10,7 +10,6 @@ import static org.mockito.Mockito.*;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 
 public class TaskServiceTest {
     
@@ -62,22 +61,38 @@ public class TaskServiceTest {
         verify(taskRepository).save(any(Task.class));
     }
     
+    @Test
+    @DisplayName("複数タスクをまとめて作成できる")
+    void shouldCreateTasksInBatch() {
+        // Given
+        when(taskRepository.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        List<Task> created = taskService.createTasks(Arrays.asList("Task A", "Task B"));
+        
+        // Then
+        assertEquals(2, created.size());
+        assertEquals("Task A", created.get(0).getTitle());
+        assertEquals("Task B", created.get(1).getTitle());
+        verify(taskRepository).insertAll(anyList());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+    
     @Test
     @DisplayName("タスクの完了状態を切り替えできる")
     void shouldToggleTaskCompletion() {
         // Given
         Long taskId = 1L;
-        Task task = new Task(taskId, "Test Task", false);
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(taskRepository.save(task)).thenReturn(task);
+        when(taskRepository.toggleCompletion(taskId)).thenReturn(List.of(new Task(taskId, "Test Task", true)));
         
         // When
         Task updatedTask = taskService.toggleTaskCompletion(taskId);
         
         // Then
         assertTrue(updatedTask.isCompleted());
-        verify(taskRepository).findById(taskId);
-        verify(taskRepository).save(task);
+        verify(taskRepository).toggleCompletion(taskId);
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).save(any(Task.class));
     }
     
     @Test
@@ -85,30 +100,98 @@ public class TaskServiceTest {
     void shouldThrowExceptionWhenToggleNonExistentTask() {
         // Given
         Long taskId = 999L;
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskRepository.toggleCompletion(taskId)).thenReturn(List.of());
         
         // When & Then
         assertThrows(TaskNotFoundException.class, () -> {
             taskService.toggleTaskCompletion(taskId);
         });
-        verify(taskRepository).findById(taskId);
         verify(taskRepository, never()).save(any(Task.class));
     }
     
+    @Test
+    @DisplayName("複数タスクの完了状態を重複を除いて 1 回で切り替えできる")
+    void shouldToggleTasksInBulk() {
+        // Given
+        when(taskRepository.toggleCompletion(1L, 2L)).thenReturn(List.of(new Task(1L, "Task 1", true)));
+        
+        // When
+        List<Task> toggled = taskService.toggleTasksCompletion(Arrays.asList(1L, 2L, 1L));
+        
+        // Then
+        assertEquals(1, toggled.size());
+        verify(taskRepository).toggleCompletion(1L, 2L);
+    }
+    
     @Test
     @DisplayName("タスクを削除できる")
     void shouldDeleteTask() {
         // Given
         Long taskId = 1L;
-        Task task = new Task(taskId, "Test Task", false);
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(taskRepository.deleteReturning(taskId)).thenReturn(List.of(new Task(taskId, "Test Task", false)));
         
         // When
         taskService.deleteTask(taskId);
         
         // Then
-        verify(taskRepository).findById(taskId);
-        verify(taskRepository).delete(task);
+        verify(taskRepository).deleteReturning(taskId);
+        verify(taskRepository, never()).findById(any());
+    }
+    
+    @Test
+    @DisplayName("存在しないタスクの削除で例外が発生する")
+    void shouldThrowExceptionWhenDeleteNonExistentTask() {
+        // Given
+        when(taskRepository.deleteReturning(999L)).thenReturn(List.of());
+        
+        // When & Then
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(999L));
+    }
+    
+    @Test
+    @DisplayName("ユーザーに割り当ててタスクを作成できる")
+    void shouldCreateTaskForUser() {
+        // Given
+        Task saved = new Task(1L, "User Task", false);
+        when(taskRepository.save(any(Task.class))).thenReturn(saved);
+        when(taskRepository.assignToUser(1L, 5L)).thenReturn(true);
+        
+        // When
+        Task created = taskService.createTask("User Task", 5L);
+        
+        // Then
+        assertEquals(saved, created);
+        verify(taskRepository).assignToUser(1L, 5L);
+    }
+    
+    @Test
+    @DisplayName("存在しないユーザーへの割り当てで例外が発生する")
+    void shouldThrowExceptionWhenAssigningToNonExistentUser() {
+        // Given
+        when(taskRepository.save(any(Task.class))).thenReturn(new Task(1L, "User Task", false));
+        when(taskRepository.assignToUser(1L, 999L)).thenReturn(false);
+        
+        // When & Then
+        assertThrows(UserNotFoundException.class, () -> taskService.createTask("User Task", 999L));
+    }
+    
+    @Test
+    @DisplayName("ユーザーのタスクを ID 順にページで取得できる")
+    void shouldGetUserTasksPage() {
+        // Given
+        when(taskRepository.findTaskIdsByUser(5L)).thenReturn(new long[]{1, 3, 7});
+        when(taskRepository.findAllById(List.of(3L, 7L))).thenReturn(List.of(
+            new Task(7L, "Task 7", false),
+            new Task(3L, "Task 3", true)
+        ));
+        
+        // When
+        UserTaskPage page = taskService.getUserTasks(5L, 1L, 2);
+        
+        // Then
+        assertEquals(List.of(3L, 7L), page.tasks().stream().map(Task::getId).toList());
+        assertNull(page.nextAfter());
+        assertEquals(3, page.total());
     }
     
     @Test
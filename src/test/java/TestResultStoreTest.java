@@ -0,0 +1,129 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestResultStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static String report(double fastTime, String unstableOutcome) {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <testsuite name="com.example.CalcTest" tests="3">
+                  <testcase name="adds" classname="com.example.CalcTest" time="%s"/>
+                  <testcase name="divides" classname="com.example.CalcTest" time="0.5">%s</testcase>
+                  <testcase name="ignored" classname="com.example.CalcTest" time="0"><skipped/></testcase>
+                </testsuite>
+                """.formatted(fastTime, unstableOutcome);
+    }
+
+    private static TestRunSummary ingest(TestResultStore store, String xml) {
+        TestResultStore.Ingestion ingestion = store.begin("build");
+        ingestion.addReport(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        return ingestion.commit();
+    }
+
+    @Test
+    @DisplayName("JUnit XML を取り込み、結果ごとに数える")
+    void shouldIngestReport() throws Exception {
+        TestResultStore store = new TestResultStore(directory.toString(), 10);
+        store.load();
+
+        TestRunSummary summary = ingest(store, report(0.01, "<failure message=\"boom\">trace</failure>"));
+
+        assertEquals(3, summary.tests());
+        assertEquals(1, summary.passed());
+        assertEquals(1, summary.failed());
+        assertEquals(1, summary.skipped());
+    }
+
+    @Test
+    @DisplayName("直近の実行から百分位と不安定率を求める")
+    void shouldComputePercentilesAndFlakiness() throws Exception {
+        TestResultStore store = new TestResultStore(directory.toString(), 10);
+        store.load();
+        for (int i = 1; i <= 4; i++) {
+            ingest(store, report(i / 1000.0, i % 2 == 0 ? "<failure/>" : ""));
+        }
+        ingest(store, report(0.005, "<flakyFailure/>"));
+
+        TestStats adds = store.stats("com.example.CalcTest#adds", 5);
+        assertEquals(5, adds.runs());
+        assertEquals(3.0, adds.p50Millis());
+        assertEquals(5.0, adds.p95Millis());
+        assertEquals(0.0, adds.flakinessRate());
+
+        TestStats divides = store.stats("com.example.CalcTest#divides", 5);
+        assertEquals(2, divides.failures());
+        // pass→fail→pass→fail→pass の入れ替わり 4 回（最後は flaky でもある）
+        assertEquals(4, divides.flakyRuns());
+        assertEquals(0.8, divides.flakinessRate(), 1e-9);
+
+        List<TestStats> all = store.stats(2);
+        assertEquals(3, all.size());
+    }
+
+    @Test
+    @DisplayName("再起動後もファイルから直近の実行を読み戻す")
+    void shouldReloadRunsFromDisk() throws Exception {
+        TestResultStore store = new TestResultStore(directory.toString(), 2);
+        store.load();
+        for (int i = 0; i < 3; i++) {
+            ingest(store, report(0.001, ""));
+        }
+
+        TestResultStore reloaded = new TestResultStore(directory.toString(), 2);
+        reloaded.load();
+
+        List<TestRunSummary> runs = reloaded.recentRuns(10);
+        assertEquals(2, runs.size());
+        assertEquals(3, runs.get(0).id());
+        assertEquals(2, reloaded.stats("com.example.CalcTest#adds", 10).runs());
+    }
+
+    @Test
+    @DisplayName("捨てた実行にしか無いテストは辞書から除き、残りの統計はそのまま引ける")
+    void shouldPruneDictionaryWhenRunsAreEvicted() throws Exception {
+        // Given: 実行ごとにテストクラスが入れ替わる（改名や削除が続いた状態）
+        TestResultStore store = new TestResultStore(directory.toString(), 2);
+        store.load();
+        for (int i = 0; i < 6; i++) {
+            ingest(store, report(0.001, "").replace("com.example.CalcTest", "com.example.Renamed" + i + "Test"));
+        }
+
+        // When
+        List<TestStats> all = store.stats(10);
+
+        // Then: 残っている 2 実行分の 6 テストだけ
+        assertEquals(6, all.size());
+        assertTrue(all.stream().allMatch(stats -> stats.suite().matches("com\\.example\\.Renamed[45]Test")));
+        assertNull(store.stats("com.example.Renamed0Test#adds", 10));
+        assertEquals(1, store.stats("com.example.Renamed5Test#adds", 10).runs());
+        assertEquals(1, store.stats("com.example.Renamed4Test#divides", 10).runs());
+
+        TestResultStore reloaded = new TestResultStore(directory.toString(), 2);
+        reloaded.load();
+        assertEquals(6, reloaded.stats(10).size());
+    }
+
+    @Test
+    @DisplayName("壊れた XML は InvalidTestReportException になる")
+    void shouldRejectMalformedXml() throws Exception {
+        TestResultStore store = new TestResultStore(directory.toString(), 10);
+        store.load();
+
+        TestResultStore.Ingestion ingestion = store.begin("");
+        assertThrows(InvalidTestReportException.class, () ->
+                ingestion.addReport(new ByteArrayInputStream("<testsuite><testcase".getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserCacheTest {
+
+    private final UserCache cache = new UserCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    private static User user(long id, String email) {
+        User user = new User("u" + id, email, "hash");
+        user.setId(id);
+        return user;
+    }
+
+    private boolean cachedById(long id) {
+        return cache.getById(id, key -> null) != null;
+    }
+
+    private boolean cachedByEmail(String email) {
+        return cache.getByEmail(email, key -> null) != null;
+    }
+
+    @Test
+    @DisplayName("一度読み込んだユーザーは以後 loader を呼ばない")
+    void shouldLoadOnlyOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        User user = user(1L, "a@example.com");
+
+        assertSame(user, cache.getById(1L, id -> {
+            loads.incrementAndGet();
+            return user;
+        }));
+        assertSame(user, cache.getById(1L, id -> fail()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("見つからなかったユーザーはキャッシュしない")
+    void shouldNotCacheMisses() {
+        assertNull(cache.getById(2L, id -> null));
+
+        User user = user(2L, "b@example.com");
+        assertSame(user, cache.getById(2L, id -> user));
+    }
+
+    @Test
+    @DisplayName("メール変更で ID と新旧のメールアドレスが無効になる")
+    void shouldInvalidateBothEmailsOnEmailChange() {
+        User before = user(3L, "old@example.com");
+        cache.getById(3L, id -> before);
+        cache.getByEmail("old@example.com", email -> before);
+        cache.getByEmail("new@example.com", email -> before);
+
+        cache.onEmailChanged(user(3L, "new@example.com"), "old@example.com");
+
+        assertFalse(cachedById(3L));
+        assertFalse(cachedByEmail("old@example.com"));
+        assertFalse(cachedByEmail("new@example.com"));
+    }
+
+    @Test
+    @DisplayName("パスワード変更と削除で対象のユーザーだけが無効になる")
+    void shouldInvalidateOnlyChangedUser() {
+        User first = user(4L, "d@example.com");
+        User second = user(5L, "e@example.com");
+        cache.getById(4L, id -> first);
+        cache.getByEmail("d@example.com", email -> first);
+        cache.getById(5L, id -> second);
+
+        cache.onPasswordChanged(first);
+        assertFalse(cachedById(4L));
+        assertFalse(cachedByEmail("d@example.com"));
+        assertTrue(cachedById(5L));
+
+        cache.onDeleted(second);
+        assertFalse(cachedById(5L));
+    }
+
+    @Test
+    @DisplayName("ローカルの無効化は指定したキーだけ、全無効化は全てを捨てる")
+    void shouldInvalidateLocally() {
+        User first = user(6L, "f@example.com");
+        User second = user(7L, "g@example.com");
+        cache.getById(6L, id -> first);
+        cache.getById(7L, id -> second);
+        cache.getByEmail("g@example.com", email -> second);
+
+        cache.invalidateLocal(6L, List.of("f@example.com"));
+        assertFalse(cachedById(6L));
+        assertTrue(cachedById(7L));
+
+        cache.invalidateAllLocal();
+        assertFalse(cachedById(7L));
+        assertFalse(cachedByEmail("g@example.com"));
+    }
+}
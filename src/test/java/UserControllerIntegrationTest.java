@@ -0,0 +1,216 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * /api/users と /api/auth/login を通しで確かめる。
+ * <p>
+ * ユーザーの作成はハッシュ計算をトランザクションの外で行い即座にコミットされるので、テストをトランザクションで
+ * 囲んでも巻き戻らない。作ったユーザーは API 経由で削除し（キャッシュや索引にも反映される）、
+ * 他のテストが作ったユーザーと混ざらないようメールアドレスはテストごとに一意にする。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class UserControllerIntegrationTest {
+
+    private static final String PASSWORD = "password123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String domain = "it" + System.nanoTime() + ".example.com";
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (Long id : created) {
+            mockMvc.perform(delete("/api/users/{id}", id));
+        }
+    }
+
+    private User createUser(String localPart) throws Exception {
+        String body = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserCreateRequest(localPart + "-" + domain, email(localPart), PASSWORD))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        User user = objectMapper.readValue(body, User.class);
+        created.add(user.getId());
+        return user;
+    }
+
+    private String email(String localPart) {
+        return localPart + "@" + domain;
+    }
+
+    private long totalUsers() throws Exception {
+        String body = mockMvc.perform(get("/api/users").param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).path("totalElements").asLong();
+    }
+
+    @Test
+    @DisplayName("ユーザーを作成でき、パスワードのハッシュは返さない")
+    void shouldCreateUser() throws Exception {
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserCreateRequest("newuser-" + domain, email("newuser"), PASSWORD))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", notNullValue()))
+                .andExpect(jsonPath("$.username", is("newuser-" + domain)))
+                .andExpect(jsonPath("$.email", is(email("newuser"))))
+                .andExpect(jsonPath("$.passwordHash").doesNotExist())
+                .andDo(result -> created.add(
+                        objectMapper.readValue(result.getResponse().getContentAsString(), User.class).getId()));
+    }
+
+    @Test
+    @DisplayName("ID でユーザーを取得できる")
+    void shouldGetUserById() throws Exception {
+        User user = createUser("get");
+
+        mockMvc.perform(get("/api/users/{id}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(user.getId().intValue())))
+                .andExpect(jsonPath("$.email", is(email("get"))));
+    }
+
+    @Test
+    @DisplayName("存在しないユーザーは 404")
+    void shouldReturn404ForMissingUser() throws Exception {
+        mockMvc.perform(get("/api/users/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("一覧はページで返す")
+    void shouldPageUsers() throws Exception {
+        long before = totalUsers();
+        for (int i = 1; i <= 15; i++) {
+            createUser("page" + i);
+        }
+
+        mockMvc.perform(get("/api/users").param("page", "0").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(10)))
+                .andExpect(jsonPath("$.totalElements", is((int) before + 15)))
+                .andExpect(jsonPath("$.first", is(true)));
+    }
+
+    @Test
+    @DisplayName("メールアドレスを変更できる")
+    void shouldUpdateEmail() throws Exception {
+        User user = createUser("original");
+
+        mockMvc.perform(put("/api/users/{id}/email", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserEmailUpdateRequest(email("updated")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is(email("updated"))));
+
+        mockMvc.perform(get("/api/users/{id}", user.getId()))
+                .andExpect(jsonPath("$.email", is(email("updated"))));
+    }
+
+    @Test
+    @DisplayName("削除したユーザーは 404 になる")
+    void shouldDeleteUser() throws Exception {
+        User user = createUser("todelete");
+
+        mockMvc.perform(delete("/api/users/{id}", user.getId()))
+                .andExpect(status().isNoContent());
+        created.remove(user.getId());
+
+        mockMvc.perform(get("/api/users/{id}", user.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("不正な作成リクエストは 400")
+    void shouldValidateCreateRequest() throws Exception {
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\": \"\", \"email\": \"\", \"password\": \"123\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("登録済みのメールアドレスでの作成は 409")
+    void shouldRejectDuplicateEmail() throws Exception {
+        createUser("duplicate");
+
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserCreateRequest("second-" + domain, email("duplicate"), PASSWORD))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("正しいパスワードでログインできる")
+    void shouldLogIn() throws Exception {
+        createUser("auth");
+
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email("auth"), PASSWORD))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is(email("auth"))));
+    }
+
+    @Test
+    @DisplayName("誤ったパスワードのログインは 401")
+    void shouldRejectWrongPassword() throws Exception {
+        createUser("auth");
+
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(email("auth"), "wrongpassword"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("メールアドレスの部分一致で検索できる")
+    void shouldSearchByEmailFragment() throws Exception {
+        createUser("john.doe");
+        createUser("jane.doe");
+        createUser("bob.smith");
+
+        mockMvc.perform(get("/api/users/search").param("email", "doe@" + domain))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].email", containsInAnyOrder(email("john.doe"), email("jane.doe"))));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class UserEmailIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserEmailIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        UserRepository.UserEmailRow john = row(1L, "john.doe@example.com");
+        UserRepository.UserEmailRow jane = row(2L, "Jane.Doe@Example.com");
+        UserRepository.UserEmailRow bob = row(3L, "bob@test.org");
+        when(userRepository.findAllEmails()).thenReturn(List.of(john, jane, bob));
+        index = new UserEmailIndex(userRepository);
+        index.load();
+    }
+
+    @Test
+    @DisplayName("部分一致するユーザー ID を昇順で返す")
+    void shouldFindSubstringMatches() {
+        assertArrayEquals(new long[]{1L, 2L}, index.search("doe@example", 10));
+        assertArrayEquals(new long[]{3L}, index.search("TEST.ORG", 10));
+        assertArrayEquals(new long[0], index.search("nobody", 10));
+    }
+
+    @Test
+    @DisplayName("3 文字未満の検索語は全件走査で処理する")
+    void shouldHandleShortQueries() {
+        assertArrayEquals(new long[]{3L}, index.search("bo", 10));
+    }
+
+    @Test
+    @DisplayName("メール変更と削除がインデックスに反映される")
+    void shouldFollowEmailChangesAndDeletes() {
+        User john = new User("john", "john@new.io", "hash");
+        john.setId(1L);
+        index.onEmailChanged(john, "john.doe@example.com");
+
+        assertArrayEquals(new long[]{2L}, index.search("doe@example", 10));
+        assertArrayEquals(new long[]{1L}, index.search("new.io", 10));
+
+        index.onDeleted(john);
+        assertArrayEquals(new long[0], index.search("new.io", 10));
+    }
+
+    @Test
+    @DisplayName("他ノードでの作成・メール変更・削除がインデックスに反映される")
+    void shouldFollowRemoteChanges() {
+        index.onRemoteUserCreated(4L, "alice@remote.io");
+        index.onRemoteUserChanged(1L, List.of("john.doe@example.com", "john@remote.io"));
+        index.onRemoteUserDeleted(3L, List.of("bob@test.org"));
+
+        assertArrayEquals(new long[]{1L, 4L}, index.search("remote.io", 10));
+        assertArrayEquals(new long[]{2L}, index.search("doe@example", 10));
+        assertArrayEquals(new long[0], index.search("test.org", 10));
+    }
+
+    @Test
+    @DisplayName("RESET で DB と突き合わせ、読み込み中の追加は残す")
+    void shouldRebuildOnRemoteReset() {
+        // Given: 他ノードで john のメール変更と bob の削除があり、読み込み中にこのノードで carol が作成される
+        UserRepository.UserEmailRow john = row(1L, "john@moved.io");
+        UserRepository.UserEmailRow jane = row(2L, "Jane.Doe@Example.com");
+        when(userRepository.findAllEmails()).thenAnswer(invocation -> {
+            User carol = new User("carol", "carol@example.com", "hash");
+            carol.setId(5L);
+            index.onCreated(carol);
+            return List.of(john, jane);
+        });
+
+        // When
+        index.onRemoteReset();
+
+        // Then
+        assertArrayEquals(new long[]{1L}, index.search("moved.io", 10));
+        assertArrayEquals(new long[]{2L}, index.search("doe@example", 10));
+        assertArrayEquals(new long[0], index.search("test.org", 10));
+        assertArrayEquals(new long[]{5L}, index.search("carol", 10));
+    }
+
+    @Test
+    @DisplayName("件数の上限を守る")
+    void shouldRespectLimit() {
+        assertEquals(1, index.search("example", 1).length);
+    }
+
+    private static UserRepository.UserEmailRow row(Long id, String email) {
+        UserRepository.UserEmailRow row = mock(UserRepository.UserEmailRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getEmail()).thenReturn(email);
+        return row;
+    }
+}
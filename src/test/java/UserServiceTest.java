@@ -0,0 +1,293 @@
+package com.example.taskmanager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private EmailBloomFilter emailBloomFilter;
+
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        userService = new UserService(userRepository, passwordEncoder, null, null, emailBloomFilter,
+                null, null, List.of(), 100);
+    }
+
+    @Test
+    @DisplayName("未登録と確定しているメールアドレスは存在確認せずに作成する")
+    void shouldSkipExistenceProbeForDefinitelyNewEmail() {
+        // Given
+        when(emailBloomFilter.mightContain("new@example.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        User user = userService.createUser("newbie", "new@example.com", "password123");
+        
+        // Then
+        assertEquals("hash:password123", user.getPasswordHash());
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("登録済みかもしれないメールアドレスはハッシュ計算の前に重複を検出する")
+    void shouldProbeWhenBloomFilterMightContain() {
+        // Given
+        when(emailBloomFilter.mightContain("doe@example.com")).thenReturn(true);
+        when(userRepository.existsByEmail("doe@example.com")).thenReturn(true);
+        
+        // When & Then
+        assertThrows(DuplicateEmailException.class,
+                () -> userService.createUser("john", "doe@example.com", "password123"));
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("一意制約違反を重複メールアドレスの例外に変換する")
+    void shouldMapUniqueViolationToDuplicateEmail() {
+        // Given
+        when(emailBloomFilter.mightContain(anyString())).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("insert failed",
+                new SQLException("duplicate key value violates unique constraint \"users_email_key\"", "23505")));
+        
+        // When & Then
+        assertThrows(DuplicateEmailException.class,
+                () -> userService.createUser("racer", "race@example.com", "password123"));
+    }
+
+    @Test
+    @DisplayName("メールアドレス以外の一意制約違反は重複メールアドレスにしない")
+    void shouldNotMapOtherUniqueViolationsToDuplicateEmail() {
+        // Given: 値に "email" を含んでいても制約はユーザー名のもの
+        when(emailBloomFilter.mightContain(anyString())).thenReturn(false);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("insert failed",
+                new SQLException("duplicate key value violates unique constraint \"users_username_key\" "
+                        + "Detail: Key (username)=(email-admin) already exists.", "23505"));
+        when(userRepository.save(any(User.class))).thenThrow(violation);
+
+        // When & Then
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> userService.createUser("email-admin", "admin@example.com", "password123")));
+    }
+
+    @Test
+    @DisplayName("カーソルの続きから 1 ページ分を返し、次のカーソルを付ける")
+    void shouldPageWithCursor() {
+        // Given
+        User first = user(11L);
+        User second = user(12L);
+        User third = user(13L);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any()))
+                .thenReturn(List.of(first, second, third));
+        when(userRepository.count()).thenReturn(100L);
+        
+        // When
+        UserCursorPage page = userService.getUsersAfter(UserCursor.encode(10L), 2);
+        
+        // Then
+        assertEquals(List.of(first, second), page.content());
+        assertEquals(12L, UserCursor.decode(page.nextCursor()));
+        assertEquals(100L, page.totalElements());
+    }
+
+    @Test
+    @DisplayName("不正なカーソルは拒否する")
+    void shouldRejectInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> userService.getUsersAfter("not-a-cursor", 20));
+    }
+
+    @Test
+    @DisplayName("存在しないユーザーの検索で例外が発生する")
+    void shouldThrowWhenUserNotFound() {
+        when(userRepository.findById(42L)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.findById(42L));
+    }
+
+    @Test
+    @DisplayName("ID でユーザーを取得できる")
+    void shouldFindUserById() {
+        User expected = user(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(expected));
+
+        assertSame(expected, userService.findById(1L));
+    }
+
+    @Test
+    @DisplayName("メールアドレスでユーザーを取得できる")
+    void shouldFindUserByEmail() {
+        User expected = user(2L);
+        when(userRepository.findByEmail("user2@example.com")).thenReturn(Optional.of(expected));
+
+        assertSame(expected, userService.findByEmail("user2@example.com"));
+    }
+
+    @Test
+    @DisplayName("未登録のメールアドレスの検索で例外が発生する")
+    void shouldThrowWhenEmailNotFound() {
+        when(userRepository.findByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.findByEmail("missing@example.com"));
+    }
+
+    @Test
+    @DisplayName("全てのユーザーを取得できる")
+    void shouldGetAllUsers() {
+        List<User> expected = List.of(user(1L), user(2L), user(3L));
+        when(userRepository.findAll()).thenReturn(expected);
+
+        assertEquals(expected, userService.getAllUsers());
+    }
+
+    @Test
+    @DisplayName("メールアドレスを変更できる")
+    void shouldUpdateEmail() {
+        // Given
+        User existing = user(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
+        when(userRepository.saveAndFlush(existing)).thenReturn(existing);
+
+        // When
+        User updated = userService.updateEmail(1L, "new@example.com");
+
+        // Then
+        assertEquals("new@example.com", updated.getEmail());
+        verify(userRepository).saveAndFlush(existing);
+    }
+
+    @Test
+    @DisplayName("登録済みのメールアドレスへの変更は拒否する")
+    void shouldRejectEmailChangeToExistingEmail() {
+        User existing = user(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(userRepository.existsByEmail("taken@example.com")).thenReturn(true);
+
+        assertThrows(DuplicateEmailException.class, () -> userService.updateEmail(1L, "taken@example.com"));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    @DisplayName("確認の後に同じアドレスが登録されていたら、一意制約違反を重複メールアドレスの例外に変換する")
+    void shouldMapUniqueViolationOnEmailChangeToDuplicateEmail() {
+        // Given: existsByEmail の後に別のリクエストが同じアドレスを登録した
+        User existing = user(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(userRepository.existsByEmail("race@example.com")).thenReturn(false);
+        when(userRepository.saveAndFlush(existing)).thenThrow(new DataIntegrityViolationException("update failed",
+                new SQLException("duplicate key value violates unique constraint \"users_email_key\"", "23505")));
+
+        // When & Then
+        assertThrows(DuplicateEmailException.class, () -> userService.updateEmail(1L, "race@example.com"));
+    }
+
+    @Test
+    @DisplayName("ユーザーを削除できる")
+    void shouldDeleteUser() {
+        User existing = user(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        userService.deleteUser(1L);
+
+        verify(userRepository).delete(existing);
+    }
+
+    @Test
+    @DisplayName("存在しないユーザーの削除で例外が発生する")
+    void shouldThrowWhenDeletingMissingUser() {
+        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.deleteUser(999L));
+        verify(userRepository, never()).delete(any(User.class));
+    }
+
+    @Test
+    @DisplayName("正しいパスワードで認証できる")
+    void shouldAuthenticateWithCorrectPassword() {
+        // Given
+        User existing = user(1L);
+        when(userRepository.findByEmail("user1@example.com")).thenReturn(Optional.of(existing));
+        when(passwordEncoder.matches("password123", "hash")).thenReturn(true);
+
+        // When & Then
+        assertSame(existing, userService.authenticate("user1@example.com", "password123"));
+    }
+
+    @Test
+    @DisplayName("誤ったパスワードでは認証に失敗する")
+    void shouldRejectWrongPassword() {
+        when(userRepository.findByEmail("user1@example.com")).thenReturn(Optional.of(user(1L)));
+        when(passwordEncoder.matches("wrong", "hash")).thenReturn(false);
+
+        assertThrows(InvalidCredentialsException.class,
+                () -> userService.authenticate("user1@example.com", "wrong"));
+    }
+
+    @Test
+    @DisplayName("未登録のメールアドレスでも照合してから認証に失敗する（応答時間で登録有無を漏らさない）")
+    void shouldHashEvenForUnknownEmail() {
+        when(userRepository.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(InvalidCredentialsException.class,
+                () -> userService.authenticate("nobody@example.com", "password123"));
+        verify(passwordEncoder).matches(eq("password123"), anyString());
+    }
+
+    private static User user(long id) {
+        User user = new User("user" + id, "user" + id + "@example.com", "hash");
+        user.setId(id);
+        return user;
+    }
+
+    @Test
+    @DisplayName("パスワード変更はハッシュ列だけを更新し、行を書き戻さない")
+    void shouldUpdateOnlyPasswordHash() {
+        // Given
+        User user = new User("racer", "race@example.com", "hash:old");
+        user.setId(7L);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(userRepository.updatePasswordHash(7L, "hash:new-password")).thenReturn(1);
+
+        // When
+        User updated = userService.updatePassword(7L, "new-password");
+
+        // Then
+        assertEquals("hash:new-password", updated.getPasswordHash());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("ハッシュ計算の間に削除されたユーザーは見つからない扱いにする")
+    void shouldFailWhenUserDeletedWhileHashing() {
+        User user = new User("racer", "race@example.com", "hash:old");
+        user.setId(8L);
+        when(userRepository.findById(8L)).thenReturn(Optional.of(user));
+        when(userRepository.updatePasswordHash(eq(8L), anyString())).thenReturn(0);
+
+        assertThrows(UserNotFoundException.class, () -> userService.updatePassword(8L, "new-password"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.taskmanager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserTaskIndexTest {
+
+    private final UserTaskIndex index = new UserTaskIndex(1_000, Duration.ofMinutes(10),
+            new SimpleMeterRegistry());
+
+    private static Task task(long id) {
+        return new Task(id, "Task " + id, false);
+    }
+
+    private static User user(long id) {
+        User user = new User("u" + id, "u" + id + "@example.com", "hash");
+        user.setId(id);
+        return user;
+    }
+
+    @Test
+    @DisplayName("一度読み込んだユーザーは以後 DB を読まない")
+    void shouldLoadOnlyOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        LongFunction<long[]> loader = userId -> {
+            loads.incrementAndGet();
+            return new long[]{1, 2, 3};
+        };
+
+        assertArrayEquals(new long[]{1, 2, 3}, index.taskIds(1L, loader));
+        assertArrayEquals(new long[]{1, 2, 3}, index.taskIds(1L, loader));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("割り当てと削除のイベントで昇順の配列が更新される")
+    void shouldKeepIdsSortedOnAssignAndDelete() {
+        index.taskIds(1L, userId -> new long[]{2, 5});
+
+        index.onAssigned(task(4L), 1L);
+        index.onAssigned(task(9L), 1L);
+        index.onAssigned(task(4L), 1L);
+        assertArrayEquals(new long[]{2, 4, 5, 9}, index.taskIds(1L, userId -> fail()));
+
+        index.onDeleted(task(5L));
+        index.onDeleted(task(2L));
+        assertArrayEquals(new long[]{4, 9}, index.taskIds(1L, userId -> fail()));
+    }
+
+    @Test
+    @DisplayName("複数のユーザーに割り当てられたタスクの削除は全員の配列から外れる")
+    void shouldRemoveSharedTaskFromEveryOwner() {
+        index.taskIds(1L, userId -> new long[]{3, 4});
+        index.taskIds(2L, userId -> new long[]{4});
+        index.assigned(2L, 3L);
+
+        index.taskDeleted(3L);
+
+        assertArrayEquals(new long[]{4}, index.taskIds(1L, userId -> fail()));
+        assertArrayEquals(new long[]{4}, index.taskIds(2L, userId -> fail()));
+    }
+
+    @Test
+    @DisplayName("全て捨てると次の参照で読み直す")
+    void shouldReloadAfterInvalidateAll() {
+        index.taskIds(1L, userId -> new long[]{1});
+
+        index.invalidateAll();
+
+        assertArrayEquals(new long[]{1, 2}, index.taskIds(1L, userId -> new long[]{1, 2}));
+    }
+
+    @Test
+    @DisplayName("索引に無いユーザーへの割り当ては次の読み込みに任せる")
+    void shouldIgnoreAssignmentForColdUser() {
+        index.onAssigned(task(7L), 2L);
+
+        assertArrayEquals(new long[]{7}, index.taskIds(2L, userId -> new long[]{7}));
+    }
+
+    @Test
+    @DisplayName("ユーザーの削除で索引から外れる")
+    void shouldDropDeletedUser() {
+        index.taskIds(3L, userId -> new long[]{1, 2});
+
+        index.onDeleted(user(3L));
+
+        assertArrayEquals(new long[0], index.taskIds(3L, userId -> new long[0]));
+    }
+
+    @Test
+    @DisplayName("解決できなかった ID を外せる")
+    void shouldForgetUnresolvedIds() {
+        index.taskIds(4L, userId -> new long[]{1, 2, 3});
+
+        index.forget(4L, 2L);
+
+        assertArrayEquals(new long[]{1, 3}, index.taskIds(4L, userId -> fail()));
+    }
+
+    @Test
+    @DisplayName("after の次から limit 件を切り出す")
+    void shouldSlicePageAfterCursor() {
+        long[] ids = {2, 4, 6, 8, 10};
+
+        assertArrayEquals(new long[]{2, 4}, UserTaskIndex.page(ids, null, 2));
+        assertArrayEquals(new long[]{6, 8}, UserTaskIndex.page(ids, 4L, 2));
+        assertArrayEquals(new long[]{6, 8}, UserTaskIndex.page(ids, 5L, 2));
+        assertArrayEquals(new long[]{10}, UserTaskIndex.page(ids, 8L, 2));
+        assertArrayEquals(new long[0], UserTaskIndex.page(ids, 10L, 2));
+    }
+}